@@ -1,25 +1,84 @@
 package com.stormidle;
 
+import com.stormidle.assets.AssetManifest;
+import com.stormidle.assets.DefinitionWatcher;
+import com.stormidle.assets.Fonts;
+import com.stormidle.assets.ResourceTracker;
 import com.stormidle.screens.IntroScreen;
-import com.badlogic.gdx.audio.Music;
+import com.stormidle.services.BackgroundServices;
+import com.stormidle.upgrades.UpgradeDefinitions;
+import com.badlogic.gdx.Application;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.utils.TimeUtils;
 
 public class Storm extends com.badlogic.gdx.Game {
 
     public Music music;
 
+    // Owns every texture and sound the screens use. Screens get() from here instead of loading files
+    public AssetManager assets;
+
+    // Upgrade trees and abilities from upgrades.json, compiled once here and shared by every GameScreen
+    public UpgradeDefinitions definitions;
+
+    // Only set in debug runs, reloads definitions when upgrades.json is saved
+    private DefinitionWatcher definitionWatcher;
+
+    // Background work on virtual threads. services is Storm's own scope, screens open theirs from backgroundServices
+    public final BackgroundServices backgroundServices = new BackgroundServices();
+    public BackgroundServices.Scope services;
+    private static final long SHUTDOWN_DEADLINE_MS = 2000;
+
+    // Used to report how long it takes from launch to the first interactive frame
+    public long launchTimeNanos;
+
     @Override
     public void create() {
-        // Start playing music
-        music = Gdx.audio.newMusic(Gdx.files.internal("game_music.wav"));
-        music.play();
-        music.setLooping(true);
+        launchTimeNanos = TimeUtils.nanoTime();
+        // Debug runs also print Gdx.app.debug() timings (popup open latency etc.)
+        if (ResourceTracker.ENABLED) Gdx.app.setLogLevel(Application.LOG_DEBUG);
+
+        // Intro logos load right away, everything else streams in while the intro plays
+        services = backgroundServices.openScope("Storm");
+        assets = new AssetManager();
+        AssetManifest.loadIntro(assets);
+        AssetManifest.queueAll(assets);
+        definitions = DefinitionWatcher.load(Gdx.files.internal(AssetManifest.UPGRADES));
+        if (ResourceTracker.ENABLED) {
+            definitionWatcher = DefinitionWatcher.start(Gdx.files.internal(AssetManifest.UPGRADES), services);
+        }
+
         // Game holds the active Screen. setScreen swaps it
         setScreen(new IntroScreen(this));
     }
 
+    // Starts the music once it has finished loading. Called by IntroScreen every frame until it succeeds
+    public void startMusic() {
+        if (music != null || !assets.isLoaded(AssetManifest.MUSIC)) return;
+        music = assets.get(AssetManifest.MUSIC, Music.class);
+        music.play();
+        music.setLooping(true);
+    }
+
+    // Returns definitions reloaded since the last call, or null. GameScreen applies them at the start of a frame
+    public UpgradeDefinitions pollDefinitions() {
+        if (definitionWatcher == null) return null;
+        UpgradeDefinitions fresh = definitionWatcher.poll();
+        if (fresh != null) definitions = fresh;
+        return fresh;
+    }
+
     @Override
     public void dispose() {
+        // Game.dispose() only hides the screen, so dispose it here too. It saves and closes its own services
         super.dispose();
+        if (screen != null) screen.dispose();
+        if (definitionWatcher != null) definitionWatcher.stop();
+        services.close(SHUTDOWN_DEADLINE_MS);
+        backgroundServices.shutdown(SHUTDOWN_DEADLINE_MS);
+        assets.dispose();
+        Fonts.dispose();
     }
 }
@@ -0,0 +1,73 @@
+package com.stormidle.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+
+// Queues every asset listed in assets.txt into an AssetManager.
+// assets.txt is produced by the generateAssetList Gradle task, so dropping a new file into assets/
+// is enough for it to be streamed in during the intro.
+
+public class AssetManifest {
+
+    public static final String MANIFEST_FILE = "assets.txt";
+
+    // File names referenced directly by the screens
+    public static final String LIBGDX_LOGO      = "libgdx_logo.png";
+    public static final String HEX_LOGO         = "hex_gaming_logo.png";
+    public static final String MUSIC            = "game_music.wav";
+    public static final String RAIN             = "rain.png";
+    public static final String BOWL             = "bowl.png";
+    public static final String CURRENCY         = "currency.png";
+    public static final String RAIN_BUTTON      = "rain_upgrades_button.png";
+    public static final String AUTO_BUTTON      = "auto_upgrades_button.png";
+    public static final String ECON_BUTTON      = "econ_upgrades_button.png";
+    public static final String ABILITIES_BUTTON = "abilities_button.png";
+    public static final String PRESTIGE_BUTTON  = "prestige_button.png";
+    public static final String NOT_UNLOCKED     = "not_unlocked_button.png";
+    public static final String UPGRADES         = "upgrades.json";
+    public static final String CLOUD_PREFIX     = "cloud_";
+    public static final int    CLOUD_COUNT      = 6;
+
+    // Returns the file name of the cloud texture for a prestige level (level 0 = cloud_1.png)
+    public static String cloud(int prestigeLevel) {
+        return CLOUD_PREFIX + (prestigeLevel + 1) + ".png";
+    }
+
+    // Loads the intro logos right away so IntroScreen can draw on its first frame
+    public static void loadIntro(AssetManager assets) {
+        assets.load(LIBGDX_LOGO, Texture.class);
+        assets.load(HEX_LOGO, Texture.class);
+        assets.finishLoadingAsset(LIBGDX_LOGO);
+        assets.finishLoadingAsset(HEX_LOGO);
+    }
+
+    // Queues everything else in the manifest. Nothing is loaded until AssetManager.update() is called
+    public static void queueAll(AssetManager assets) {
+        FileHandle manifest = Gdx.files.internal(MANIFEST_FILE);
+        if (!manifest.exists()) {
+            Gdx.app.error("AssetManifest", MANIFEST_FILE + " not found, nothing queued.");
+            return;
+        }
+
+        for (String line : manifest.readString().split("\n")) {
+            String path = line.trim();
+            if (path.isEmpty() || assets.contains(path)) continue;
+            // Clouds are loaded on demand by CloudTextures, only the current one needs to be resident
+            if (path.startsWith(CLOUD_PREFIX)) continue;
+
+            Class<?> type = typeOf(path);
+            if (type != null) assets.load(path, type);
+        }
+    }
+
+    // Maps a file extension to the asset type it should be loaded as, or null to skip it
+    private static Class<?> typeOf(String path) {
+        String lower = path.toLowerCase();
+        if (lower.endsWith(".png") || lower.endsWith(".jpg")) return Texture.class;
+        if (lower.endsWith(".wav") || lower.endsWith(".mp3") || lower.endsWith(".ogg")) return Music.class;
+        return null;
+    }
+}
@@ -0,0 +1,82 @@
+package com.stormidle.assets;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+
+// Keeps only the cloud textures that are on screen (or about to be) resident.
+// AssetManager already reference counts its assets: every load() adds a reference and every unload()
+// drops one, disposing the texture when the count reaches zero. This class holds at most two references:
+// the cloud being shown and a background prefetch of the next prestige level's cloud.
+
+public class CloudTextures {
+
+    // Start prefetching the next cloud once currency reaches this fraction of the prestige threshold
+    private static final float PREFETCH_AT = 0.75f;
+    // Drop the prefetch again if currency falls back below this fraction (e.g. after a big purchase)
+    private static final float EVICT_BELOW = 0.5f;
+
+    private final AssetManager assets;
+
+    private int shownLevel      = -1; // Level whose texture is on the cloud actor
+    private int prefetchedLevel = -1; // Level queued/loaded ahead of time, -1 if none
+
+    public CloudTextures(AssetManager assets) {
+        this.assets = assets;
+    }
+
+    // Returns the cloud texture for the given prestige level, loading it synchronously if needed,
+    // and releases the previously shown one
+    public Texture show(int prestigeLevel) {
+        int level = clamp(prestigeLevel);
+        if (level == shownLevel) return get(level);
+
+        // A prefetched cloud already holds a reference, so just take it over
+        if (level == prefetchedLevel) prefetchedLevel = -1;
+        else assets.load(AssetManifest.cloud(level), Texture.class);
+        assets.finishLoadingAsset(AssetManifest.cloud(level));
+
+        release(shownLevel);
+        shownLevel = level;
+        return get(level);
+    }
+
+    // Called every frame. Queues or evicts the next cloud depending on how close the player is to
+    // prestiging (threshold is PrestigeManager.nextThreshold(), -1 at the max level), and lets AssetManager
+    // stream any queued texture in
+    public void update(int prestigeLevel, int currency, int threshold) {
+        int next = clamp(prestigeLevel + 1);
+
+        if (threshold != -1 && next != shownLevel) {
+            if (prefetchedLevel != next && currency >= threshold * PREFETCH_AT) {
+                release(prefetchedLevel);
+                assets.load(AssetManifest.cloud(next), Texture.class);
+                prefetchedLevel = next;
+            } else if (prefetchedLevel == next && currency < threshold * EVICT_BELOW) {
+                release(prefetchedLevel);
+                prefetchedLevel = -1;
+            }
+        }
+
+        assets.update();
+    }
+
+    // Releases every reference this cache holds
+    public void dispose() {
+        release(shownLevel);
+        release(prefetchedLevel);
+        shownLevel = prefetchedLevel = -1;
+    }
+
+    private Texture get(int level) {
+        return assets.get(AssetManifest.cloud(level), Texture.class);
+    }
+
+    private void release(int level) {
+        if (level != -1) assets.unload(AssetManifest.cloud(level));
+    }
+
+    // There is one cloud per prestige level, the max level keeps showing the last one
+    private static int clamp(int level) {
+        return Math.max(0, Math.min(level, AssetManifest.CLOUD_COUNT - 1));
+    }
+}
@@ -0,0 +1,124 @@
+package com.stormidle.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.stormidle.services.BackgroundServices;
+import com.stormidle.upgrades.UpgradeDefinitions;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Dev-mode hot reload of upgrades.json (run with -PstormDebug).
+// A background service watches the assets folder, waits for the editor to stop writing, then parses and
+// compiles the file off the render thread. The result is parked here until the next frame picks it up
+// with poll(), so the live UpgradeManager only ever sees a complete set of definitions.
+// A file that fails to parse is logged and ignored, the game keeps running on the previous definitions.
+
+public class DefinitionWatcher {
+
+    // Editors often save in several writes, wait this long after the last one before reloading
+    private static final long DEBOUNCE_MS = 100;
+
+    private final FileHandle file;
+    private final WatchService watchService;
+    private final AtomicReference<UpgradeDefinitions> pending = new AtomicReference<>();
+
+    private DefinitionWatcher(FileHandle file, WatchService watchService) {
+        this.file         = file;
+        this.watchService = watchService;
+    }
+
+    // Reads, parses and compiles a definitions file, logging how long it took. Used at startup and on every reload
+    public static UpgradeDefinitions load(FileHandle file) {
+        long start = TimeUtils.nanoTime();
+        UpgradeDefinitions defs = UpgradeDefinitions.parse(file.readString("UTF-8"));
+        Gdx.app.log("UpgradeDefinitions", "Loaded " + defs.summary() + " from " + file.name() + " in "
+            + TimeUtils.nanosToMillis(TimeUtils.timeSinceNanos(start)) + "ms");
+        return defs;
+    }
+
+    // Starts watching the given file in background, or returns null if it isn't a plain file on disk (packaged builds)
+    public static DefinitionWatcher start(FileHandle file, BackgroundServices.Scope background) {
+        Path path = file.file().getAbsoluteFile().toPath();
+        if (!path.toFile().isFile()) {
+            Gdx.app.error("DefinitionWatcher", path + " is not on disk, hot reload disabled.");
+            return null;
+        }
+
+        try {
+            WatchService watchService = FileSystems.getDefault().newWatchService();
+            path.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            DefinitionWatcher watcher = new DefinitionWatcher(file, watchService);
+            if (!background.submit("DefinitionWatcher", watcher::run)) {
+                watchService.close();
+                return null;
+            }
+            Gdx.app.log("DefinitionWatcher", "Watching " + path);
+            return watcher;
+        } catch (IOException e) {
+            Gdx.app.error("DefinitionWatcher", "Could not watch " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Returns freshly compiled definitions once after each change, null otherwise. Called from the render thread
+    public UpgradeDefinitions poll() {
+        return pending.getAndSet(null);
+    }
+
+    public void stop() {
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = drain(key);
+
+                // Keep swallowing events until the folder has been quiet for DEBOUNCE_MS
+                while ((key = watchService.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= drain(key);
+                }
+                if (changed) reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stop() was called
+        }
+    }
+
+    // True if any of the key's events were for the watched file
+    private boolean drain(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (context instanceof Path && ((Path) context).getFileName().toString().equals(file.name())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void reload() {
+        try {
+            pending.set(load(file));
+        } catch (RuntimeException e) {
+            Gdx.app.error("DefinitionWatcher", "Keeping previous definitions, " + file.name()
+                + " failed to load: " + e.getMessage());
+        }
+    }
+}
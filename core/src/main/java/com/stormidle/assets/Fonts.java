@@ -0,0 +1,39 @@
+package com.stormidle.assets;
+
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+
+// Shared BitmapFonts, one per scale.
+// Every new BitmapFont() loads the default font texture again, so widgets that get rebuilt or refreshed
+// ask for a font here instead of creating their own. Fonts must not be rescaled after they are handed out.
+
+public class Fonts {
+
+    private static final FloatArray scales = new FloatArray();
+    private static final Array<BitmapFont> fonts = new Array<>();
+
+    // Returns the shared default font at the given scale, creating it on first use
+    public static BitmapFont get(float scale) {
+        for (int i = 0; i < scales.size; i++) {
+            if (scales.get(i) == scale) return fonts.get(i);
+        }
+        BitmapFont font = ResourceTracker.track(new BitmapFont());
+        font.getData().setScale(scale);
+        scales.add(scale);
+        fonts.add(font);
+        return font;
+    }
+
+    // Default font at scale 1
+    public static BitmapFont get() {
+        return get(1f);
+    }
+
+    // Called once from Storm.dispose()
+    public static void dispose() {
+        for (BitmapFont font : fonts) ResourceTracker.dispose(font);
+        fonts.clear();
+        scales.clear();
+    }
+}
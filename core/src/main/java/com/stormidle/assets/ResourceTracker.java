@@ -0,0 +1,74 @@
+package com.stormidle.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+// Debug-only registry of live GL resources (Textures, Pixmaps, BitmapFonts...).
+// Anything created outside the AssetManager should go through track() and be released with dispose(),
+// so leaks show up as a growing count for one creation site in the debug HUD and in the log on exit.
+// Enabled by launching with -Dstorm.debug=true. When disabled, track() and dispose() cost nothing extra.
+
+public class ResourceTracker {
+
+    public static final boolean ENABLED = Boolean.getBoolean("storm.debug");
+
+    // Resource -> "Type @ Class.method:line" of where it was created
+    private static final IdentityMap<Disposable, String> live = new IdentityMap<>();
+    // "Type @ site" -> number of live resources created there
+    private static final ObjectIntMap<String> countBySite = new ObjectIntMap<>();
+
+    // Registers a freshly created resource and returns it, so creation can be wrapped inline
+    public static <T extends Disposable> T track(T resource) {
+        if (!ENABLED || resource == null) return resource;
+
+        // [0] is this method, [1] is whoever called track()
+        StackTraceElement caller = new Throwable().getStackTrace()[1];
+        String key = resource.getClass().getSimpleName() + " @ "
+            + caller.getClassName().substring(caller.getClassName().lastIndexOf('.') + 1)
+            + "." + caller.getMethodName() + ":" + caller.getLineNumber();
+
+        if (live.containsKey(resource)) return resource;
+        live.put(resource, key);
+        countBySite.getAndIncrement(key, 0, 1);
+        return resource;
+    }
+
+    // Disposes a resource and removes it from the registry
+    public static void dispose(Disposable resource) {
+        if (resource == null) return;
+        if (ENABLED) {
+            String key = live.remove(resource);
+            if (key != null) {
+                int left = countBySite.getAndIncrement(key, 0, -1) - 1;
+                if (left <= 0) countBySite.remove(key, 0);
+            }
+        }
+        resource.dispose();
+    }
+
+    // Total number of tracked resources that have not been disposed yet
+    public static int liveCount() {
+        return live.size;
+    }
+
+    // One line per creation site, e.g. "Texture @ GameScreen.makeColorTexture:612  x14"
+    public static String summary() {
+        StringBuilder sb = new StringBuilder("Live GL resources: ").append(live.size);
+        for (ObjectIntMap.Entry<String> entry : countBySite) {
+            sb.append('\n').append(entry.key).append("  x").append(entry.value);
+        }
+        return sb.toString();
+    }
+
+    // Logs every outstanding resource. Called when a screen is torn down to spot leaks
+    public static void logLive(String tag) {
+        if (!ENABLED) return;
+        if (live.size == 0) {
+            Gdx.app.log(tag, "No outstanding GL resources.");
+            return;
+        }
+        Gdx.app.error(tag, "Outstanding " + summary());
+    }
+}
@@ -0,0 +1,90 @@
+package com.stormidle.objects;
+
+import com.badlogic.gdx.utils.Array;
+import com.stormidle.stats.IncomeSeries;
+import com.stormidle.upgrades.AbilityDefinition;
+import com.stormidle.upgrades.AbilityManager;
+import com.stormidle.upgrades.UpgradeManager;
+import com.stormidle.upgrades.UpgradeTree;
+
+import java.util.List;
+
+// What GameScreen needs from the Simulation to draw one frame: the drops and the HUD values that have to agree
+// with each other. Filled in by capture() after the ticks of a frame, on whichever thread ran them.
+// The event counts only ever grow, so a reader that skipped frames still sees everything that happened.
+// Arrays grow to the largest drop count seen and are then reused.
+//
+// With a SimulationThread this is all the render thread may read of the simulated state. Besides the HUD values
+// it carries what the popups show (the GameData scalars, tiers bought, cooldowns and the sim clock, which
+// GameScreen mirrors into its own GameData and UpgradeManager) and a copy of the income series for the graph.
+
+public class RenderFrame {
+
+    public float[] dropX = new float[64];
+    public float[] dropY = new float[64];
+    public int drops;
+
+    public int currency;
+    public int dropsCollected;
+    public int dropsToFill;
+
+    public AbilityDefinition activeAbility; // null if none
+    public float activeRemaining;
+
+    // Session totals from Simulation
+    public long dropsLanded;
+    public long conversions;
+    public long condensed;
+
+    public final GameData data = new GameData(); // Scalars only, see GameData.copyFrom
+    public int[] purchased = new int[0];         // Tiers bought per tree, in UpgradeManager.getAllTrees() order
+    public long clock;                           // Simulation.clock(), what ability cooldowns are measured against
+    public String[] cooldownIds = new String[4];
+    public long[] cooldownTimes = new long[4];
+    public int cooldowns;
+    public final IncomeSeries income = new IncomeSeries(); // Only copied when a new sample came in
+
+    public void capture(Simulation sim, GameData gameData, UpgradeManager upgrades) {
+        Array<Rain> rain = sim.rain;
+        if (dropX.length < rain.size) {
+            dropX = new float[rain.size * 2];
+            dropY = new float[rain.size * 2];
+        }
+        for (int i = 0; i < rain.size; i++) {
+            Rain drop = rain.get(i);
+            dropX[i] = drop.x;
+            dropY[i] = drop.y;
+        }
+        drops = rain.size;
+
+        currency       = gameData.currency;
+        dropsCollected = sim.dropsCollected;
+        dropsToFill    = gameData.dropsToFill;
+
+        activeAbility   = upgrades.abilities.getActiveAbility();
+        activeRemaining = upgrades.abilities.getActiveTimeRemaining();
+
+        dropsLanded = sim.dropsLanded;
+        conversions = sim.conversions;
+        condensed   = sim.condensed;
+
+        data.copyFrom(gameData);
+        List<UpgradeTree> trees = upgrades.getAllTrees();
+        if (purchased.length != trees.size()) purchased = new int[trees.size()];
+        for (int t = 0; t < trees.size(); t++) purchased[t] = trees.get(t).purchasedCount();
+
+        clock = sim.clock();
+        AbilityManager abilities = upgrades.abilities;
+        cooldowns = abilities.cooldownCount();
+        if (cooldownIds.length < cooldowns) {
+            cooldownIds   = new String[cooldowns * 2];
+            cooldownTimes = new long[cooldowns * 2];
+        }
+        for (int i = 0; i < cooldowns; i++) {
+            cooldownIds[i]   = abilities.cooldownId(i);
+            cooldownTimes[i] = abilities.cooldownTimestamp(i);
+        }
+
+        if (income.samples() != gameData.income.samples()) income.copyFrom(gameData.income);
+    }
+}
@@ -0,0 +1,185 @@
+package com.stormidle.objects;
+
+import com.badlogic.gdx.utils.Array;
+import com.stormidle.stats.Statistics;
+import com.stormidle.upgrades.PrestigeManager;
+import com.stormidle.upgrades.UpgradeManager;
+import com.stormidle.upgrades.UpgradeTier;
+import com.stormidle.upgrades.UpgradeTree;
+
+// The part of the game that changes GameData over time: raindrops falling into the bowl, auto rain,
+// condensation and the running ability's timer, plus the player commands that act on them.
+// It advances in fixed ticks, so the same commands on the same ticks always give the same state.
+// GameScreen steps it from render(), or a SimulationThread steps it, and draws its drops from a RenderFrame.
+// The replayer steps it with no screen at all.
+//
+// Ability cooldowns are measured in ticks from the clock value the session started at, so a replay sees the same
+// cooldowns as the original session.
+
+public class Simulation {
+
+    public static final int TICKS_PER_SECOND = 60;
+    public static final float TICK = 1f / TICKS_PER_SECOND;
+
+    private final GameData gameData;
+    private final UpgradeManager upgrades;
+    private final long clockStart; // Unix seconds at tick 0
+
+    public final Array<Rain> rain = new Array<>();
+    public int dropsCollected = 0; // Resets to 0 each time the bowl converts
+    public float autoRainAccumulator = 0f;
+    public float condensationAccumulator = 0f;
+    public long tick = 0;
+
+    // Session totals the screen compares between frames to react to what happened
+    public long dropsLanded = 0;
+    public long conversions = 0;
+    public long condensed   = 0; // Currency from condensation
+
+    // Copy of the state after each tick for other threads, see PublishedState
+    public final PublishedState published = new PublishedState();
+
+    // Where new drops start. Only y matters to the simulation, x is for drawing
+    private float spawnX;
+    private float spawnY;
+
+    public Simulation(GameData gameData, UpgradeManager upgrades, long clockStart) {
+        this.gameData   = gameData;
+        this.upgrades   = upgrades;
+        this.clockStart = clockStart;
+        useClock();
+    }
+
+    public void setSpawn(float x, float y) {
+        spawnX = x;
+        spawnY = y;
+    }
+
+    public float spawnX() { return spawnX; }
+    public float spawnY() { return spawnY; }
+    public long clockStart() { return clockStart; }
+
+    // Unix seconds as far as this session is concerned
+    public long clock() {
+        return clockStart + tick / TICKS_PER_SECOND;
+    }
+
+    // Abilities are recreated on prestige, so this is set again every time
+    private void useClock() {
+        upgrades.abilities.setClock(this::clock);
+    }
+
+    // Player clicked the cloud
+    public void click() {
+        gameData.stats.add(Statistics.CLICKS, 1);
+        spawnDrops();
+    }
+
+    // Buys count tiers of tree starting at index, all or nothing. Returns how many were bought
+    public int purchase(UpgradeTree tree, int index, int count) {
+        return UpgradeTier.tryPurchase(tree, index, count, gameData);
+    }
+
+    // Buys as many tiers of tree from index as the currency covers. Returns how many were bought
+    public int purchaseMax(UpgradeTree tree, int index) {
+        return UpgradeTier.tryPurchaseMax(tree, index, gameData);
+    }
+
+    public boolean activateAbility(String abilityId) {
+        if (!upgrades.abilities.tryActivate(abilityId, gameData)) return false;
+        gameData.stats.add(Statistics.ABILITIES_USED, 1);
+        return true;
+    }
+
+    // Resets for the next prestige level, including everything in flight
+    public void prestige() {
+        PrestigeManager.doPrestige(gameData, upgrades);
+        gameData.stats.add(Statistics.PRESTIGES, 1);
+        useClock();
+        rain.clear();
+        autoRainAccumulator     = 0f;
+        condensationAccumulator = 0f;
+        dropsCollected          = 0;
+    }
+
+    // Advances one tick
+    public void step() {
+        upgrades.abilities.tick(TICK, gameData);
+
+        // Auto-rain based on rps (rainfall per second)
+        if (gameData.rps > 0) {
+            autoRainAccumulator += gameData.rps * TICK;
+            while (autoRainAccumulator >= 1f) {
+                autoRainAccumulator -= 1f;
+                spawnDrops();
+            }
+        }
+
+        // Condensation upgrade passively generates income
+        if (gameData.cps > 0) {
+            condensationAccumulator += gameData.cps * TICK;
+            int units = 0;
+            while (condensationAccumulator >= 1f) {
+                condensationAccumulator -= 1f;
+                units++;
+                gameData.currency++;
+            }
+            if (units > 0) {
+                condensed += units;
+                gameData.stats.add(Statistics.CURRENCY_EARNED, units);
+            }
+        }
+
+        updateRainfall();
+        tick++;
+        publish();
+    }
+
+    // Copies the state into published. Every step() does this, call it directly to publish what commands changed
+    // since the last tick, e.g. before the first tick or after the simulation has stopped
+    public void publish() {
+        published.publish(gameData, upgrades, tick, dropsCollected, autoRainAccumulator, condensationAccumulator);
+    }
+
+    // Every click or auto-rain tick drops rainMultiplier drops, twice that during Hurricane
+    private void spawnDrops() {
+        int drops = upgrades.abilities.isHurricaneActive()
+            ? gameData.rainMultiplier * 2
+            : gameData.rainMultiplier;
+        for (int i = 0; i < drops; i++) {
+            float xOffset = i * 20f; // second drop spawns 20px to the right
+            rain.add(new Rain(spawnX + xOffset, spawnY, gameData.fallSpeed));
+        }
+    }
+
+    // Moves the drops and collects the ones that reached the bowl
+    private void updateRainfall() {
+        int landed = 0;
+        for (int i = rain.size - 1; i >= 0; i--) {
+            Rain drop = rain.get(i);
+            drop.y -= drop.speed * TICK;
+
+            if (drop.y < 0) {
+                rain.removeIndex(i);
+                landed++;
+                collectDrop();
+            }
+        }
+        if (landed > 0) {
+            dropsLanded += landed;
+            gameData.stats.add(Statistics.DROPS, landed);
+        }
+    }
+
+    private void collectDrop() {
+        dropsCollected++;
+
+        if (dropsCollected >= gameData.dropsToFill) {
+            dropsCollected = 0;
+            gameData.currency += gameData.currencyGained;
+            gameData.stats.add(Statistics.CONVERSIONS, 1);
+            gameData.stats.add(Statistics.CURRENCY_EARNED, gameData.currencyGained);
+            conversions++;
+        }
+    }
+}
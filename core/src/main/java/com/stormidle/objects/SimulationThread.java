@@ -0,0 +1,127 @@
+package com.stormidle.objects;
+
+import com.badlogic.gdx.Gdx;
+import com.stormidle.upgrades.UpgradeManager;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Runs the Simulation on its own thread at a steady TICKS_PER_SECOND, so a slow frame doesn't slow the economy
+// and a slow tick doesn't drop frames. Opt-in with -Dstorm.simThread (gradle lwjgl3:run -PstormSimThread).
+//
+// Once started this thread owns GameData and the upgrades. Anything that changes them, including every player
+// command and every save, is submit()ted here and runs between ticks. Commands may be submitted from any thread.
+// After each batch of ticks the state GameScreen draws is captured into a RenderFrame and published through a
+// TripleBuffer, which the render thread picks up with frames(). Neither thread ever waits for the other.
+
+public class SimulationThread {
+
+    public static final boolean ENABLED = Boolean.getBoolean("storm.simThread");
+
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1) / Simulation.TICKS_PER_SECOND;
+    private static final int MAX_CATCH_UP = 15; // Ticks run at once after a stall (0.25s) before time is dropped
+    private static final long STOP_TIMEOUT_MS = 2000;
+
+    // Runs on this thread after every batch of ticks, e.g. the crash-proof state write
+    public interface TickHook {
+        void afterTicks(int ticks);
+    }
+
+    private final Simulation sim;
+    private final GameData gameData;
+    private final UpgradeManager upgrades;
+    private final TickHook hook;
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final TripleBuffer<RenderFrame> frames = new TripleBuffer<>(RenderFrame::new);
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public SimulationThread(Simulation sim, GameData gameData, UpgradeManager upgrades, TickHook hook) {
+        this.sim      = sim;
+        this.gameData = gameData;
+        this.upgrades = upgrades;
+        this.hook     = hook;
+
+        // The render thread draws something sensible before the first batch comes through
+        frames.front().capture(sim, gameData, upgrades);
+
+        thread = new Thread(this::run, "storm-simulation");
+        thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    // Any thread. Runs command on the simulation thread before its next tick
+    public void submit(Runnable command) {
+        commands.add(command);
+        LockSupport.unpark(thread);
+    }
+
+    // Render thread only
+    public TripleBuffer<RenderFrame> frames() {
+        return frames;
+    }
+
+    // Runs the commands still queued, then stops. The caller owns GameData again afterwards.
+    // Throws if the thread is still running after STOP_TIMEOUT_MS, rather than hand back state it is still writing
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STOP_TIMEOUT_MS);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (left <= 0) break;
+            try {
+                thread.join(left);
+            } catch (InterruptedException e) {
+                interrupted = true; // Keep waiting, restore the flag once the thread is gone
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        if (thread.isAlive()) {
+            throw new IllegalStateException("Simulation thread did not stop within " + STOP_TIMEOUT_MS + " ms");
+        }
+    }
+
+    private void run() {
+        try {
+            long next = System.nanoTime();
+            while (running) {
+                runCommands();
+
+                int ticks = 0;
+                long now = System.nanoTime();
+                while (now - next >= 0 && ticks < MAX_CATCH_UP) {
+                    sim.step();
+                    next += TICK_NANOS;
+                    ticks++;
+                }
+                if (ticks == MAX_CATCH_UP) next = now; // Too far behind, skip ahead instead of fast-forwarding
+
+                if (ticks > 0) {
+                    hook.afterTicks(ticks);
+                    frames.back().capture(sim, gameData, upgrades);
+                    frames.publish();
+                }
+
+                long wait = next - System.nanoTime();
+                if (wait > 0 && commands.isEmpty()) LockSupport.parkNanos(this, wait);
+            }
+            runCommands();
+        } catch (Throwable t) {
+            // Fail the same way the game would with the simulation on the render thread
+            Gdx.app.postRunnable(() -> {
+                throw new RuntimeException("Simulation thread failed", t);
+            });
+        }
+    }
+
+    private void runCommands() {
+        Runnable command;
+        while ((command = commands.poll()) != null) command.run();
+    }
+}
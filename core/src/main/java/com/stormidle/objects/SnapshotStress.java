@@ -0,0 +1,184 @@
+package com.stormidle.objects;
+
+import com.stormidle.stats.Statistics;
+import com.stormidle.upgrades.AbilityDefinition;
+import com.stormidle.upgrades.UpgradeDefinitions;
+import com.stormidle.upgrades.UpgradeManager;
+import com.stormidle.upgrades.UpgradeTree;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Stress check for PublishedState. One writer publishes as fast as it can while reader threads read() in a loop.
+// Every value the writer publishes is worked out from the tick, so a reader can tell a torn snapshot (fields from
+// two different publishes) from a good one. Readers also check that version and tick never go backwards, and that
+// version always matches the tick it was published with.
+//
+//   gradle core:stressSnapshot --args="--publishes 20000000 --readers 4"
+//
+// Options: --publishes N (default 2000000), --readers N (default 3), --definitions path (default
+// assets/upgrades.json). Prints one SNAPSHOT_STRESS line and exits with status 1 if any read was bad.
+
+public class SnapshotStress {
+
+    private static final int STAT_COUNT = Statistics.COUNT;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long publishes = 2_000_000;
+        int readerCount = 3;
+        String definitionsPath = "assets/upgrades.json";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--publishes":   publishes = Long.parseLong(args[i + 1]); break;
+                case "--readers":     readerCount = Integer.parseInt(args[i + 1]); break;
+                case "--definitions": definitionsPath = args[i + 1]; break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        UpgradeDefinitions definitions = UpgradeDefinitions.parse(Files.readString(Path.of(definitionsPath)));
+        GameData gameData = new GameData();
+        UpgradeManager upgrades = new UpgradeManager(gameData, definitions);
+        List<UpgradeTree> trees = upgrades.getAllTrees();
+        int[] sizes = new int[trees.size()];
+        for (int t = 0; t < sizes.length; t++) sizes[t] = trees.get(t).size();
+
+        PublishedState published = new PublishedState();
+        Reader[] readers = new Reader[readerCount];
+        for (int r = 0; r < readerCount; r++) {
+            readers[r] = new Reader(published, sizes);
+            readers[r].setDaemon(true);
+            readers[r].start();
+        }
+
+        long start = System.nanoTime();
+        for (long tick = 1; tick <= publishes; tick++) {
+            fill(gameData, upgrades, trees, tick);
+            published.publish(gameData, upgrades, tick, (int) tick, accumulator(tick, 3), accumulator(tick, 5));
+        }
+        long nanos = System.nanoTime() - start;
+
+        long reads = 0, torn = 0, backwards = 0;
+        String firstBad = null;
+        for (Reader reader : readers) {
+            reader.done = true;
+            reader.join();
+            reads     += reader.reads;
+            torn      += reader.torn;
+            backwards += reader.backwards;
+            if (firstBad == null) firstBad = reader.firstBad;
+        }
+
+        boolean passed = torn == 0 && backwards == 0;
+        System.out.printf("SNAPSHOT_STRESS %s publishes=%d readers=%d reads=%d torn=%d backwards=%d"
+            + " (%.0f ns/publish)%n",
+            passed ? "passed" : "failed", publishes, readerCount, reads, torn, backwards, (double) nanos / publishes);
+        if (!passed) {
+            System.out.println("First bad read: " + firstBad);
+            System.exit(1);
+        }
+    }
+
+    // The state published at tick. Stats only ever grow, by stat + 1 per tick
+    private static void fill(GameData gameData, UpgradeManager upgrades, List<UpgradeTree> trees, long tick) {
+        gameData.currency       = (int) tick;
+        gameData.fallSpeed      = tick % 100_000;
+        gameData.dropsToFill    = (int) (tick % 97) + 1;
+        gameData.rps            = tick % 50_000;
+        gameData.currencyGained = (int) (tick % 1_000);
+        gameData.cps            = tick % 70_000;
+        gameData.maxIdleTime    = (int) (tick % 24) + 1;
+        gameData.tutorialComplete = (tick & 1) == 0;
+        gameData.prestigeLevel  = (int) (tick % 7);
+        gameData.rainMultiplier = gameData.prestigeLevel + 1;
+        for (int stat = 0; stat < STAT_COUNT; stat++) gameData.stats.add(stat, stat + 1);
+        for (int t = 0; t < trees.size(); t++) {
+            trees.get(t).restorePurchased((int) ((tick + t) % (trees.get(t).size() + 1)));
+        }
+        List<AbilityDefinition> abilities = upgrades.abilities.abilities;
+        for (int a = 0; a < abilities.size(); a++) upgrades.abilities.setCooldown(abilities.get(a).id, tick + a);
+    }
+
+    // A value in [0, 1) that changes every tick
+    private static float accumulator(long tick, int step) {
+        return (tick * step % 1000) / 1000f;
+    }
+
+    // Reads until told to stop, counting reads that don't match any single publish or that went backwards
+    private static class Reader extends Thread {
+        private final PublishedState published;
+        private final int[] sizes;
+        private final StateSnapshot snapshot = new StateSnapshot();
+
+        volatile boolean done;
+        long reads, torn, backwards;
+        String firstBad;
+
+        Reader(PublishedState published, int[] sizes) {
+            this.published = published;
+            this.sizes = sizes;
+        }
+
+        @Override
+        public void run() {
+            long lastVersion = 0, lastTick = 0;
+            boolean last = false;
+            while (!last) {
+                last = done; // One more read after the writer finished, so the final publish is checked too
+                published.read(snapshot);
+                reads++;
+                if (snapshot.version < lastVersion || snapshot.tick < lastTick) {
+                    backwards++;
+                    if (firstBad == null) firstBad = "version " + snapshot.version + " tick " + snapshot.tick
+                        + " after version " + lastVersion + " tick " + lastTick;
+                }
+                lastVersion = snapshot.version;
+                lastTick    = snapshot.tick;
+                if (snapshot.version == 0) continue; // Nothing published yet
+                String problem = check(snapshot, sizes);
+                if (problem != null) {
+                    torn++;
+                    if (firstBad == null) firstBad = "tick " + snapshot.tick + ": " + problem;
+                }
+            }
+        }
+    }
+
+    // Null if every field matches the publish at snapshot.tick, otherwise the first one that doesn't
+    private static String check(StateSnapshot snapshot, int[] sizes) {
+        long tick = snapshot.tick;
+        GameData data = snapshot.data;
+        if (snapshot.version != tick) return "version " + snapshot.version;
+        if (snapshot.dropsCollected != (int) tick) return "dropsCollected " + snapshot.dropsCollected;
+        if (data.currency != (int) tick) return "currency " + data.currency;
+        if (data.fallSpeed != tick % 100_000) return "fallSpeed " + data.fallSpeed;
+        if (data.dropsToFill != (int) (tick % 97) + 1) return "dropsToFill " + data.dropsToFill;
+        if (data.rps != tick % 50_000) return "rps " + data.rps;
+        if (data.currencyGained != (int) (tick % 1_000)) return "currencyGained " + data.currencyGained;
+        if (data.cps != tick % 70_000) return "cps " + data.cps;
+        if (data.maxIdleTime != (int) (tick % 24) + 1) return "maxIdleTime " + data.maxIdleTime;
+        if (data.tutorialComplete != ((tick & 1) == 0)) return "tutorialComplete " + data.tutorialComplete;
+        if (data.prestigeLevel != (int) (tick % 7)) return "prestigeLevel " + data.prestigeLevel;
+        if (data.rainMultiplier != data.prestigeLevel + 1) return "rainMultiplier " + data.rainMultiplier;
+        if (snapshot.autoRainAccumulator != accumulator(tick, 3)) return "autoRain " + snapshot.autoRainAccumulator;
+        if (snapshot.condensationAccumulator != accumulator(tick, 5)) {
+            return "condensation " + snapshot.condensationAccumulator;
+        }
+        for (int a = 0; a < snapshot.abilityIds.length; a++) {
+            long used = snapshot.lastUsed(snapshot.abilityIds[a]);
+            if (used != tick + a) return "cooldown " + snapshot.abilityIds[a] + " " + used;
+        }
+        for (int stat = 0; stat < STAT_COUNT; stat++) {
+            if (snapshot.stats[stat] != tick * (stat + 1)) return "stat " + stat + " " + snapshot.stats[stat];
+        }
+        if (snapshot.purchased.length != sizes.length) return "purchased length " + snapshot.purchased.length;
+        for (int t = 0; t < sizes.length; t++) {
+            if (snapshot.purchased[t] != (int) ((tick + t) % (sizes[t] + 1))) {
+                return "purchased[" + t + "] " + snapshot.purchased[t];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.stormidle.objects;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Lock-free hand-over of the newest value from one writer thread to one reader thread. The writer fills back(),
+// then publish() swaps it with the middle buffer. The reader calls update() to swap the middle buffer in as front()
+// if a newer one is there. Neither side ever waits, and the reader always sees a complete value: the writer
+// never touches the front buffer, and the reader never touches the back one.
+
+public class TripleBuffer<T> {
+
+    private static final int INDEX = 0b011;
+    private static final int FRESH = 0b100; // Set on the middle slot when it holds a value the reader hasn't taken
+
+    private final Object[] buffers = new Object[3];
+    private final AtomicInteger middle = new AtomicInteger(0);
+    private int back  = 1; // Writer thread only
+    private int front = 2; // Reader thread only
+
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < buffers.length; i++) buffers[i] = factory.get();
+    }
+
+    // Writer thread: the buffer to fill
+    @SuppressWarnings("unchecked")
+    public T back() {
+        return (T) buffers[back];
+    }
+
+    // Writer thread: hands back() to the reader and takes the middle buffer to fill next
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX;
+    }
+
+    // Reader thread: takes the newest published buffer, if there is one. Returns false if front() is still newest
+    public boolean update() {
+        if ((middle.get() & FRESH) == 0) return false;
+        front = middle.getAndSet(front) & INDEX;
+        return true;
+    }
+
+    // Reader thread: the buffer taken by the last update()
+    @SuppressWarnings("unchecked")
+    public T front() {
+        return (T) buffers[front];
+    }
+}
@@ -0,0 +1,89 @@
+package com.stormidle.replay;
+
+import com.stormidle.objects.GameData;
+import com.stormidle.stats.Statistics;
+import com.stormidle.upgrades.UpgradeManager;
+import com.stormidle.upgrades.UpgradeTree;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+// Binary format of a session's command log, shared by CommandRecorder and Replayer.
+//
+// Header: MAGIC, VERSION, the definitions checksum, the Simulation's clock start and drop spawn point,
+// the bowl and accumulators, the running ability if any, and a JSON snapshot of the save (SaveManager.snapshot).
+// That is everything needed to rebuild the session's starting state.
+//
+// Then one record per command: the ticks since the previous record as a varint, an opcode byte and the opcode's
+// varint arguments. A cloud click is usually two bytes. The log ends with END and a hash of the final state
+// (stateHash), which the replayer checks its own result against.
+
+public final class CommandLog {
+
+    static final int MAGIC   = 0x5354434C; // "STCL"
+    static final int VERSION = 1;
+
+    static final int CLICK    = 0; // -
+    static final int PURCHASE = 1; // tree slot in getAllTrees(), tier index, count
+    static final int ABILITY  = 2; // index in AbilityManager.abilities
+    static final int PRESTIGE = 3; // -
+    static final int POPUP    = 4; // popup type index + 1, 0 = closed. Doesn't affect the simulation
+    static final int RELOAD   = 5; // Definitions hot-reloaded, the log can't be replayed past this point
+    static final int END      = 6; // final state hash as a fixed 8-byte long
+
+    // Popup types in POPUP records
+    static final String[] POPUP_TYPES = {"rain", "auto", "econ", "ult", "prestige"};
+
+    private CommandLog() { }
+
+    // 64-bit FNV-1a over the whole simulated state: GameData, tiers bought and lifetime statistics
+    public static long stateHash(GameData gameData, UpgradeManager upgrades) {
+        long h = 0xcbf29ce484222325L;
+        h = mix(h, gameData.currency);
+        h = mix(h, Float.floatToIntBits(gameData.fallSpeed));
+        h = mix(h, gameData.dropsToFill);
+        h = mix(h, Float.floatToIntBits(gameData.rps));
+        h = mix(h, gameData.currencyGained);
+        h = mix(h, Float.floatToIntBits(gameData.cps));
+        h = mix(h, gameData.maxIdleTime);
+        h = mix(h, gameData.prestigeLevel);
+        h = mix(h, gameData.rainMultiplier);
+        List<UpgradeTree> trees = upgrades.getAllTrees();
+        for (int t = 0; t < trees.size(); t++) h = mix(h, trees.get(t).purchasedCount());
+        for (int i = 0; i < Statistics.COUNT; i++) h = mix(h, gameData.stats.get(i));
+        return h;
+    }
+
+    private static long mix(long h, long value) {
+        for (int i = 0; i < 8; i++) {
+            h ^= (value >>> (i * 8)) & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    static void writeVarint(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarint(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    static int popupIndex(String type) {
+        for (int i = 0; i < POPUP_TYPES.length; i++) if (POPUP_TYPES[i].equals(type)) return i;
+        return -1;
+    }
+}
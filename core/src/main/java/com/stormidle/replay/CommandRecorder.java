@@ -0,0 +1,156 @@
+package com.stormidle.replay;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.stormidle.objects.GameData;
+import com.stormidle.objects.Simulation;
+import com.stormidle.save.SaveManager;
+import com.stormidle.upgrades.AbilityDefinition;
+import com.stormidle.upgrades.Effect;
+import com.stormidle.upgrades.UpgradeDefinitions;
+import com.stormidle.upgrades.UpgradeManager;
+import com.stormidle.upgrades.UpgradeTree;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+// Records every player command of a session with its simulation tick into stormidle_session.stlog
+// (format in CommandLog). The previous session's log is kept as stormidle_session.prev.stlog, so a report about
+// "what just happened" can attach either one. Replay with: gradle core:replay --args="assets/stormidle_session.stlog"
+//
+// A record is a few bytes into a buffered stream, written only when the player does something. It is flushed
+// on autosave and closed with the final state hash on exit. If writing fails, recording stops and the game
+// carries on.
+
+public class CommandRecorder {
+
+    private static final String LOG_FILE          = "stormidle_session.stlog";
+    private static final String PREVIOUS_LOG_FILE = "stormidle_session.prev.stlog";
+    private static final int BUFFER_SIZE = 8192;
+
+    private final UpgradeManager upgrades;
+    private DataOutputStream out;
+    private long lastTick;
+
+    private CommandRecorder(UpgradeManager upgrades, DataOutputStream out, long startTick) {
+        this.upgrades = upgrades;
+        this.out      = out;
+        this.lastTick = startTick;
+    }
+
+    // Starts a new log with the session's current state as its header. Returns null if the log can't be written
+    public static CommandRecorder start(Simulation sim, GameData gameData, UpgradeManager upgrades,
+                                        UpgradeDefinitions definitions) {
+        FileHandle file = Gdx.files.local(LOG_FILE);
+        try {
+            if (file.exists()) file.moveTo(Gdx.files.local(PREVIOUS_LOG_FILE));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file.write(false), BUFFER_SIZE));
+
+            out.writeInt(CommandLog.MAGIC);
+            out.writeShort(CommandLog.VERSION);
+            out.writeLong(definitions.checksum);
+            out.writeLong(sim.clockStart());
+            out.writeLong(sim.tick);
+            out.writeFloat(sim.spawnX());
+            out.writeFloat(sim.spawnY());
+            out.writeInt(sim.dropsCollected);
+            out.writeFloat(sim.autoRainAccumulator);
+            out.writeFloat(sim.condensationAccumulator);
+
+            AbilityDefinition active = upgrades.abilities.getActiveAbility();
+            out.writeInt(active == null ? -1 : upgrades.abilities.abilities.indexOf(active));
+            if (active != null) {
+                float[] saved = new float[Effect.STAT_COUNT];
+                upgrades.abilities.copySavedStats(saved);
+                out.writeFloat(upgrades.abilities.getActiveTimeRemaining());
+                for (float value : saved) out.writeFloat(value);
+            }
+
+            byte[] snapshot = SaveManager.snapshot(gameData, upgrades).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(snapshot.length);
+            out.write(snapshot);
+            return new CommandRecorder(upgrades, out, sim.tick);
+        } catch (Exception e) {
+            Gdx.app.error("CommandRecorder", "Not recording this session: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public void click(long tick) {
+        record(tick, CommandLog.CLICK, -1, -1, -1);
+    }
+
+    public void purchase(long tick, UpgradeTree tree, int index, int count) {
+        record(tick, CommandLog.PURCHASE, upgrades.getAllTrees().indexOf(tree), index, count);
+    }
+
+    public void ability(long tick, AbilityDefinition def) {
+        record(tick, CommandLog.ABILITY, upgrades.abilities.abilities.indexOf(def), -1, -1);
+    }
+
+    public void prestige(long tick) {
+        record(tick, CommandLog.PRESTIGE, -1, -1, -1);
+    }
+
+    // type is the popup that is now open, or null if it was closed
+    public void popup(long tick, String type) {
+        record(tick, CommandLog.POPUP, type == null ? 0 : CommandLog.popupIndex(type) + 1, -1, -1);
+    }
+
+    public void reload(long tick) {
+        record(tick, CommandLog.RELOAD, -1, -1, -1);
+    }
+
+    public void flush() {
+        if (out == null) return;
+        try {
+            out.flush();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // Ends the log with the hash of the final state
+    public void close(long tick, long stateHash) {
+        if (out == null) return;
+        try {
+            header(tick, CommandLog.END);
+            out.writeLong(stateHash);
+            out.close();
+        } catch (IOException e) {
+            Gdx.app.error("CommandRecorder", "Could not finish session log: " + e.getMessage());
+        }
+        out = null;
+    }
+
+    // Arguments of -1 aren't written
+    private void record(long tick, int op, int a, int b, int c) {
+        if (out == null) return;
+        try {
+            header(tick, op);
+            if (a >= 0) CommandLog.writeVarint(out, a);
+            if (b >= 0) CommandLog.writeVarint(out, b);
+            if (c >= 0) CommandLog.writeVarint(out, c);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void header(long tick, int op) throws IOException {
+        CommandLog.writeVarint(out, tick - lastTick);
+        out.writeByte(op);
+        lastTick = tick;
+    }
+
+    private void fail(IOException e) {
+        Gdx.app.error("CommandRecorder", "Stopped recording: " + e.getMessage());
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // Already failing, nothing more to do
+        }
+        out = null;
+    }
+}
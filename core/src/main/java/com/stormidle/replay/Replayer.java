@@ -0,0 +1,182 @@
+package com.stormidle.replay;
+
+import com.stormidle.objects.GameData;
+import com.stormidle.objects.Simulation;
+import com.stormidle.save.SaveManager;
+import com.stormidle.upgrades.AbilityDefinition;
+import com.stormidle.upgrades.Effect;
+import com.stormidle.upgrades.UpgradeDefinitions;
+import com.stormidle.upgrades.UpgradeManager;
+import com.stormidle.upgrades.UpgradeTree;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Headless replay of a session recorded by CommandRecorder. Rebuilds the starting state from the log's header,
+// steps a Simulation as fast as it will go and applies each command on the tick it was recorded, then checks
+// the final state against the hash the game wrote on exit.
+//
+//   gradle core:replay --args="assets/stormidle_session.stlog"
+//
+// Options: --definitions path (default assets/upgrades.json). Exits with status 1 if the replay diverged, and 2 if
+// there was nothing to check it against (the log has no final state, or definitions were hot-reloaded).
+
+public class Replayer {
+
+    // Outcomes of replay(), also the exit status
+    static final int MATCHED    = 0;
+    static final int DIVERGED   = 1;
+    static final int UNVERIFIED = 2;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) throw new IllegalArgumentException("Usage: replay <log> [--definitions path]");
+        String logPath = args[0];
+        String definitionsPath = "assets/upgrades.json";
+
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--definitions": definitionsPath = args[i + 1]; break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        UpgradeDefinitions definitions = UpgradeDefinitions.parse(Files.readString(Path.of(definitionsPath)));
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(logPath)))) {
+            int result = replay(in, definitions);
+            if (result != MATCHED) System.exit(result);
+        }
+    }
+
+    // Returns MATCHED if the replay ended in the recorded state, DIVERGED if it didn't, UNVERIFIED if there was no
+    // recorded state to compare with
+    private static int replay(DataInputStream in, UpgradeDefinitions definitions) throws IOException {
+        if (in.readInt() != CommandLog.MAGIC) throw new IOException("Not a command log");
+        int version = in.readShort();
+        if (version != CommandLog.VERSION) throw new IOException("Unsupported command log version " + version);
+        if (in.readLong() != definitions.checksum) {
+            System.out.println("Warning: the session used different definitions, the replay will probably diverge");
+        }
+
+        long clockStart = in.readLong();
+        long startTick  = in.readLong();
+        float spawnX    = in.readFloat();
+        float spawnY    = in.readFloat();
+        int dropsCollected        = in.readInt();
+        float autoRainAccumulator = in.readFloat();
+        float condensation        = in.readFloat();
+
+        GameData gameData = new GameData();
+        UpgradeManager upgrades = new UpgradeManager(gameData, definitions);
+
+        int activeIndex = in.readInt();
+        float activeRemaining = 0f;
+        float[] savedStats = new float[Effect.STAT_COUNT];
+        if (activeIndex >= 0) {
+            activeRemaining = in.readFloat();
+            for (int i = 0; i < savedStats.length; i++) savedStats[i] = in.readFloat();
+        }
+
+        byte[] snapshot = new byte[in.readInt()];
+        in.readFully(snapshot);
+        SaveManager.restoreSnapshot(new String(snapshot, StandardCharsets.UTF_8), gameData, upgrades);
+        if (activeIndex >= 0) {
+            upgrades.abilities.resumeActive(upgrades.abilities.abilities.get(activeIndex).id, activeRemaining, savedStats);
+        }
+
+        Simulation sim = new Simulation(gameData, upgrades, clockStart);
+        sim.tick                    = startTick;
+        sim.dropsCollected          = dropsCollected;
+        sim.autoRainAccumulator     = autoRainAccumulator;
+        sim.condensationAccumulator = condensation;
+        sim.setSpawn(spawnX, spawnY);
+
+        long start = System.nanoTime();
+        int commands = 0;
+        long tick = startTick;
+        long recordedHash = 0;
+        boolean ended = false;
+
+        while (!ended) {
+            long delta;
+            int op;
+            try {
+                delta = CommandLog.readVarint(in);
+                op    = in.readUnsignedByte();
+            } catch (EOFException e) {
+                // The game didn't exit cleanly, so there is nothing to check against
+                System.out.println("Log ends without a final state (crash or still running)");
+                break;
+            }
+            tick += delta;
+            while (sim.tick < tick) sim.step();
+
+            switch (op) {
+                case CommandLog.CLICK:
+                    sim.click();
+                    break;
+                case CommandLog.PURCHASE: {
+                    List<UpgradeTree> trees = upgrades.getAllTrees();
+                    UpgradeTree tree = trees.get((int) CommandLog.readVarint(in));
+                    int index = (int) CommandLog.readVarint(in);
+                    int count = (int) CommandLog.readVarint(in);
+                    if (sim.purchase(tree, index, count) != count) {
+                        System.out.println("Diverged at tick " + tick + ": could not buy " + count
+                            + " of " + tree.id + " from tier " + index);
+                    }
+                    break;
+                }
+                case CommandLog.ABILITY: {
+                    AbilityDefinition def = upgrades.abilities.abilities.get((int) CommandLog.readVarint(in));
+                    if (!sim.activateAbility(def.id)) {
+                        System.out.println("Diverged at tick " + tick + ": could not activate " + def.id);
+                    }
+                    break;
+                }
+                case CommandLog.PRESTIGE:
+                    sim.prestige();
+                    break;
+                case CommandLog.POPUP:
+                    CommandLog.readVarint(in); // UI only
+                    break;
+                case CommandLog.RELOAD:
+                    System.out.println("Definitions were hot-reloaded at tick " + tick
+                        + ", the rest of the session is not replayable. Nothing was verified");
+                    return UNVERIFIED;
+                case CommandLog.END:
+                    recordedHash = in.readLong();
+                    ended = true;
+                    continue;
+                default:
+                    throw new IOException("Unknown opcode " + op + " at tick " + tick);
+            }
+            commands++;
+        }
+
+        double wallSeconds = (System.nanoTime() - start) / 1e9;
+        double simulatedSeconds = (double) (sim.tick - startTick) / Simulation.TICKS_PER_SECOND;
+        System.out.printf("%d ticks (%.0fs of play), %d commands in %.3fs (%.0fx real time)%n",
+            sim.tick - startTick, simulatedSeconds, commands, wallSeconds, simulatedSeconds / wallSeconds);
+
+        if (!ended) {
+            System.out.printf("Nothing was verified: replayed to currency %d, prestige %d, with no recorded state "
+                + "to compare%n", gameData.currency, gameData.prestigeLevel);
+            return UNVERIFIED;
+        }
+        long hash = CommandLog.stateHash(gameData, upgrades);
+        if (hash != recordedHash) {
+            System.out.printf("Final state differs: recorded %016x, replayed %016x%n", recordedHash, hash);
+            return DIVERGED;
+        }
+        System.out.printf("Final state matches (%016x), currency %d, prestige %d%n",
+            hash, gameData.currency, gameData.prestigeLevel);
+        return MATCHED;
+    }
+}
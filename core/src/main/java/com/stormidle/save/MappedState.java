@@ -0,0 +1,319 @@
+package com.stormidle.save;
+
+import com.badlogic.gdx.Gdx;
+import com.stormidle.objects.GameData;
+import com.stormidle.objects.PublishedState;
+import com.stormidle.objects.StateSnapshot;
+import com.stormidle.services.BackgroundServices;
+import com.stormidle.stats.Statistics;
+import com.stormidle.upgrades.AbilityDefinition;
+import com.stormidle.upgrades.Effect;
+import com.stormidle.upgrades.UpgradeManager;
+import com.stormidle.upgrades.UpgradeTree;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+// Optional crash-proof persistence (run with -PstormMappedSave). The live game state is written every frame
+// into a small memory-mapped file, so a crash or kill loses at most a frame, including the bowl and the
+// accumulators that the JSON save never had. The JSON save still happens as before and stays the portable copy.
+//
+// The file holds two fixed-layout slots, written alternately. Each slot carries a sequence number and a CRC32 of
+// its contents, so a write torn by a crash fails the check and recovery falls back to the other slot.
+// Writing is a handful of plain stores into the mapping. The OS writes the pages back on its own, and force()
+// runs every few seconds so a power cut also loses little.
+// The state comes from the Simulation's PublishedState, not GameData. update() runs every frame and hands the
+// write (and any force(), which can block on the disk) to a background service, one at a time.
+//
+// Purchases are stored as tiers bought per tree, which is the whole purchase state since tiers are bought in
+// order. The layout hash covers the tree and ability ids, so a file from different definitions is ignored.
+
+public class MappedState {
+
+    public static final boolean ENABLED = Boolean.getBoolean("storm.mappedSave");
+
+    private static final String STATE_FILE = "stormidle_state.bin";
+    private static final int SLOT_SIZE = 512;
+    private static final int MAGIC = 0x53544D31; // "STM1"
+    private static final long FORCE_INTERVAL_NANOS = 5_000_000_000L;
+
+    private static final int MAX_STATS     = 8;
+    private static final int MAX_TREES     = 16;
+    private static final int MAX_ABILITIES = 16;
+
+    // Slot layout, byte offsets. The checksum covers everything after itself
+    private static final int SEQUENCE          = 0;   // long
+    private static final int CHECKSUM          = 8;   // int
+    private static final int MAGIC_AT          = 12;  // int
+    private static final int LAYOUT            = 16;  // int
+    private static final int SAVED_AT          = 20;  // long, unix seconds
+    private static final int CURRENCY          = 28;  // int
+    private static final int FALL_SPEED        = 32;  // float
+    private static final int DROPS_TO_FILL     = 36;  // int
+    private static final int RPS               = 40;  // float
+    private static final int CURRENCY_GAINED   = 44;  // int
+    private static final int CPS               = 48;  // float
+    private static final int MAX_IDLE_TIME     = 52;  // int
+    private static final int PRESTIGE_LEVEL    = 56;  // int
+    private static final int RAIN_MULTIPLIER   = 60;  // int
+    private static final int TUTORIAL_COMPLETE = 64;  // int, 0 or 1
+    private static final int DROPS_COLLECTED   = 68;  // int
+    private static final int AUTO_RAIN         = 72;  // float
+    private static final int CONDENSATION      = 76;  // float
+    private static final int INCOME_RATE       = 80;  // double
+    private static final int ACTIVE_ABILITY    = 88;  // int, index into abilities or -1
+    private static final int ACTIVE_REMAINING  = 92;  // float
+    private static final int ACTIVE_SAVED      = 96;  // float[Effect.STAT_COUNT], stats restored on expiry
+    private static final int STATS             = 128; // long[MAX_STATS]
+    private static final int TREES             = 192; // int[MAX_TREES], tiers bought
+    private static final int COOLDOWNS         = 256; // long[MAX_ABILITIES], 0 = never used
+    private static final int END               = 384;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final CRC32 crc = new CRC32();
+    private final float[] activeSaved = new float[Effect.STAT_COUNT];
+
+    private long sequence;
+    private int nextSlot;
+    private long lastForce = System.nanoTime();
+
+    // Where the state comes from and where writes run, see follow()
+    private PublishedState published;
+    private BackgroundServices.Scope background;
+    private final StateSnapshot snapshot = new StateSnapshot(); // Guarded by this
+    private long writtenVersion;                                // Guarded by this
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private final Runnable writeTask = () -> {
+        try {
+            writeLatest();
+        } finally {
+            writing.set(false);
+        }
+    };
+
+    // Layout hash of the trees it was last computed for
+    private List<UpgradeTree> layoutTrees;
+    private int layout;
+
+    // Restored by recover(): GameScreen-only progress, and what the offline calculation needs
+    public boolean recovered;
+    public int dropsCollected;
+    public float autoRainAccumulator;
+    public float condensationAccumulator;
+    public long savedAt;
+    public double incomeRate;
+
+    // Writes what published holds from now on, on background. Call once, after recover()
+    public void follow(PublishedState published, BackgroundServices.Scope background) {
+        this.published  = published;
+        this.background = background;
+    }
+
+    private MappedState(FileChannel channel, MappedByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer  = buffer;
+    }
+
+    // Maps the state file, creating it if needed. Returns null (and the game carries on with JSON saves only)
+    // if the file can't be mapped
+    public static MappedState open() {
+        File file = Gdx.files.local(STATE_FILE).file();
+        try {
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SLOT_SIZE * 2L);
+            return new MappedState(channel, buffer);
+        } catch (IOException e) {
+            Gdx.app.error("MappedState", "Could not map " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Restores the newest valid slot into gameData and upgrades if it was written at or after notBefore
+    // (unix seconds, the JSON save's time). Returns false and changes nothing otherwise
+    public boolean recover(GameData gameData, UpgradeManager upgrades, long notBefore) {
+        int newest = -1;
+        for (int slot = 0; slot < 2; slot++) {
+            if (!isValid(slot)) continue;
+            if (newest < 0 || buffer.getLong(slot * SLOT_SIZE + SEQUENCE) > buffer.getLong(newest * SLOT_SIZE + SEQUENCE)) {
+                newest = slot;
+            }
+        }
+        if (newest < 0) return false;
+
+        int base = newest * SLOT_SIZE;
+        // Carry on numbering from the newest slot, writing over the other one first
+        sequence = buffer.getLong(base + SEQUENCE);
+        nextSlot = 1 - newest;
+
+        List<UpgradeTree> trees = upgrades.getAllTrees();
+        List<AbilityDefinition> abilities = upgrades.abilities.abilities;
+        if (buffer.getInt(base + LAYOUT) != layoutOf(trees, abilityIds(abilities))) {
+            Gdx.app.log("MappedState", "Upgrade definitions changed, ignoring " + STATE_FILE);
+            return false;
+        }
+        savedAt = buffer.getLong(base + SAVED_AT);
+        if (savedAt < notBefore) return false;
+
+        gameData.currency         = buffer.getInt(base + CURRENCY);
+        gameData.fallSpeed        = buffer.getFloat(base + FALL_SPEED);
+        gameData.dropsToFill      = buffer.getInt(base + DROPS_TO_FILL);
+        gameData.rps              = buffer.getFloat(base + RPS);
+        gameData.currencyGained   = buffer.getInt(base + CURRENCY_GAINED);
+        gameData.cps              = buffer.getFloat(base + CPS);
+        gameData.maxIdleTime      = buffer.getInt(base + MAX_IDLE_TIME);
+        gameData.prestigeLevel    = buffer.getInt(base + PRESTIGE_LEVEL);
+        gameData.rainMultiplier   = buffer.getInt(base + RAIN_MULTIPLIER);
+        gameData.tutorialComplete = buffer.getInt(base + TUTORIAL_COMPLETE) != 0;
+        dropsCollected            = buffer.getInt(base + DROPS_COLLECTED);
+        autoRainAccumulator       = buffer.getFloat(base + AUTO_RAIN);
+        condensationAccumulator   = buffer.getFloat(base + CONDENSATION);
+        incomeRate                = buffer.getDouble(base + INCOME_RATE);
+
+        long[] stats = new long[Statistics.COUNT];
+        for (int i = 0; i < stats.length; i++) stats[i] = buffer.getLong(base + STATS + i * 8);
+        gameData.stats.load(stats);
+
+        for (int t = 0; t < trees.size(); t++) trees.get(t).restorePurchased(buffer.getInt(base + TREES + t * 4));
+
+        upgrades.abilities.clearCooldowns();
+        for (int a = 0; a < abilities.size(); a++) {
+            long usedAt = buffer.getLong(base + COOLDOWNS + a * 8);
+            if (usedAt != 0) upgrades.abilities.setCooldown(abilities.get(a).id, usedAt);
+        }
+
+        int active = buffer.getInt(base + ACTIVE_ABILITY);
+        if (active >= 0) {
+            for (int i = 0; i < activeSaved.length; i++) activeSaved[i] = buffer.getFloat(base + ACTIVE_SAVED + i * 4);
+            upgrades.abilities.resumeActive(abilities.get(active).id, buffer.getFloat(base + ACTIVE_REMAINING),
+                activeSaved);
+        }
+
+        recovered = true;
+        Gdx.app.log("MappedState", "Recovered state #" + sequence + " from " + STATE_FILE);
+        return true;
+    }
+
+    // Render thread, once per frame. Queues a write of the latest published state unless one is still running.
+    // Writes inline if the background scope is closed
+    public void update() {
+        if (!writing.compareAndSet(false, true)) return;
+        if (background == null || !background.submit("mapped state", writeTask)) writeTask.run();
+    }
+
+    // Writes the latest published state into the older slot if it is newer than the last one written, then
+    // forces the file out if it is due. Any thread, one writer at a time. On exit, publish the final state and
+    // call this before close()
+    public synchronized void writeLatest() {
+        if (published.read(snapshot) == 0 || snapshot.version == writtenVersion) return;
+        writtenVersion = snapshot.version;
+        write(snapshot);
+
+        long now = System.nanoTime();
+        if (now - lastForce >= FORCE_INTERVAL_NANOS) {
+            lastForce = now;
+            buffer.force(); // Between writes, so it never syncs a half-written slot
+        }
+    }
+
+    private void write(StateSnapshot state) {
+        GameData gameData = state.data;
+        List<UpgradeTree> trees = state.trees;
+        String[] abilities = state.abilityIds;
+        if (trees != layoutTrees) {
+            if (trees.size() > MAX_TREES || abilities.length > MAX_ABILITIES || Statistics.COUNT > MAX_STATS) {
+                throw new IllegalStateException("Game state no longer fits the " + STATE_FILE + " layout");
+            }
+            layoutTrees = trees;
+            layout = layoutOf(trees, Arrays.asList(abilities));
+        }
+
+        int base = nextSlot * SLOT_SIZE;
+        nextSlot = 1 - nextSlot;
+
+        buffer.putInt(base + MAGIC_AT, MAGIC);
+        buffer.putInt(base + LAYOUT, layout);
+        buffer.putLong(base + SAVED_AT, System.currentTimeMillis() / 1000L);
+        buffer.putInt(base + CURRENCY, gameData.currency);
+        buffer.putFloat(base + FALL_SPEED, gameData.fallSpeed);
+        buffer.putInt(base + DROPS_TO_FILL, gameData.dropsToFill);
+        buffer.putFloat(base + RPS, gameData.rps);
+        buffer.putInt(base + CURRENCY_GAINED, gameData.currencyGained);
+        buffer.putFloat(base + CPS, gameData.cps);
+        buffer.putInt(base + MAX_IDLE_TIME, gameData.maxIdleTime);
+        buffer.putInt(base + PRESTIGE_LEVEL, gameData.prestigeLevel);
+        buffer.putInt(base + RAIN_MULTIPLIER, gameData.rainMultiplier);
+        buffer.putInt(base + TUTORIAL_COMPLETE, gameData.tutorialComplete ? 1 : 0);
+        buffer.putInt(base + DROPS_COLLECTED, state.dropsCollected);
+        buffer.putFloat(base + AUTO_RAIN, state.autoRainAccumulator);
+        buffer.putFloat(base + CONDENSATION, state.condensationAccumulator);
+        buffer.putDouble(base + INCOME_RATE, gameData.income.settledRate());
+
+        for (int i = 0; i < Statistics.COUNT; i++) buffer.putLong(base + STATS + i * 8, state.stats[i]);
+        for (int t = 0; t < trees.size(); t++) buffer.putInt(base + TREES + t * 4, state.purchased[t]);
+
+        int active = -1;
+        for (int a = 0; a < abilities.length; a++) {
+            buffer.putLong(base + COOLDOWNS + a * 8, state.lastUsed(abilities[a]));
+            if (abilities[a].equals(state.activeAbility)) active = a;
+        }
+        buffer.putInt(base + ACTIVE_ABILITY, active);
+        if (active >= 0) {
+            buffer.putFloat(base + ACTIVE_REMAINING, state.activeRemaining);
+            for (int i = 0; i < state.activeSaved.length; i++) {
+                buffer.putFloat(base + ACTIVE_SAVED + i * 4, state.activeSaved[i]);
+            }
+        }
+
+        buffer.putLong(base + SEQUENCE, ++sequence);
+        buffer.putInt(base + CHECKSUM, checksum(base));
+    }
+
+    // Flushes and unmaps. Called on exit, after the last writeLatest()
+    public void close() {
+        buffer.force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            Gdx.app.error("MappedState", "Could not close " + STATE_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private boolean isValid(int slot) {
+        int base = slot * SLOT_SIZE;
+        return buffer.getInt(base + MAGIC_AT) == MAGIC && buffer.getInt(base + CHECKSUM) == checksum(base);
+    }
+
+    // CRC32 of the slot from the sequence number to the end, skipping the checksum itself
+    private int checksum(int base) {
+        crc.reset();
+        buffer.limit(base + CHECKSUM).position(base + SEQUENCE);
+        crc.update(buffer);
+        buffer.limit(base + END).position(base + MAGIC_AT);
+        crc.update(buffer);
+        buffer.clear();
+        return (int) crc.getValue();
+    }
+
+    private static int layoutOf(List<UpgradeTree> trees, List<String> abilityIds) {
+        int hash = 17;
+        for (UpgradeTree tree : trees) hash = hash * 31 + tree.id.hashCode();
+        for (String id : abilityIds) hash = hash * 31 + id.hashCode();
+        return hash;
+    }
+
+    private static List<String> abilityIds(List<AbilityDefinition> abilities) {
+        List<String> ids = new ArrayList<>(abilities.size());
+        for (AbilityDefinition def : abilities) ids.add(def.id);
+        return ids;
+    }
+}
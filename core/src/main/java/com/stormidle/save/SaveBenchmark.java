@@ -0,0 +1,131 @@
+package com.stormidle.save;
+
+import com.badlogic.gdx.utils.Json;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+// Compares the generated SaveDataSerializer with libGDX's reflective Json on a save the size of a late game:
+// time and garbage per save + load round trip, and the cost of the very first one in a fresh JVM.
+//
+//   gradle core:benchmarkSave --args="--iterations 200000"
+//
+// Options: --iterations N (timed round trips per path, default 100000). The generated path runs first, and each
+// path loads its own parser (JsonNode or libGDX's JsonReader), so the cold numbers compare like for like.
+
+public class SaveBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static long sink; // Keeps the JIT from dropping the work
+
+    private interface Path {
+        SaveData roundTrip(SaveData data);
+    }
+
+    public static void main(String[] args) {
+        int iterations = 100_000;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--iterations": iterations = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        SaveData data = lateGameSave();
+        Path generated = d -> SaveDataSerializer.fromJson(SaveDataSerializer.prettyPrint(d));
+        Json json = new Json();
+        Path reflective = d -> json.fromJson(SaveData.class, json.prettyPrint(d));
+
+        check(generated.roundTrip(data), data);
+        System.out.printf("Save size: generated %d chars, Json %d chars%n",
+            SaveDataSerializer.prettyPrint(data).length(), json.prettyPrint(data).length());
+
+        // check() above already ran each path once, so the cold figures come from separate fresh instances
+        long coldGenerated = cold(generated, data);
+        long coldJson      = cold(d -> new Json().fromJson(SaveData.class, new Json().prettyPrint(d)), data);
+
+        measure(generated, data, iterations / 10); // Warm up both before timing either
+        measure(reflective, data, iterations / 10);
+        double[] g = measure(generated, data, iterations);
+        double[] j = measure(reflective, data, iterations);
+
+        System.out.printf("%-10s %12s %14s %12s%n", "path", "us/op", "bytes/op", "first us");
+        System.out.printf("%-10s %12.2f %14.0f %12.0f%n", "generated", g[0], g[1], coldGenerated / 1e3);
+        System.out.printf("%-10s %12.2f %14.0f %12.0f%n", "Json", j[0], j[1], coldJson / 1e3);
+        System.out.printf("Generated is %.1fx faster and allocates %.1fx less (checksum %d)%n",
+            j[0] / g[0], j[1] / g[1], sink);
+    }
+
+    private static long cold(Path path, SaveData data) {
+        long start = System.nanoTime();
+        sink += path.roundTrip(data).currency;
+        return System.nanoTime() - start;
+    }
+
+    // Returns {microseconds per round trip, bytes allocated per round trip}
+    private static double[] measure(Path path, SaveData data, int iterations) {
+        long thread = Thread.currentThread().threadId();
+        long bytes  = THREADS.getThreadAllocatedBytes(thread);
+        long start  = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            data.currency = i;
+            sink += path.roundTrip(data).currency;
+        }
+        long nanos = System.nanoTime() - start;
+        bytes = THREADS.getThreadAllocatedBytes(thread) - bytes;
+        return new double[]{nanos / 1e3 / iterations, (double) bytes / iterations};
+    }
+
+    private static SaveData lateGameSave() {
+        SaveData data = new SaveData();
+        data.currency       = 1_234_567;
+        data.fallSpeed      = 512.5f;
+        data.dropsToFill    = 35;
+        data.rps            = 42.75f;
+        data.cps            = 180.25f;
+        data.currencyEarned = 96;
+        data.prestigeLevel  = 4;
+        data.rainMultiplier = 3;
+        data.maxIdleTime    = 12;
+        data.tutorialComplete = true;
+        data.lastClosedTime = 1_760_000_000L;
+        String[] trees = {"speed", "value", "auto", "fill", "multi", "idle", "cond", "crit"};
+        data.purchasedUpgrades = new String[trees.length * 8];
+        for (int t = 0; t < trees.length; t++) {
+            for (int tier = 1; tier <= 8; tier++) data.purchasedUpgrades[t * 8 + tier - 1] = trees[t] + "_" + tier;
+        }
+        data.formulaTreeIds    = new String[3];
+        data.formulaTreeLevels = new int[3];
+        for (int i = 0; i < 3; i++) {
+            data.formulaTreeIds[i]    = "formula_" + i;
+            data.formulaTreeLevels[i] = 40 + i * 7;
+        }
+        data.cooldownIds        = new String[4];
+        data.cooldownTimestamps = new long[4];
+        for (int i = 0; i < 4; i++) {
+            data.cooldownIds[i]        = "ability_" + i;
+            data.cooldownTimestamps[i] = 1_760_000_000_000L + i * 60_000L;
+        }
+        data.stats = new long[12];
+        for (int i = 0; i < data.stats.length; i++) data.stats[i] = 1_000_003L * (i + 1);
+        data.incomeRate = 2345.678;
+        data.incomeMinutes = new float[60];
+        for (int i = 0; i < data.incomeMinutes.length; i++) data.incomeMinutes[i] = 2000f + i * 3.25f;
+        data.incomeHours = new float[24];
+        for (int i = 0; i < data.incomeHours.length; i++) data.incomeHours[i] = 1800f + i * 11.5f;
+        return data;
+    }
+
+    private static void check(SaveData read, SaveData written) {
+        if (read.currency != written.currency || read.incomeRate != written.incomeRate
+            || !Arrays.equals(read.purchasedUpgrades, written.purchasedUpgrades)
+            || !Arrays.equals(read.formulaTreeLevels, written.formulaTreeLevels)
+            || !Arrays.equals(read.cooldownTimestamps, written.cooldownTimestamps)
+            || read.incomeMinutes.length != written.incomeMinutes.length
+            || read.stats[read.stats.length - 1] != written.stats[written.stats.length - 1]) {
+            throw new IllegalStateException("Generated serializer did not round-trip the save");
+        }
+    }
+}
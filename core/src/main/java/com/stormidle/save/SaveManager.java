@@ -2,197 +2,135 @@ package com.stormidle.save;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
-import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.Json;
 import com.stormidle.objects.GameData;
+import com.stormidle.objects.PublishedState;
+import com.stormidle.objects.StateSnapshot;
+import com.stormidle.services.BackgroundServices;
 import com.stormidle.upgrades.UpgradeManager;
-import com.stormidle.upgrades.UpgradeTier;
-import com.badlogic.gdx.utils.ObjectMap;
-
-// Handles saving and loading all game state to/from a JSON file.
-// Save format:
-// {
-//   "currency": 100,
-//   "fallSpeed": 350.0,
-//   "dropsToFill": 45,
-//   "rps": 0.5,
-//   "purchasedUpgrades": ["speed_1", "value_1", "auto_1"]
-// }
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Saves and loads the game to/from a JSON file in libGDX's local storage. The format, and the rules for what
+// was earned offline, are in the model's SaveFormat, SaveData and OfflineResult. This adds the file, the
+// background writes, crash recovery through MappedState and logging.
 
 public class SaveManager {
 
     private static final String SAVE_FILE = "stormidle_save.json";
 
-    // Returns true if a save file exists
-    public static boolean exists() {
-        return Gdx.files.local(SAVE_FILE).exists();
-    }
+    // The save file as a SaveStore, so SaveFormat can read and write it
+    private static final SaveStore STORE = new SaveStore() {
+        @Override
+        public boolean exists() {
+            return file().exists();
+        }
 
-    // Returned by load() so GameScreen knows whether to show the offline progress popup
-    public static class OfflineResult {
-        public final boolean hasProgress;
-        public final long secondsAway;
-        public final int rainfallCurrency;    // Currency earned from auto-rain conversions
-        public final int condensationCurrency; // Currency earned from condensation
-        public final boolean exceededCap; // Will be true if player was away for longer than max idle time
-        public final int maxIdleHours; // Warning message in popup
-
-        public OfflineResult(boolean hasProgress, long secondsAway, int rainfallCurrency, int condensationCurrency,
-                             boolean exceededCap, int maxIdleHours) {
-            this.hasProgress = hasProgress;
-            this.secondsAway = secondsAway;
-            this.rainfallCurrency = rainfallCurrency;
-            this.condensationCurrency = condensationCurrency;
-            this.exceededCap = exceededCap;
-            this.maxIdleHours = maxIdleHours;
+        @Override
+        public String read() {
+            return file().readString("UTF-8");
         }
-    }
 
-    // Serializes GameData and all purchased upgrades to JSON and writes to disk
-    public static void save(GameData gameData, UpgradeManager upgrades) {
-        SaveData data = new SaveData();
-
-        // Copy GameData fields into save container
-        data.currency = gameData.currency;
-        data.fallSpeed = gameData.fallSpeed;
-        data.dropsToFill = gameData.dropsToFill;
-        data.rps = gameData.rps;
-        data.cps = gameData.cps;
-        data.currencyEarned = gameData.currencyGained;
-        data.prestigeLevel = gameData.prestigeLevel;
-        data.rainMultiplier = gameData.rainMultiplier;
-        data.maxIdleTime = gameData.maxIdleTime;
-        data.tutorialComplete = gameData.tutorialComplete;
-        data.lastClosedTime = System.currentTimeMillis() / 1000L;
-
-        // Collect IDs of all purchased upgrades across every tree
-        for (Array<UpgradeTier> tree : upgrades.getAllTrees()) {
-            for (UpgradeTier tier : tree) {
-                if (tier.purchased) {
-                    // ID format: "tree_tier" e.g. "speed_1", "auto_3"
-                    data.purchasedUpgrades.add(tier.tree + "_" + tier.tier);
-                }
-            }
+        @Override
+        public void write(String text) {
+            file().writeString(text, false, "UTF-8");
         }
 
-        // Ability cooldown timestamps stored as parallel arrays
-        for (ObjectMap.Entry<String, Long> entry : upgrades.abilities.getCooldownTimestamps()) {
-            data.cooldownIds.add(entry.key);
-            data.cooldownTimestamps.add(entry.value);
+        private FileHandle file() {
+            return Gdx.files.local(SAVE_FILE);
         }
+    };
+
+    // Returns true if a save file exists
+    public static boolean exists() {
+        return STORE.exists();
+    }
+
+    // Saves are numbered so a write that lost the race to a newer one doesn't overwrite it
+    private static final AtomicLong saveSequence = new AtomicLong();
+    private static long writtenSequence; // Guarded by SaveManager.class
+
+    // Copies GameData and all purchased upgrades into a save, then serializes it to JSON and writes it to disk
+    // in the background. The copy is made here, so call this from the thread that owns GameData.
+    // Writes inline if background is null or already closed
+    public static void save(GameData gameData, UpgradeManager upgrades, BackgroundServices.Scope background) {
+        SaveData data = SaveFormat.capture(gameData, upgrades, System.currentTimeMillis() / 1000L);
+        long sequence = saveSequence.incrementAndGet();
+        if (background == null || !background.submit("save", () -> write(data, sequence))) write(data, sequence);
+    }
 
+    // Saves the state the simulation last published. Reading it, serializing and writing all run in the
+    // background, so this can be called from any thread. Does nothing if nothing has been published yet
+    public static void save(PublishedState published, BackgroundServices.Scope background) {
+        long sequence = saveSequence.incrementAndGet();
+        Runnable save = () -> {
+            StateSnapshot snapshot = new StateSnapshot();
+            if (published.read(snapshot) == 0) return;
+            write(SaveFormat.capture(snapshot, System.currentTimeMillis() / 1000L), sequence);
+        };
+        if (background == null || !background.submit("save", save)) save.run();
+    }
 
-        Json json = new Json();
-        String jsonString = json.prettyPrint(data);
+    private static synchronized void write(SaveData data, long sequence) {
+        if (sequence < writtenSequence) return;
+        writtenSequence = sequence;
 
-        FileHandle file = Gdx.files.local(SAVE_FILE);
-        file.writeString(jsonString, false);
+        SaveFormat.write(STORE, data);
 
         Gdx.app.log("SaveManager", "Game saved. Prestige: " + data.prestigeLevel
             + " | Max idle: " + data.maxIdleTime + "h");
     }
 
+    // The save as a compact JSON string, without writing it. Used as the starting state of a command log
+    public static String snapshot(GameData gameData, UpgradeManager upgrades) {
+        return SaveDataSerializer.toJson(SaveFormat.capture(gameData, upgrades, System.currentTimeMillis() / 1000L));
+    }
+
+    // Restores a snapshot() string exactly, with no offline progress and no logging
+    public static void restoreSnapshot(String snapshot, GameData gameData, UpgradeManager upgrades) {
+        SaveFormat.apply(SaveDataSerializer.fromJson(snapshot), gameData, upgrades);
+        upgrades.rebuildUnlocks(gameData);
+    }
+
     // Reads the save file and restores GameData and upgrade purchased states.
+    // If mapped is given and holds state at least as new as the save file (e.g. after a crash), that wins.
     // Returns an OfflineResult describing how much progress the player earned while away.
     // Returns OfflineResult with hasProgress=false if there is no save file or rps is zero.
-    public static OfflineResult load(GameData gameData, UpgradeManager upgrades) {
-        FileHandle file = Gdx.files.local(SAVE_FILE);
-        if (!file.exists()) {
-            Gdx.app.log("SaveManager", "No save file found, starting fresh.");
-            return new OfflineResult(false, 0, 0, 0, false, gameData.maxIdleTime);
-        }
-
-        try {
-            Json json = new Json();
-            SaveData data = json.fromJson(SaveData.class, file.readString());
-
-            gameData.currency = data.currency;
-            gameData.fallSpeed = data.fallSpeed;
-            gameData.dropsToFill = data.dropsToFill;
-            gameData.rps = data.rps;
-            gameData.cps = data.cps;
-            gameData.currencyGained = data.currencyEarned;
-            gameData.prestigeLevel = data.prestigeLevel;
-            gameData.rainMultiplier = data.rainMultiplier;
-            gameData.tutorialComplete = data.tutorialComplete;
-            gameData.maxIdleTime = data.maxIdleTime;
-
-            // Restore purchased upgrade states
-            for (Array<UpgradeTier> tree : upgrades.getAllTrees()) {
-                for (UpgradeTier tier : tree) {
-                    String id = tier.tree + "_" + tier.tier;
-                    if (data.purchasedUpgrades.contains(id, false)) {
-                        tier.purchased = true;
-                        // GameData values from save already include all upgrade effects,
-                        // so we only mark purchased = true for UI state without re-applying.
-                    }
-                }
-            }
-
-            // Restore ability cooldown timestamps
-            ObjectMap<String, Long> cooldowns = new ObjectMap<>();
-            for (int i = 0; i < data.cooldownIds.size; i++) {
-                cooldowns.put(data.cooldownIds.get(i), data.cooldownTimestamps.get(i));
-            }
-            upgrades.abilities.setCooldownTimestamps(cooldowns);
-
-            // Calculate offline progress
-            OfflineResult result = new OfflineResult(false, 0, 0, 0, false, gameData.maxIdleTime);
-            if (data.lastClosedTime > 0) {
-                long now            = System.currentTimeMillis() / 1000L;
-                long rawSecondsAway = now - data.lastClosedTime;
-                long maxSeconds     = gameData.maxIdleTime * 3600L;
-                long cappedSeconds  = Math.min(rawSecondsAway, maxSeconds);
-                boolean exceededCap = rawSecondsAway > maxSeconds;
-
-                int rainfallCurrency     = 0;
-                int condensationCurrency = 0;
-
-                // Earnings calculated against capped time only
-                if (gameData.rps > 0) {
-                    float totalDrops = gameData.rps * cappedSeconds;
-                    int conversions  = (int)(totalDrops / gameData.dropsToFill);
-                    rainfallCurrency = conversions * gameData.currencyGained;
-                }
-
-                if (gameData.cps > 0) {
-                    condensationCurrency = (int)(gameData.cps * cappedSeconds);
-                }
-
-                int totalEarned = rainfallCurrency + condensationCurrency;
-                // Show popup if there's earnings OR if the cap was exceeded (even if earnings = 0)
-                if (totalEarned > 0 || exceededCap) {
-                    gameData.currency += totalEarned;
-                    result = new OfflineResult(true, rawSecondsAway, rainfallCurrency,
-                        condensationCurrency, exceededCap, gameData.maxIdleTime);
-                }
+    public static OfflineResult load(GameData gameData, UpgradeManager upgrades, MappedState mapped) {
+        long lastClosedTime = 0L;
+        double incomeRate   = -1;
+        boolean loaded      = false;
+        boolean exists      = STORE.exists();
+
+        if (exists) {
+            try {
+                SaveData data = SaveFormat.read(STORE);
+
+                SaveFormat.apply(data, gameData, upgrades);
+
+                lastClosedTime = data.lastClosedTime;
+                incomeRate     = data.incomeRate;
+                loaded         = true;
+            } catch (Exception e) {
+                Gdx.app.error("SaveManager", "Failed to load save file: " + e.getMessage());
             }
+        }
 
-            Gdx.app.log("SaveManager", "Game loaded. Currency: " + gameData.currency);
-            return result;
+        // The mapped state is written every frame, so after a crash it is newer than the last JSON save
+        if (mapped != null && mapped.recover(gameData, upgrades, lastClosedTime)) {
+            lastClosedTime = mapped.savedAt;
+            incomeRate     = mapped.incomeRate;
+            loaded         = true;
+        }
 
-        } catch (Exception e) {
-            Gdx.app.error("SaveManager", "Failed to load save file: " + e.getMessage());
+        if (!loaded) {
+            if (!exists) Gdx.app.log("SaveManager", "No save file found, starting fresh.");
             return new OfflineResult(false, 0, 0, 0, false, gameData.maxIdleTime);
         }
-    }
 
-    // Internal POJO used for JSON serialization.
-    // libGDX's Json class needs a public no-arg constructor and public fields.
-    public static class SaveData {
-        public int currency = 0;
-        public float fallSpeed = 300f;
-        public int dropsToFill = 50;
-        public float rps = 0f;
-        public float cps = 0f;
-        public int currencyEarned = 1;
-        public int prestigeLevel = 0;
-        public int rainMultiplier = 1;
-        public int maxIdleTime = 1;
-        public boolean tutorialComplete = false; // Tutorial only shows once when game is first ran
-        public long lastClosedTime = 0L;
-        public Array<String> purchasedUpgrades = new Array<>();
-        public Array<String> cooldownIds = new Array<>();
-        public Array<Long> cooldownTimestamps = new Array<>();
+        upgrades.rebuildUnlocks(gameData);
+        OfflineResult result = SaveFormat.offlineProgress(gameData, lastClosedTime, incomeRate,
+            System.currentTimeMillis() / 1000L);
+        Gdx.app.log("SaveManager", "Game loaded. Currency: " + gameData.currency);
+        return result;
     }
 }
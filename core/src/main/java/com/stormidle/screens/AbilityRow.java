@@ -10,6 +10,7 @@ import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.stormidle.assets.Fonts;
 import com.stormidle.objects.GameData;
 import com.stormidle.upgrades.AbilityDefinition;
 import com.stormidle.upgrades.AbilityManager;
@@ -32,8 +33,9 @@ public class AbilityRow extends com.badlogic.gdx.scenes.scene2d.Group implements
     private final Texture buyBtnTex;
     private final Texture buyBtnDisabledTex;
 
+    // Like UpgradeRow.PurchaseCallback, GameScreen runs the activation
     public interface ActivateCallback {
-        void onActivated();
+        void onActivate(AbilityDefinition def);
     }
     private final ActivateCallback callback;
 
@@ -42,9 +44,13 @@ public class AbilityRow extends com.badlogic.gdx.scenes.scene2d.Group implements
     private final Label nameLabel;
     private final Label descLabel;
 
+    // Cooldown and cost share the right side, only one is visible. Texts only rebuilt when they change
+    private final Label cdLabel;
+    private final Label costLabel;
+    private final NumberText cdText = new NumberText();
+    private final NumberText costText = new NumberText();
+
     // Mutable right-side actors
-    private Label cdLabel;
-    private Label costLabel;
     private Image buyBtn;
     private Label btnLabel;
 
@@ -73,12 +79,20 @@ public class AbilityRow extends com.badlogic.gdx.scenes.scene2d.Group implements
         nameLabel.setPosition(6f, ROW_HEIGHT - nameLabel.getPrefHeight() - 4f);
         addActor(nameLabel);
 
-        BitmapFont descFont = new BitmapFont();
+        BitmapFont descFont = Fonts.get();
         descLabel = new Label(def.description,
             new Label.LabelStyle(descFont, Color.LIGHT_GRAY));
         descLabel.setPosition(6f, 6f);
         addActor(descLabel);
 
+        cdLabel = new Label("", new Label.LabelStyle(Fonts.get(), Color.GRAY));
+        addActor(cdLabel);
+
+        costLabel = new Label(costText.appendShort(def.cost).append(" drops").text(),
+            new Label.LabelStyle(Fonts.get(), Color.WHITE));
+        costLabel.setPosition(rowWidth - BTN_BUY_W - 6f, BTN_BUY_H + 10f);
+        addActor(costLabel);
+
         refresh();
     }
 
@@ -102,23 +116,20 @@ public class AbilityRow extends com.badlogic.gdx.scenes.scene2d.Group implements
 
         float btnX = rowWidth - BTN_BUY_W - 6f;
 
+        cdLabel.setVisible(onCooldown);
+        costLabel.setVisible(!onCooldown);
+
         if (onCooldown) {
-            float remaining = abilities.getCooldownRemaining(def.id);
-            int mins = (int)(remaining / 60);
-            int secs = (int)(remaining % 60);
-            cdLabel = new Label(String.format("%d:%02d", mins, secs),
-                new Label.LabelStyle(new BitmapFont(), Color.GRAY));
-            cdLabel.setPosition(
-                btnX + (BTN_BUY_W / 2f) - (cdLabel.getPrefWidth()  / 2f),
-                (ROW_HEIGHT / 2f)        - (cdLabel.getPrefHeight() / 2f));
-            addActor(cdLabel);
+            int remaining = (int) abilities.getCooldownRemaining(def.id);
+            if (cdText.changed(remaining)) {
+                cdLabel.setText(cdText.appendClock(remaining).text());
+                cdLabel.setPosition(
+                    btnX + (BTN_BUY_W / 2f) - (cdLabel.getPrefWidth()  / 2f),
+                    (ROW_HEIGHT / 2f)        - (cdLabel.getPrefHeight() / 2f));
+            }
 
         } else {
-            costLabel = new Label(def.cost + " drops",
-                new Label.LabelStyle(new BitmapFont(),
-                    canAfford ? new Color(0.9f, 0.85f, 0.3f, 1f) : Color.RED));
-            costLabel.setPosition(btnX, BTN_BUY_H + 10f);
-            addActor(costLabel);
+            costLabel.setColor(canAfford ? COST_COLOR : Color.RED);
 
             buyBtn = new Image(canBuy ? buyBtnTex : buyBtnDisabledTex);
             buyBtn.setSize(BTN_BUY_W, BTN_BUY_H);
@@ -126,7 +137,7 @@ public class AbilityRow extends com.badlogic.gdx.scenes.scene2d.Group implements
             addActor(buyBtn);
 
             btnLabel = new Label(anyActive ? "Active" : "Buy",
-                new Label.LabelStyle(new BitmapFont(), Color.WHITE));
+                new Label.LabelStyle(Fonts.get(), Color.WHITE));
             btnLabel.setPosition(
                 btnX + (BTN_BUY_W / 2f) - (btnLabel.getPrefWidth()  / 2f),
                 6f   + (BTN_BUY_H / 2f) - (btnLabel.getPrefHeight() / 2f));
@@ -136,8 +147,7 @@ public class AbilityRow extends com.badlogic.gdx.scenes.scene2d.Group implements
             if (canBuy) {
                 buyBtn.addListener(new ClickListener() {
                     @Override public void clicked(InputEvent event, float x, float y) {
-                        boolean activated = abilities.tryActivate(def.id, gameData);
-                        if (activated) callback.onActivated();
+                        callback.onActivate(def);
                     }
                 });
             }
@@ -145,8 +155,6 @@ public class AbilityRow extends com.badlogic.gdx.scenes.scene2d.Group implements
     }
 
     private void removeRightSide() {
-        if (cdLabel   != null) { cdLabel.remove();   cdLabel   = null; }
-        if (costLabel != null) { costLabel.remove();  costLabel = null; }
         if (buyBtn    != null) { buyBtn.remove();     buyBtn    = null; }
         if (btnLabel  != null) { btnLabel.remove();   btnLabel  = null; }
     }
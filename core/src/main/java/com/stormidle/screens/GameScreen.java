@@ -2,6 +2,7 @@ package com.stormidle.screens;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Pixmap;
@@ -20,12 +21,31 @@ import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputAdapter;
 import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.scenes.scene2d.Touchable;
-import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.scenes.scene2d.actions.Actions;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
-import com.stormidle.objects.Rain;
+import com.stormidle.assets.AssetManifest;
+import com.stormidle.assets.CloudTextures;
+import com.stormidle.assets.Fonts;
+import com.stormidle.assets.ResourceTracker;
 import com.stormidle.objects.GameData;
+import com.stormidle.objects.RenderFrame;
+import com.stormidle.objects.Simulation;
+import com.stormidle.objects.SimulationThread;
+import com.stormidle.replay.CommandLog;
+import com.stormidle.replay.CommandRecorder;
 import com.stormidle.upgrades.*;
+import com.stormidle.save.MappedState;
+import com.stormidle.save.OfflineResult;
 import com.stormidle.save.SaveManager;
+import com.stormidle.services.BackgroundServices;
+import com.stormidle.stats.Achievement;
+import com.stormidle.stats.Statistics;
+
+import java.util.List;
 
 public class GameScreen implements Screen {
 
@@ -50,8 +70,10 @@ public class GameScreen implements Screen {
     public static final float ROW_MARGIN =       10f;
     public static final float BTN_BUY_W =        70f;
     public static final float BTN_BUY_H =        30f;
+    public static final float BTN_BULK_W =       40f; // x10 / Max buttons next to Buy
     public static final float HEADER_H =         40f; // Height reserved for title + close button
     public static final float POPUP_PADDING =     8f; // Padding around scroll pane
+    public static final Color COST_COLOR = new Color(0.9f, 0.85f, 0.3f, 1f); // Affordable cost text on rows
 
     // Core of game
     private final com.stormidle.Storm game;
@@ -59,10 +81,22 @@ public class GameScreen implements Screen {
     private SpriteBatch batch;
     private GameData gameData = new GameData();
     private UpgradeManager upgrades;
+    // What the HUD and popups read. The same objects as gameData and upgrades, except with a SimulationThread:
+    // then they are this thread's own copies, mirrored from each RenderFrame by syncView() and never bought from
+    private GameData view;
+    private UpgradeManager viewUpgrades;
+    private long viewClock; // Sim clock of the last synced frame, viewUpgrades' abilities measure cooldowns by it
+    private IncomeProjection projection; // Time-to-afford and payback shown on upgrade rows
+    private float projectionTimer = 0f;
+    private int projectedCurrency = -1;
     private TutorialManager tutorial;
+    private MappedState mappedState; // Per-frame crash-proof state, only with -PstormMappedSave
+    private CommandRecorder recorder; // Session command log for replays, null if it couldn't be written
+    private BackgroundServices.Scope services; // Save writes and state syncs, closed with the screen
+    private static final long SERVICES_DEADLINE_MS = 3000; // How long exit waits for the last save to be written
 
     // Sprite textures
-    private Texture[] cloudTextures;   // cloud_1.png … cloud_6.png
+    private CloudTextures clouds;      // cloud_1.png … cloud_6.png, only the shown one stays resident
     private Texture overlayTexture;    // solid black 1x1, used by transition
     private boolean prestigeInProgress = false;
     private Texture rainTexture;
@@ -75,6 +109,7 @@ public class GameScreen implements Screen {
     private Texture prestigeButtonTexture;
     private Texture notUnlockedTexture;
     private Texture popupBgTexture;
+    private boolean firstFrameReported = false;
 
     // Textures for upgrade row buttons (reused by all trees)
     private Texture rowTexture;
@@ -83,19 +118,42 @@ public class GameScreen implements Screen {
     private Texture buyButtonTexture;
     private Texture buyButtonDisabledTexture;
 
+    // Every generated 1x1 color texture, keyed by its RGBA8888 value. Popups and menus are rebuilt
+    // often, so they share these instead of creating a new texture per build
+    private final IntMap<Texture> colorTextures = new IntMap<>();
+    private ProgressBar.ProgressBarStyle fillBarStyle;
+
+    // Debug HUD listing live GL resources, only created when ResourceTracker is enabled
+    private Label debugLabel;
+    private float debugTimer = 0f;
+
     // Tracks which upgrade popup is open (null = none are open)
     private Group activePopup = null;
     private String activePopupType = null;
 
+    // Popups are built once and kept here while closed (detached from the stage).
+    // Cleared on prestige (the upgrade trees are replaced). A resize only re-centers them, see layoutPopups()
+    private final ObjectMap<String, Group> popupCache = new ObjectMap<>();
+    private static final String[] POPUP_TYPES = {"rain", "auto", "econ", "ult", "prestige"};
+
     // Actors, or sprites, for stage
     private Image cloud;
     private Image currency;
     private ProgressBar fillBar;
     private Label currencyLabel;
-
-    // Rain / bowl state
-    private Array<Rain> rain;
-    private int dropsCollected = 0; // Resets to 0 each time the bowl converts
+    private final NumberText currencyText = new NumberText();
+    private IncomeGraph incomeGraph; // Income rate and last-minute graph, top left
+
+    // Rain, bowl, auto rain and condensation, stepped in fixed ticks. Either here in render(), or on a
+    // SimulationThread with -PstormSimThread. Anything that changes the simulated state goes through command()
+    private Simulation sim;
+    private SimulationThread simThread;
+    private float simAccumulator = 0f;
+    private static final float MAX_SIM_FRAME = 0.25f; // Longer frames (window dragged, breakpoint) are dropped
+    private final RenderFrame inlineFrame = new RenderFrame(); // Captured in render() without a SimulationThread
+    private long seenLanded;      // Simulation event totals as of the last frame
+    private long seenConversions;
+    private long seenCondensed;
     private float bowlX;
     private float bowlY;
 
@@ -103,14 +161,9 @@ public class GameScreen implements Screen {
     private Group pauseMenu = null;
     private Group exitConfirm = null;
 
-    // Accumulates drops from auto-rain
-    private float autoRainAccumulator = 0f;
-
-    // Accumulates currency from condensation
-    private float condensationAccumulator = 0f;
-
     // Active ability UI
     private Label activeAbilityLabel;
+    private final NumberText activeAbilityText = new NumberText();
     private ProgressBar activeAbilityBar;
     private Group activeAbilityGroup;
 
@@ -128,23 +181,36 @@ public class GameScreen implements Screen {
 
     @Override
     public void show() {
-        // Initialize batch and rain array
+        // Initialize batch
         batch = new SpriteBatch();
-        rain = new Array<>();
-
-        // Load the cloud textures into the cloud array before pulling saved game data
-        // Load all cloud textures
-        cloudTextures = new Texture[]{
-            new Texture("cloud_1.png"),
-            new Texture("cloud_2.png"),
-            new Texture("cloud_3.png"),
-            new Texture("cloud_4.png"),
-            new Texture("cloud_5.png"),
-            new Texture("cloud_6.png"),
-        };
 
-        upgrades = new UpgradeManager(gameData);
-        SaveManager.OfflineResult offlineResult = SaveManager.load(gameData, upgrades);
+        // Every file texture was streamed in by IntroScreen, so these are lookups, not loads
+        AssetManager assets = game.assets;
+
+        // Clouds are loaded lazily, one per prestige level
+        clouds = new CloudTextures(assets);
+
+        upgrades = new UpgradeManager(gameData, game.definitions);
+        services = game.backgroundServices.openScope("GameScreen");
+        if (MappedState.ENABLED) mappedState = MappedState.open();
+        OfflineResult offlineResult = SaveManager.load(gameData, upgrades, mappedState);
+        sim = new Simulation(gameData, upgrades, System.currentTimeMillis() / 1000L);
+        if (mappedState != null && mappedState.recovered) {
+            // Progress the JSON save never had
+            sim.dropsCollected          = Math.min(mappedState.dropsCollected, gameData.dropsToFill);
+            sim.autoRainAccumulator     = mappedState.autoRainAccumulator;
+            sim.condensationAccumulator = mappedState.condensationAccumulator;
+        }
+        if (mappedState != null) mappedState.follow(sim.published, services);
+        if (SimulationThread.ENABLED) {
+            view = new GameData();
+            viewUpgrades = new UpgradeManager(view, game.definitions);
+            viewUpgrades.abilities.setClock(() -> viewClock);
+        } else {
+            view = gameData;
+            viewUpgrades = upgrades;
+        }
+        projection = new IncomeProjection(view, viewUpgrades);
 
         // Use a multiplexer so the stage and key listener both receive input
         InputMultiplexer multiplexer = new InputMultiplexer();
@@ -165,7 +231,7 @@ public class GameScreen implements Screen {
         stageHeight = stage.getHeight();
 
         // Cloud actor — pick texture based on current prestige level
-        cloud = new Image(cloudTextures[gameData.prestigeLevel]);
+        cloud = new Image(clouds.show(gameData.prestigeLevel));
         cloud.setSize(cloud.getPrefWidth(), cloud.getPrefHeight());
         cloud.setPosition(stageWidth * 0.10f, stageHeight * 0.65f);
         cloud.addListener(new ClickListener() {
@@ -175,25 +241,20 @@ public class GameScreen implements Screen {
 
                 // Notify tutorial on first click (step 0 → 1)
                 if (tutorial != null) tutorial.onFirstCloudClick();
-
-                int drops = upgrades.abilities.isHurricaneActive()
-                    ? gameData.rainMultiplier * 2
-                    : gameData.rainMultiplier;
-                for (int i = 0; i < drops; i++) {
-                    rain.add(new Rain(cloud.getX() + i * 20f, cloud.getY(), gameData.fallSpeed));
-                }
+                command(clickCommand);
             }
         });
         stage.addActor(cloud);
+        sim.setSpawn(cloud.getX(), cloud.getY());
 
         // Bowl to catch the rainfall
-        bowlTexture = new Texture("bowl.png");
+        bowlTexture = assets.get(AssetManifest.BOWL, Texture.class);
         bowlX = cloud.getX() + (cloud.getWidth() / 2f) - (BOWL_WIDTH / 2f);
         bowlY = 20f;
 
         // Progress bar for bowl, sits underneath the bowl actor
         fillBar = new ProgressBar(0f, gameData.dropsToFill, 1f, false, createFillBarStyle());
-        fillBar.setValue(0f);
+        fillBar.setValue(sim.dropsCollected);
         fillBar.setSize(BAR_WIDTH, BAR_HEIGHT);
         fillBar.setPosition(
             bowlX + (BOWL_WIDTH / 2f) - (BAR_WIDTH / 2f),
@@ -203,16 +264,15 @@ public class GameScreen implements Screen {
         stage.addActor(fillBar);
 
         // Currency label, top center of screen
-        BitmapFont font = new BitmapFont();
-        font.getData().setScale(2f);
+        BitmapFont font = Fonts.get(2f);
         Label.LabelStyle labelStyle = new Label.LabelStyle(font, Color.WHITE);
-        currencyLabel = new Label(getCurrencyText(), labelStyle);
+        currencyLabel = new Label("", labelStyle);
         currencyLabel.setPosition(0, stageHeight - currencyLabel.getPrefHeight() - 33);
 
         stage.addActor(currencyLabel);
 
         // Currency icon
-        currencyTexture = new Texture("currency.png");
+        currencyTexture = assets.get(AssetManifest.CURRENCY, Texture.class);
         currency = new Image(currencyTexture);
         currency.setSize(ICON_SIZE, ICON_SIZE);
         stage.addActor(currency);
@@ -220,11 +280,15 @@ public class GameScreen implements Screen {
         // Set initial positions of icon + label together
         updateCurrencyDisplay();
 
+        incomeGraph = new IncomeGraph(gameData.income, makeColorTexture(1f, 1f, 1f, 1f), Fonts.get(0.8f));
+        incomeGraph.setPosition(8f, stageHeight - incomeGraph.getHeight() - 8f);
+        stage.addActor(incomeGraph);
+
         // Active ability display — sits below the currency label
         activeAbilityGroup = new Group();
         activeAbilityGroup.setVisible(false);
 
-        BitmapFont abilityFont = new BitmapFont();
+        BitmapFont abilityFont = Fonts.get();
         Label.LabelStyle abilityStyle = new Label.LabelStyle(abilityFont, new Color(0.4f, 0.9f, 1f, 1f));
         activeAbilityLabel = new Label("", abilityStyle);
         activeAbilityLabel.setPosition(0, 0);
@@ -238,22 +302,18 @@ public class GameScreen implements Screen {
         stage.addActor(activeAbilityGroup);
 
         // Rain texture
-        rainTexture = new Texture("rain.png");
+        rainTexture = assets.get(AssetManifest.RAIN, Texture.class);
 
         // Upgrade button textures
-        rainButtonTexture = new Texture("rain_upgrades_button.png");
-        autoButtonTexture = new Texture("auto_upgrades_button.png");
-        econButtonTexture = new Texture("econ_upgrades_button.png");
-        abilitiesButtonTexture = new Texture("abilities_button.png");
-        prestigeButtonTexture = new Texture("prestige_button.png");
-        notUnlockedTexture = new Texture("not_unlocked_button.png");
+        rainButtonTexture = assets.get(AssetManifest.RAIN_BUTTON, Texture.class);
+        autoButtonTexture = assets.get(AssetManifest.AUTO_BUTTON, Texture.class);
+        econButtonTexture = assets.get(AssetManifest.ECON_BUTTON, Texture.class);
+        abilitiesButtonTexture = assets.get(AssetManifest.ABILITIES_BUTTON, Texture.class);
+        prestigeButtonTexture = assets.get(AssetManifest.PRESTIGE_BUTTON, Texture.class);
+        notUnlockedTexture = assets.get(AssetManifest.NOT_UNLOCKED, Texture.class);
 
         // Upgrade popup background
-        Pixmap popupPixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        popupPixmap.setColor(0.1f, 0.1f, 0.15f, 0.95f);
-        popupPixmap.fill();
-        popupBgTexture = new Texture(popupPixmap);
-        popupPixmap.dispose();
+        popupBgTexture = makeColorTexture(0.1f, 0.1f, 0.15f, 0.95f);
 
         // Upgrade buttons stacked on the right, from top down
         float btnX  = stageWidth - BTN_WIDTH - BTN_RIGHT_MARGIN;
@@ -279,26 +339,88 @@ public class GameScreen implements Screen {
         }
 
         // Solid black 1x1 for the transition overlay
-        Pixmap overlayPm = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        overlayPm.setColor(0f, 0f, 0f, 1f);
-        overlayPm.fill();
-        overlayTexture = new Texture(overlayPm);
-        overlayPm.dispose();
+        overlayTexture = makeColorTexture(0f, 0f, 0f, 1f);
+
+        if (ResourceTracker.ENABLED) {
+            debugLabel = new Label("", new Label.LabelStyle(Fonts.get(), Color.YELLOW));
+            debugLabel.setTouchable(Touchable.disabled);
+            stage.addActor(debugLabel);
+        }
 
         if (!gameData.tutorialComplete) {
             tutorial = new TutorialManager(
                 stage, stageWidth, stageHeight,
-                () -> {
+                () -> command(() -> {
                     gameData.tutorialComplete = true;
-                    SaveManager.save(gameData, upgrades);
-                }
+                    SaveManager.save(gameData, upgrades, services);
+                })
             );
             tutorial.start();
         }
+
+        // Everything above (save, offline progress, crash recovery) is the log's starting state
+        recorder = CommandRecorder.start(sim, gameData, upgrades, game.definitions);
+
+        // Autosaves and the mapped state read the published copy, so it starts out as the loaded state
+        sim.publish();
+
+        // From here on the simulation thread owns GameData and the upgrades
+        if (SimulationThread.ENABLED) {
+            simThread = new SimulationThread(sim, gameData, upgrades, this::afterSimulationTicks);
+            syncView(simThread.frames().front());
+            simThread.start();
+        }
+    }
+
+    // Runs a command that changes the simulated state: right away, or on the simulation thread between ticks
+    private void command(Runnable command) {
+        if (simThread != null) simThread.submit(command);
+        else command.run();
+    }
+
+    // Runs the UI side of a command on the render thread
+    private void onRenderThread(Runnable work) {
+        if (simThread != null) Gdx.app.postRunnable(work);
+        else work.run();
+    }
+
+    private final Runnable clickCommand = () -> {
+        if (recorder != null) recorder.click(sim.tick);
+        sim.click();
+    };
+
+    private final Runnable flushRecorder = () -> {
+        if (recorder != null) recorder.flush();
+    };
+
+    // Saves the state the simulation last published, in the background. The simulation keeps running meanwhile
+    private void autosave() {
+        SaveManager.save(sim.published, services);
+        command(flushRecorder);
+    }
+
+    private final Runnable afterPurchase = () -> {
+        updateCurrencyDisplay();
+        if (tutorial != null) tutorial.onUpgradePurchased();
+        refreshActivePopup();
+    };
+
+    private final Runnable afterActivate = () -> {
+        updateCurrencyDisplay();
+        refreshActivePopup();
+    };
+
+    private final Statistics.UnlockListener postAchievement = a -> Gdx.app.postRunnable(() -> showAchievement(a));
+    private final Statistics.UnlockListener showAchievement = this::showAchievement; // Inline path, one per screen
+
+    // Simulation thread: what stepSimulation() does after stepping when there is no simulation thread
+    private void afterSimulationTicks(int ticks) {
+        gameData.stats.flush(postAchievement);
+        gameData.income.tick(ticks * Simulation.TICK, gameData.stats.get(Statistics.CURRENCY_EARNED));
     }
 
     // Builds the offline progress popup shown when the player returns after being away
-    private Group buildOfflinePopup(SaveManager.OfflineResult result) {
+    private Group buildOfflinePopup(OfflineResult result) {
         float w = 360f;
         float h = result.exceededCap ? 320f : 260f;
         float x = (stageWidth  / 2f) - (w / 2f);
@@ -313,21 +435,20 @@ public class GameScreen implements Screen {
         popup.addActor(bg);
 
         // Title
-        BitmapFont titleFont = new BitmapFont();
-        titleFont.getData().setScale(1.6f);
+        BitmapFont titleFont = Fonts.get(1.6f);
         Label title = new Label("Welcome Back!", new Label.LabelStyle(titleFont, Color.WHITE));
         title.setPosition((w / 2f) - (title.getPrefWidth() / 2f), h - 45f);
         popup.addActor(title);
 
         // Full real time away (uncapped)
         Label timeLabel = new Label("You were away for " + formatTime(result.secondsAway),
-            new Label.LabelStyle(new BitmapFont(), Color.LIGHT_GRAY));
+            new Label.LabelStyle(Fonts.get(), Color.LIGHT_GRAY));
         timeLabel.setPosition((w / 2f) - (timeLabel.getPrefWidth() / 2f), h - 85f);
         popup.addActor(timeLabel);
 
         // Cap exceeded warning
         if (result.exceededCap) {
-            BitmapFont warnFont = new BitmapFont();
+            BitmapFont warnFont = Fonts.get();
             Label warnLabel = new Label(
                 "Max idle time: " + result.maxIdleHours + " hour(s).\nUpgrade in Auto Upgrades!",
                 new Label.LabelStyle(warnFont, Color.RED));
@@ -340,8 +461,7 @@ public class GameScreen implements Screen {
         float earningsY   = result.exceededCap ? h - 195f : h - 125f;
 
         if (result.rainfallCurrency > 0) {
-            BitmapFont rainFont = new BitmapFont();
-            rainFont.getData().setScale(1.1f);
+            BitmapFont rainFont = Fonts.get(1.1f);
             Label rainLabel = new Label("Rainfall:  +" + result.rainfallCurrency,
                 new Label.LabelStyle(rainFont, earnedColor));
             rainLabel.setPosition((w / 2f) - (rainLabel.getPrefWidth() / 2f), earningsY);
@@ -350,8 +470,7 @@ public class GameScreen implements Screen {
         }
 
         if (result.condensationCurrency > 0) {
-            BitmapFont condFont = new BitmapFont();
-            condFont.getData().setScale(1.1f);
+            BitmapFont condFont = Fonts.get(1.1f);
             Label condLabel = new Label("Condensation:  +" + result.condensationCurrency,
                 new Label.LabelStyle(condFont, earnedColor));
             condLabel.setPosition((w / 2f) - (condLabel.getPrefWidth() / 2f), earningsY);
@@ -364,7 +483,7 @@ public class GameScreen implements Screen {
         dismissBtn.setPosition((w / 2f) - 60f, 20f);
         popup.addActor(dismissBtn);
 
-        Label dismissLabel = new Label("Collect", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
+        Label dismissLabel = new Label("Collect", new Label.LabelStyle(Fonts.get(), Color.WHITE));
         dismissLabel.setPosition(
             (w / 2f) - (dismissLabel.getPrefWidth()  / 2f),
             20f      + (38f / 2f) - (dismissLabel.getPrefHeight() / 2f));
@@ -437,15 +556,14 @@ public class GameScreen implements Screen {
         menu.addActor(bg);
 
         // Title
-        BitmapFont titleFont = new BitmapFont();
-        titleFont.getData().setScale(1.8f);
+        BitmapFont titleFont = Fonts.get(1.8f);
         Label.LabelStyle titleStyle = new Label.LabelStyle(titleFont, Color.WHITE);
         Label title = new Label("PAUSED", titleStyle);
         title.setPosition((menuW / 2f) - (title.getPrefWidth() / 2f), menuH - 45f);
         menu.addActor(title);
 
         // Volume label
-        BitmapFont labelFont = new BitmapFont();
+        BitmapFont labelFont = Fonts.get();
         Label.LabelStyle labelStyle = new Label.LabelStyle(labelFont, Color.LIGHT_GRAY);
         Label volLabel = new Label("Music Volume", labelStyle);
         volLabel.setPosition(20f, menuH - 90f);
@@ -474,7 +592,7 @@ public class GameScreen implements Screen {
         });
         menu.addActor(resumeBtn);
 
-        BitmapFont btnFont = new BitmapFont();
+        BitmapFont btnFont = Fonts.get();
         Label.LabelStyle btnStyle = new Label.LabelStyle(btnFont, Color.WHITE);
         Label resumeLabel = new Label("Resume", btnStyle);
         resumeLabel.setPosition(
@@ -495,7 +613,7 @@ public class GameScreen implements Screen {
         });
         menu.addActor(exitBtn);
 
-        Label exitLabel = new Label("Exit", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
+        Label exitLabel = new Label("Exit", new Label.LabelStyle(Fonts.get(), Color.WHITE));
         exitLabel.setPosition(
             (menuW - 150f) + (130f / 2f) - (exitLabel.getPrefWidth()  / 2f),
             50f             + (40f  / 2f) - (exitLabel.getPrefHeight() / 2f)
@@ -540,7 +658,7 @@ public class GameScreen implements Screen {
         exitConfirm.addActor(bg);
 
         // Message
-        BitmapFont msgFont = new BitmapFont();
+        BitmapFont msgFont = Fonts.get();
         Label.LabelStyle msgStyle = new Label.LabelStyle(msgFont, Color.WHITE);
         Label msg = new Label("Are you sure you want to exit?", msgStyle);
         msg.setWrap(true);
@@ -554,13 +672,13 @@ public class GameScreen implements Screen {
         confirmBtn.setPosition(15f, 20f);
         confirmBtn.addListener(new ClickListener() {
             @Override public void clicked(InputEvent event, float x, float y) {
-                SaveManager.save(gameData, upgrades);
+                autosave();
                 Gdx.app.exit();
             }
         });
         exitConfirm.addActor(confirmBtn);
 
-        Label confirmLabel = new Label("Exit", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
+        Label confirmLabel = new Label("Exit", new Label.LabelStyle(Fonts.get(), Color.WHITE));
         confirmLabel.setPosition(
             15f  + (110f / 2f) - (confirmLabel.getPrefWidth()  / 2f),
             20f  + (36f  / 2f) - (confirmLabel.getPrefHeight() / 2f)
@@ -580,7 +698,7 @@ public class GameScreen implements Screen {
         });
         exitConfirm.addActor(cancelBtn);
 
-        Label cancelLabel = new Label("Cancel", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
+        Label cancelLabel = new Label("Cancel", new Label.LabelStyle(Fonts.get(), Color.WHITE));
         cancelLabel.setPosition(
             (w - 125f) + (110f / 2f) - (cancelLabel.getPrefWidth()  / 2f),
             20f         + (36f  / 2f) - (cancelLabel.getPrefHeight() / 2f)
@@ -591,13 +709,19 @@ public class GameScreen implements Screen {
         stage.addActor(exitConfirm);
     }
 
-    // Creates a 1x1 Texture filled with the given RGBA color
+    // Returns a 1x1 Texture filled with the given RGBA color. Textures are cached per color and
+    // only disposed with the screen, so callers must not dispose them
     private Texture makeColorTexture(float r, float g, float b, float a) {
+        int key = Color.rgba8888(r, g, b, a);
+        Texture tex = colorTextures.get(key);
+        if (tex != null) return tex;
+
         Pixmap pm = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
         pm.setColor(r, g, b, a);
         pm.fill();
-        Texture tex = new Texture(pm);
+        tex = ResourceTracker.track(new Texture(pm));
         pm.dispose();
+        colorTextures.put(key, tex);
         return tex;
     }
 
@@ -617,6 +741,7 @@ public class GameScreen implements Screen {
 
     // Helper function that opens the popup for the given type, or closes it if it's already open
     private void togglePopup(String type) {
+        recordPopup(type.equals(activePopupType) ? null : type);
         if (activePopup != null) {
             activePopup.remove();
             stage.setScrollFocus(null);
@@ -626,31 +751,66 @@ public class GameScreen implements Screen {
             // If we clicked the same button that was already open, just close it
             if (type.equals(wasOpen)) return;
         }
-        if ("prestige".equals(type)) {
-            activePopup = buildPrestigePopup();
-        } else {
-            activePopup = buildPopup(type);
+        long start = TimeUtils.nanoTime();
+
+        Group popup = popupCache.get(type);
+        boolean cached = popup != null;
+        if (!cached) {
+            popup = "prestige".equals(type) ? buildPrestigePopup() : buildPopup(type);
+            popupCache.put(type, popup);
         }
+        activePopup     = popup;
         activePopupType = type;
         stage.addActor(activePopup);
+
+        // A cached popup may be showing stale affordability/cooldowns, so bring its rows up to date
+        if (cached) refreshActivePopup();
+        ScrollPane scrollPane = findScrollPane(activePopup);
+        if (scrollPane != null) stage.setScrollFocus(scrollPane);
+
+        Gdx.app.debug("GameScreen", "Opened " + type + " popup in "
+            + (TimeUtils.timeSinceNanos(start) / 1000L) + " us (" + (cached ? "cached" : "built") + ")");
+
         if ("rain".equals(type) && tutorial != null) {
             tutorial.onRainPopupOpened();
         }
     }
 
+    // Opens and closes every popup, the pause menu and the exit confirmation once, drawing each while it is open.
+    // Used by the headless PopupLeakCheck to see whether doing so leaves GL resources behind
+    public void cyclePopups() {
+        for (String type : POPUP_TYPES) {
+            togglePopup(type);
+            stage.draw();
+            togglePopup(type);
+        }
+        openPauseMenu();
+        showExitConfirmation();
+        stage.draw();
+        closePauseMenu();
+    }
+
+    // Logs which popup is open now, null if none
+    private void recordPopup(String type) {
+        if (recorder != null) command(() -> recorder.popup(sim.tick, type));
+    }
+
     // Builds the popup window for prestige
     private Group buildPrestigePopup() {
         float x = (stageWidth  / 2f) - (POPUP_WIDTH  / 2f);
         float y = (stageHeight / 2f) - (POPUP_HEIGHT / 2f);
 
         PrestigePopup popup = new PrestigePopup(
-            gameData,
+            view,
+            viewUpgrades,
             popupBgTexture,
             buyButtonTexture,
             buyButtonDisabledTexture,
+            createBarStyle(0.4f, 0.8f, 0.3f),
             new PrestigePopup.PrestigeCallback() {
                 @Override public void onPrestige() { triggerPrestige(); }
                 @Override public void onClose() {
+                    recordPopup(null);
                     if (activePopup != null) activePopup.remove();
                     stage.setScrollFocus(null);
                     activePopup     = null;
@@ -673,36 +833,38 @@ public class GameScreen implements Screen {
             activePopupType = null;
         }
 
-        int newLevel = gameData.prestigeLevel + 1; // what it will be after reset
+        int newLevel = view.prestigeLevel + 1; // what it will be after reset
 
         PrestigeTransition.play(
             stage,
             newLevel,
             overlayTexture,
             // Midpoint: runs while screen is black — safe to reset everything
-            () -> {
-                PrestigeManager.doPrestige(gameData, upgrades);
-                rain.clear();
-                autoRainAccumulator    = 0f;
-                condensationAccumulator = 0f;
-                dropsCollected         = 0;
-                fillBar.setRange(0f, gameData.dropsToFill);
-                fillBar.setValue(0f);
-
-                // Swap cloud texture
-                cloud.setDrawable(new com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable(
-                    new com.badlogic.gdx.graphics.g2d.TextureRegion(
-                        cloudTextures[gameData.prestigeLevel])));
+            () -> command(() -> {
+                // The popup checked a view that can be a frame behind
+                if (!upgrades.prestige.canPrestige(gameData.prestigeLevel, gameData.currency)) return;
+                if (recorder != null) recorder.prestige(sim.tick);
+                sim.prestige();
+                SaveManager.save(gameData, upgrades, services);
+
+                onRenderThread(() -> {
+                    // Cached rows point at the old upgrade trees
+                    invalidatePopups();
+
+                    // Swap cloud texture
+                    cloud.setDrawable(new com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable(
+                        new com.badlogic.gdx.graphics.g2d.TextureRegion(
+                            clouds.show(newLevel))));
 
-                updateCurrencyDisplay();
-                SaveManager.save(gameData, upgrades);
-            },
+                    updateCurrencyDisplay();
+                });
+            }),
             // Complete: re-enable input
             () -> prestigeInProgress = false
         );
     }
 
-    // Rebuilds and re-opens the current popup in place. Call this after any upgrade is purchased
+    // Refreshes the rows of the current popup in place. Call this after any upgrade is purchased
     // so button states can refresh
     private void refreshActivePopup() {
         if (activePopup == null) return;
@@ -713,14 +875,64 @@ public class GameScreen implements Screen {
             return;
         }
 
-        for (com.badlogic.gdx.scenes.scene2d.Actor a : activePopup.getChildren()) {
-            if (!(a instanceof ScrollPane)) continue;
-            Table content = (Table) ((ScrollPane) a).getWidget();
-            for (com.badlogic.gdx.scenes.scene2d.Actor row : content.getChildren()) {
-                if (row instanceof Refreshable) ((Refreshable) row).refresh();
-            }
-            break;
+        ScrollPane scrollPane = findScrollPane(activePopup);
+        if (scrollPane == null) return;
+
+        // Upgrade popups use a VirtualUpgradeList, which refreshes just its visible rows
+        if (scrollPane.getActor() instanceof Refreshable) {
+            ((Refreshable) scrollPane.getActor()).refresh();
+            return;
+        }
+
+        Table content = (Table) scrollPane.getActor();
+        for (com.badlogic.gdx.scenes.scene2d.Actor row : content.getChildren()) {
+            if (row instanceof Refreshable) ((Refreshable) row).refresh();
+        }
+    }
+
+    // Returns the ScrollPane holding a popup's rows, or null if it has none
+    private ScrollPane findScrollPane(Group popup) {
+        for (com.badlogic.gdx.scenes.scene2d.Actor a : popup.getChildren()) {
+            if (a instanceof ScrollPane) return (ScrollPane) a;
         }
+        return null;
+    }
+
+    // Dev-mode hot reload of upgrades.json, see DefinitionWatcher. Progress and purchases are kept,
+    // stats are recomputed from the new effects, and whichever popup was open is rebuilt
+    private void applyReloadedDefinitions() {
+        if (prestigeInProgress) return; // Trees are being reset, pick the change up after the transition
+        UpgradeDefinitions fresh = game.pollDefinitions();
+        if (fresh == null) return;
+
+        command(() -> {
+            upgrades.applyDefinitions(fresh, gameData);
+            if (recorder != null) recorder.reload(sim.tick);
+
+            onRenderThread(() -> {
+                if (view != gameData) viewUpgrades.applyDefinitions(fresh, view);
+                String wasOpen = activePopupType;
+                invalidatePopups();
+                if (wasOpen != null) togglePopup(wasOpen);
+                updateCurrencyDisplay();
+                Gdx.app.log("GameScreen", "Applied reloaded definitions");
+            });
+        });
+    }
+
+    private static boolean isUpgradePopup(String type) {
+        return "rain".equals(type) || "auto".equals(type) || "econ".equals(type);
+    }
+
+    // Drops every cached popup so the next open builds it again against the current state
+    private void invalidatePopups() {
+        if (activePopup != null) {
+            activePopup.remove();
+            stage.setScrollFocus(null);
+            activePopup     = null;
+            activePopupType = null;
+        }
+        popupCache.clear();
     }
 
     // Helper function that builds and returns a popup Group for the given upgrade category
@@ -741,8 +953,7 @@ public class GameScreen implements Screen {
         popup.addActor(bg);
 
         // Title
-        BitmapFont titleFont = new BitmapFont();
-        titleFont.getData().setScale(1.5f);
+        BitmapFont titleFont = Fonts.get(1.5f);
         Label.LabelStyle titleStyle = new Label.LabelStyle(titleFont, Color.WHITE);
         Label title = new Label(getPopupTitle(type), titleStyle);
         title.setPosition(10, POPUP_HEIGHT - 30);
@@ -753,22 +964,23 @@ public class GameScreen implements Screen {
         if ("rain".equals(type)) {
             buildPopupContent(popup,
                 new String[][]{{"Rain Fall Speed"}, {"Rain Value"}},
-                new Array[]{upgrades.rain.speedTree, upgrades.rain.bowlTree}
+                new UpgradeTree[]{viewUpgrades.rain.speedTree, viewUpgrades.rain.bowlTree}
             );
         } else if ("auto".equals(type)) {
             buildPopupContent(popup,
                 new String[][]{{"Rain Generation"}, {"Idle Time"}},
-                new Array[]{upgrades.auto.autoTree, upgrades.auto.idleTimeTree}
+                new UpgradeTree[]{viewUpgrades.auto.autoTree, viewUpgrades.auto.idleTimeTree}
             );
         } else if ("econ".equals(type)) {
             buildPopupContent(popup,
-                new String[][]{{"Silver Lining"}, {"Condensation"}},
-                new Array[]{upgrades.econ.conversionTree, upgrades.econ.condensationTree}
+                new String[][]{{"Silver Lining"}, {"Condensation"}, {"Humidity"}},
+                new UpgradeTree[]{viewUpgrades.econ.conversionTree, viewUpgrades.econ.condensationTree,
+                    viewUpgrades.econ.humidityTree}
             );
         } else if ("ult".equals(type)) {
             buildAbilityPopupContent(popup);
         } else {
-            BitmapFont bodyFont = new BitmapFont();
+            BitmapFont bodyFont = Fonts.get();
             Label.LabelStyle bodyStyle = new Label.LabelStyle(bodyFont, Color.LIGHT_GRAY);
             Label placeholder = new Label("No upgrades yet.", bodyStyle);
             placeholder.setPosition(10, POPUP_HEIGHT - 60);
@@ -776,7 +988,7 @@ public class GameScreen implements Screen {
         }
 
         // Close button
-        BitmapFont closeFont = new BitmapFont();
+        BitmapFont closeFont = Fonts.get();
         Label.LabelStyle closeStyle = new Label.LabelStyle(closeFont, Color.RED);
         Label closeBtn = new Label("[X]", closeStyle);
         closeBtn.setPosition(POPUP_WIDTH - 30, POPUP_HEIGHT - 25);
@@ -795,41 +1007,44 @@ public class GameScreen implements Screen {
     }
 
     // Populates the given upgrade group with all upgrade trees rendered as stacked rows.
-    // Rows are drawn top-to-bottom with a small section header separating the trees
-    private void buildPopupContent(Group popup, String[][] sections, Array<UpgradeTier>[] trees) {
+    // Rows are drawn top-to-bottom with a small section header separating the trees.
+    // Only the rows in view exist as actors, see VirtualUpgradeList
+    private void buildPopupContent(Group popup, String[][] sections, UpgradeTree[] trees) {
         // Height and width of scroll pane
         float scrollW = POPUP_WIDTH - POPUP_PADDING * 2f;
         float scrollH = POPUP_HEIGHT - HEADER_H - POPUP_PADDING * 2f;
 
-        BitmapFont font = new BitmapFont();
-        font.getData().setScale(0.9f);
-
-        BitmapFont headerFont = new BitmapFont();
-        headerFont.getData().setScale(1.1f);
-
-        // Inner table that holds all rows and wrapped in ScrollPane
-        Table content = new Table();
-        content.top().left();
-        content.defaults().left();
+        BitmapFont font = Fonts.get(0.9f);
+
+        BitmapFont headerFont = Fonts.get(1.1f);
+
+        String[] sectionNames = new String[sections.length];
+        for (int t = 0; t < sections.length; t++) sectionNames[t] = sections[t][0];
+
+        // Shared by every row, including recycled ones. Rows show viewUpgrades' trees, the purchase goes to the
+        // tree in the same slot of upgrades
+        UpgradeRow.PurchaseCallback onPurchase = (clicked, index, count) -> {
+            int slot = viewUpgrades.getAllTrees().indexOf(clicked);
+            if (slot < 0) return; // A prestige or reload replaced the tree since the row was built
+            command(() -> {
+                List<UpgradeTree> live = upgrades.getAllTrees();
+                if (slot >= live.size()) return; // A reload dropped the tree since the click
+                UpgradeTree tree = live.get(slot);
+                int bought = count == UpgradeRow.MAX ? sim.purchaseMax(tree, index) : sim.purchase(tree, index, count);
+                if (bought == 0) return;
+                if (recorder != null) recorder.purchase(sim.tick, tree, index, bought);
+                onRenderThread(afterPurchase);
+            });
+        };
 
-        for (int t = 0; t < trees.length; t++) {
-            if (t > 0) content.add().height(ROW_PADDING * 2f).row();
-            addSectionHeader(content, sections[t][0], headerFont, scrollW);
-            for (int i = 0; i < trees[t].size; i++) {
-                UpgradeRow row = new UpgradeRow(
-                    trees[t], i, gameData, scrollW, font,
-                    rowTexture, rowLockedTexture, rowPurchasedTexture,
-                    buyButtonTexture, buyButtonDisabledTexture,
-                    () -> {                          // PurchaseCallback
-                        updateFillBar();
-                        updateCurrencyDisplay();
-                        if (tutorial != null) tutorial.onUpgradePurchased();
-                        refreshActivePopup();
-                    }
-                );
-                content.add(row).width(scrollW).height(ROW_HEIGHT).padBottom(ROW_PADDING).row();
-            }
-        }
+        // Virtualized list of rows wrapped in ScrollPane
+        VirtualUpgradeList content = new VirtualUpgradeList(sectionNames, trees, scrollW, headerFont,
+            (tree, index) -> new UpgradeRow(
+                tree, index, view, projection, scrollW, font,
+                rowTexture, rowLockedTexture, rowPurchasedTexture,
+                buyButtonTexture, buyButtonDisabledTexture,
+                onPurchase
+            ));
 
         ScrollPane.ScrollPaneStyle spStyle = new ScrollPane.ScrollPaneStyle();
         ScrollPane scrollPane = new ScrollPane(content, spStyle);
@@ -839,27 +1054,28 @@ public class GameScreen implements Screen {
         scrollPane.setSize(scrollW, scrollH);
         scrollPane.setPosition(POPUP_PADDING, POPUP_PADDING);
         popup.addActor(scrollPane);
-        stage.setScrollFocus(scrollPane);
     }
 
     private void buildAbilityPopupContent(Group popup) {
         float scrollW = POPUP_WIDTH  - POPUP_PADDING * 2f;
         float scrollH = POPUP_HEIGHT - HEADER_H - POPUP_PADDING * 2f;
 
-        BitmapFont font = new BitmapFont();
+        BitmapFont font = Fonts.get();
         Table content = new Table();
         content.top().left();
         content.defaults().left();
 
-        for (AbilityDefinition def : upgrades.abilities.abilities) {
+        for (AbilityDefinition def : viewUpgrades.abilities.abilities) {
             AbilityRow row = new AbilityRow(
-                def, upgrades.abilities, gameData, scrollW, font,
+                def, viewUpgrades.abilities, view, scrollW, font,
                 rowTexture, rowLockedTexture,
                 buyButtonTexture, buyButtonDisabledTexture,
-                () -> {                              // ActivateCallback
-                    updateCurrencyDisplay();
-                    refreshActivePopup();
-                }
+                activated -> command(() -> {         // ActivateCallback
+                    if (!upgrades.abilities.abilities.contains(activated)) return;
+                    if (!sim.activateAbility(activated.id)) return;
+                    if (recorder != null) recorder.ability(sim.tick, activated);
+                    onRenderThread(afterActivate);
+                })
             );
             content.add(row).width(scrollW).height(ROW_HEIGHT).padBottom(ROW_PADDING).row();
         }
@@ -872,14 +1088,6 @@ public class GameScreen implements Screen {
         scrollPane.setSize(scrollW, scrollH);
         scrollPane.setPosition(POPUP_PADDING, POPUP_PADDING);
         popup.addActor(scrollPane);
-        stage.setScrollFocus(scrollPane);
-    }
-
-    // Draws a section header label to the content table
-    private void addSectionHeader(Table content, String text, BitmapFont font, float rowWidth) {
-        Label.LabelStyle style = new Label.LabelStyle(font, new Color(0.6f, 0.85f, 1f, 1f));
-        Label header = new Label(text, style);
-        content.add(header).width(rowWidth).padTop(ROW_PADDING).padBottom(4f).row();
     }
 
     // Quick helper function for title that displays on upgrade popup windows
@@ -895,9 +1103,14 @@ public class GameScreen implements Screen {
     }
 
     // Helper function for positioning the currency icon + label
-    // Useful later on when currency value becomes bigger
+    // Only re-lays out when the shown amount changed
     private void updateCurrencyDisplay() {
-        currencyLabel.setText(getCurrencyText());
+        updateCurrencyDisplay(view.currency);
+    }
+
+    private void updateCurrencyDisplay(int value) {
+        if (!currencyText.changed(value)) return;
+        currencyLabel.setText(currencyText.appendShort(value).text());
 
         float labelW = currencyLabel.getPrefWidth();
         float totalW = ICON_SIZE + ICON_PADDING + labelW;
@@ -908,51 +1121,64 @@ public class GameScreen implements Screen {
         currencyLabel.setPosition(startX + ICON_SIZE + ICON_PADDING, yPos);
     }
 
-    // Syncs the progress bar's max value to match the drops needed to convert to currency
-    private void updateFillBar() {
-        // Cap collected drops so bar doesn't need the new lower max value
-        if (dropsCollected > gameData.dropsToFill) dropsCollected = gameData.dropsToFill;
-        fillBar.setRange(0f, gameData.dropsToFill);
-        fillBar.setValue(dropsCollected);
+    // Syncs the progress bar to the frame's bowl, including its max after an upgrade changed the drops needed
+    private void updateFillBar(RenderFrame frame) {
+        if (fillBar.getMaxValue() != frame.dropsToFill) fillBar.setRange(0f, frame.dropsToFill);
+        // A bowl fuller than a new lower max converts on the next drop, until then it shows as full
+        fillBar.setValue(Math.min(frame.dropsCollected, frame.dropsToFill));
+    }
+
+    // Reacts to what the simulation did since the last frame
+    private void applyFrameEvents(RenderFrame frame) {
+        updateFillBar(frame);
+        updateCurrencyDisplay(frame.currency);
+
+        if (frame.dropsLanded != seenLanded) {
+            seenLanded = frame.dropsLanded;
+            if (tutorial != null) tutorial.onFirstDropLanded();
+        }
+        if (frame.conversions != seenConversions) {
+            seenConversions = frame.conversions;
+            if (tutorial != null) tutorial.onFirstConversion();
+            // Refresh popup affordability after earning currency
+            if ("rain".equals(activePopupType) || "econ".equals(activePopupType) || "prestige".equals(activePopupType)) refreshActivePopup();
+        }
+        if (frame.condensed != seenCondensed) {
+            seenCondensed = frame.condensed;
+            if ("econ".equals(activePopupType) || "prestige".equals(activePopupType)) refreshActivePopup();
+        }
     }
 
-    // Helper function for creating the progress bar, uses Pixmaps
+    // Helper function for the light blue progress bar style, shared by every bar that uses it
     private ProgressBar.ProgressBarStyle createFillBarStyle() {
+        if (fillBarStyle == null) fillBarStyle = createBarStyle(0.3f, 0.7f, 1f);
+        return fillBarStyle;
+    }
+
+    // Builds a progress bar style with a dark background and a fill in the given color
+    private ProgressBar.ProgressBarStyle createBarStyle(float r, float g, float b) {
         // Background - dark blue/grey
-        Pixmap bgPixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        bgPixmap.setColor(0.2f, 0.2f, 0.3f, 1f);
-        bgPixmap.fill();
-        Drawable background = new TextureRegionDrawable(new TextureRegion(new Texture(bgPixmap)));
-        bgPixmap.dispose();
-
-        // Knob — zero width so it's invisible (we just want the fill, not a slider knob)
-        Pixmap knobPixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        knobPixmap.setColor(0f, 0f, 0f, 0f);
-        knobPixmap.fill();
-        Drawable knob = new TextureRegionDrawable(new TextureRegion(new Texture(knobPixmap)));
-        knobPixmap.dispose();
-
-        // Knob before (filled portion) — light blue
-        Pixmap fillPixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        fillPixmap.setColor(0.3f, 0.7f, 1f, 1f);
-        fillPixmap.fill();
-        Drawable knobBefore = new TextureRegionDrawable(new TextureRegion(new Texture(fillPixmap)));
-        fillPixmap.dispose();
+        Drawable background = new TextureRegionDrawable(new TextureRegion(makeColorTexture(0.2f, 0.2f, 0.3f, 1f)));
+
+        // Knob — fully transparent so it's invisible (we just want the fill, not a slider knob)
+        Drawable knob = new TextureRegionDrawable(new TextureRegion(makeColorTexture(0f, 0f, 0f, 0f)));
+
+        // Knob before (filled portion)
+        Drawable knobBefore = new TextureRegionDrawable(new TextureRegion(makeColorTexture(r, g, b, 1f)));
 
         ProgressBar.ProgressBarStyle style = new ProgressBar.ProgressBarStyle(background, knob);
         style.knobBefore = knobBefore;
         return style;
     }
 
-    private String getCurrencyText() {
-        return gameData.currency + "";
-    }
-
 
     @Override
     public void render(float delta) {
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
+        // Frame boundary: swap in edited definitions before anything reads the upgrades this frame
+        applyReloadedDefinitions();
+
         stage.act(delta);
         stage.draw();
 
@@ -960,101 +1186,164 @@ public class GameScreen implements Screen {
         autosaveTimer += delta;
         if (autosaveTimer >= AUTOSAVE_INTERVAL) {
             autosaveTimer = 0f;
-            SaveManager.save(gameData, upgrades);
+            autosave();
         }
 
-        // Tick active ability timer
-        upgrades.abilities.tick(delta, gameData);
+        RenderFrame frame = stepSimulation(delta);
+        applyFrameEvents(frame);
+        if (mappedState != null) mappedState.update();
+
+        // Prefetch the next cloud in the background once prestige gets close
+        clouds.update(view.prestigeLevel, view.currency, viewUpgrades.prestige.nextThreshold(view.prestigeLevel));
 
         // Update active ability UI
-        AbilityDefinition active = upgrades.abilities.getActiveAbility();
+        AbilityDefinition active = frame.activeAbility;
         if (active != null) {
             activeAbilityGroup.setVisible(true);
-            float remaining  = upgrades.abilities.getActiveTimeRemaining();
+            float remaining  = frame.activeRemaining;
             float labelW     = activeAbilityLabel.getPrefWidth();
             float groupX     = (stageWidth / 2f) - (Math.max(labelW, 160f) / 2f);
             float groupY     = stageHeight - currencyLabel.getPrefHeight() - 60f;
             activeAbilityGroup.setPosition(groupX, groupY);
-            activeAbilityLabel.setText(active.name + " (" + (int)remaining + "s)");
+            if (activeAbilityText.changed(active, (int) remaining)) {
+                activeAbilityLabel.setText(activeAbilityText.append(active.name)
+                    .append(" (").append((int) remaining).append("s)").text());
+            }
             activeAbilityBar.setRange(0f, active.duration);
             activeAbilityBar.setValue(remaining);
         } else {
             activeAbilityGroup.setVisible(false);
         }
 
-        // Auto-rain based on rps (rainfall per second) in GameData.java
-        if (gameData.rps > 0) {
-            autoRainAccumulator += gameData.rps * delta;
-            while (autoRainAccumulator >= 1f) {
-                autoRainAccumulator -= 1f;
-                int drops = upgrades.abilities.isHurricaneActive()
-                    ? gameData.rainMultiplier * 2
-                    : gameData.rainMultiplier;
-                for (int i = 0; i < drops; i++) {
-                    float xOffset = i * 20f; // second drop spawns 20px to the right
-                    rain.add(new Rain(cloud.getX() + xOffset, cloud.getY(), gameData.fallSpeed));
-                }
-            }
-        }
+        incomeGraph.show(frame.income);
 
-        // Condensation upgrade passively generates income
-        if (gameData.cps > 0) {
-            condensationAccumulator += gameData.cps * delta;
-            while (condensationAccumulator >= 1f) {
-                condensationAccumulator -= 1f;
-                gameData.currency++;
-                updateCurrencyDisplay();
-                if ("econ".equals(activePopupType) || "prestige".equals(activePopupType)) refreshActivePopup();
+        // Income changed (purchase, ability, prestige), so the projections on the open upgrade popup are stale.
+        // Currency changes only move the time-to-afford, so those are picked up at most twice a second
+        projectionTimer += delta;
+        boolean incomeChanged = projection.update();
+        if (isUpgradePopup(activePopupType)) {
+            if (incomeChanged || (projectionTimer >= 0.5f && view.currency != projectedCurrency)) {
+                refreshActivePopup();
             }
         }
-
-        updateRainfall(delta);
+        if (projectionTimer >= 0.5f || incomeChanged) {
+            projectionTimer   = 0f;
+            projectedCurrency = view.currency;
+        }
 
         // Constantly refreshes the ability popup screen so that the timers update
         if ("ult".equals(activePopupType)) refreshActivePopup();
 
         batch.begin();
-        for (Rain drop : rain) {
-            batch.draw(rainTexture, drop.x, drop.y);
+        for (int i = 0; i < frame.drops; i++) {
+            batch.draw(rainTexture, frame.dropX[i], frame.dropY[i]);
         }
 
         batch.draw(bowlTexture, bowlX, bowlY, BOWL_WIDTH, BOWL_HEIGHT);
 
         batch.end();
-    }
 
-    // Updates the rainfall array and keeps track of collected rainfall
-    private void updateRainfall(float delta) {
-        for (int i = rain.size - 1; i >= 0; i--) {
-            Rain drop = rain.get(i);
-            drop.y -= drop.speed * delta;
+        if (debugLabel != null) updateDebugHud(delta);
 
-            if (drop.y < 0) {
-                rain.removeIndex(i);
-                if (tutorial != null) tutorial.onFirstDropLanded();
-                collectDrop();
-            }
+        // Launch -> first interactive frame, measured from Storm.create()
+        if (!firstFrameReported) {
+            firstFrameReported = true;
+            Gdx.app.log("Storm", "First interactive frame after "
+                + TimeUtils.nanosToMillis(TimeUtils.timeSinceNanos(game.launchTimeNanos)) + " ms");
         }
     }
 
-    // Helper function for collecting rainfall in the bowl
-    private void collectDrop() {
-        dropsCollected++;
-        fillBar.setValue(dropsCollected);
+    // Rain, auto rain, condensation and the active ability's timer, in fixed ticks so a replay of the command log
+    // reaches the same state. Returns what to draw this frame
+    private RenderFrame stepSimulation(float delta) {
+        if (simThread != null) {
+            simThread.frames().update();
+            RenderFrame frame = simThread.frames().front();
+            // A purchase shows up here a frame after its command ran, so the rows are refreshed again once it has
+            if (syncView(frame)) refreshActivePopup();
+            return frame;
+        }
+
+        simAccumulator += Math.min(delta, MAX_SIM_FRAME);
+        while (simAccumulator >= Simulation.TICK) {
+            simAccumulator -= Simulation.TICK;
+            sim.step();
+        }
 
-        if (dropsCollected >= gameData.dropsToFill) {
-            dropsCollected = 0;
-            fillBar.setValue(0f);
-            gameData.currency += gameData.currencyGained;
-            updateCurrencyDisplay();
-            if (tutorial != null) tutorial.onFirstConversion();
-            // Refresh popup affordability after earning currency
-            if("rain".equals(activePopupType) || "econ".equals(activePopupType) || "prestige".equals(activePopupType)) refreshActivePopup();
+        // All of this frame's statistics are in, check them against the achievements once
+        gameData.stats.flush(showAchievement);
+        gameData.income.tick(delta, gameData.stats.get(Statistics.CURRENCY_EARNED));
+        inlineFrame.capture(sim, gameData, upgrades);
+        return inlineFrame;
+    }
+
+    // Brings view and viewUpgrades up to the frame the simulation thread published. Trees only change, and the
+    // unlocks are only rebuilt, when a purchase or prestige moved them. Returns true if they did
+    private boolean syncView(RenderFrame frame) {
+        int prestigeLevel = view.prestigeLevel;
+        view.copyFrom(frame.data);
+        viewClock = frame.clock;
+        viewUpgrades.abilities.mirror(frame.activeAbility != null ? frame.activeAbility.id : null,
+            frame.activeRemaining, frame.cooldownIds, frame.cooldownTimes, frame.cooldowns);
+
+        List<UpgradeTree> trees = viewUpgrades.getAllTrees();
+        if (frame.purchased.length != trees.size()) return false; // Definitions reloaded, catches up shortly
+        boolean changed = view.prestigeLevel != prestigeLevel;
+        for (int t = 0; t < trees.size(); t++) {
+            if (trees.get(t).purchasedCount() == frame.purchased[t]) continue;
+            trees.get(t).restorePurchased(frame.purchased[t]);
+            changed = true;
         }
+        if (changed) viewUpgrades.rebuildUnlocks(view);
+        return changed;
+    }
+
+    // Refreshes the live resource list twice a second, pinned to the top left corner under the income graph
+    private void updateDebugHud(float delta) {
+        debugTimer += delta;
+        if (debugTimer < 0.5f) return;
+        debugTimer = 0f;
+        debugLabel.setText(ResourceTracker.summary() + "\n" + game.backgroundServices.summary());
+        debugLabel.setSize(debugLabel.getPrefWidth(), debugLabel.getPrefHeight());
+        debugLabel.setPosition(8f, incomeGraph.getY() - debugLabel.getPrefHeight() - 8f);
+        debugLabel.toFront();
+    }
+
+    // Slides a short "Achievement unlocked" banner in under the currency display, then fades it out
+    private void showAchievement(Achievement achievement) {
+        Gdx.app.log("GameScreen", "Achievement unlocked: " + achievement.id);
+        Label banner = new Label("Achievement unlocked: " + achievement.name + "\n" + achievement.description,
+            new Label.LabelStyle(Fonts.get(1.1f), new Color(0.9f, 0.85f, 0.3f, 1f)));
+        banner.setAlignment(Align.center);
+        banner.setTouchable(Touchable.disabled);
+        banner.setSize(banner.getPrefWidth(), banner.getPrefHeight());
+        banner.setPosition((stageWidth - banner.getWidth()) / 2f,
+            stageHeight - currencyLabel.getPrefHeight() - banner.getHeight() - 110f);
+        banner.getColor().a = 0f;
+        banner.addAction(Actions.sequence(
+            Actions.fadeIn(0.3f),
+            Actions.delay(3f),
+            Actions.fadeOut(0.6f),
+            Actions.removeActor()));
+        stage.addActor(banner);
     }
 
     @Override public void resize(int width, int height) {
         stage.getViewport().update(width, height, true);
+        stageWidth  = stage.getWidth();
+        stageHeight = stage.getHeight();
+        layoutPopups();
+    }
+
+    // Re-centers every popup and menu on the resized stage. Whichever one is open stays open
+    private void layoutPopups() {
+        for (Group popup : popupCache.values()) centerOnStage(popup);
+        if (pauseMenu != null) centerOnStage(pauseMenu);
+        if (exitConfirm != null) centerOnStage(exitConfirm);
+    }
+
+    private void centerOnStage(Group popup) {
+        popup.setPosition((stageWidth / 2f) - (popup.getWidth() / 2f), (stageHeight / 2f) - (popup.getHeight() / 2f));
     }
     @Override public void pause() { }
     @Override public void resume() { }
@@ -1062,28 +1351,26 @@ public class GameScreen implements Screen {
 
     @Override
     public void dispose() {
-        // Save game on close
-        SaveManager.save(gameData, upgrades);
+        // Hands GameData back to this thread, after running any queued commands. Throws if the thread won't stop,
+        // so nothing below saves or disposes state it is still ticking. The last save and mapped state remain
+        if (simThread != null) simThread.stop();
+
+        // Save game on close. The write runs in the background, closing the services waits for it.
+        // Published first, so the mapped state also has whatever the last commands changed
+        sim.publish();
+        if (mappedState != null) mappedState.writeLatest();
+        if (recorder != null) recorder.close(sim.tick, CommandLog.stateHash(gameData, upgrades));
+        SaveManager.save(gameData, upgrades, services);
+        services.close(SERVICES_DEADLINE_MS);
+        if (mappedState != null) mappedState.close();
         batch.dispose();
         stage.dispose();
-        rainTexture.dispose();
-        bowlTexture.dispose();
-        currencyTexture.dispose();
-        rainButtonTexture.dispose();
-        autoButtonTexture.dispose();
-        econButtonTexture.dispose();
-        abilitiesButtonTexture.dispose();
-        prestigeButtonTexture.dispose();
-        notUnlockedTexture.dispose();
-        popupBgTexture.dispose();
-        rowTexture.dispose();
-        rowLockedTexture.dispose();
-        rowPurchasedTexture.dispose();
-        buyButtonTexture.dispose();
-        buyButtonDisabledTexture.dispose();
-        // Dispose all cloud textures
-        for (Texture t : cloudTextures) t.dispose();
-        overlayTexture.dispose();
+        // File textures belong to Storm's AssetManager, only the generated ones are disposed here
+        for (Texture t : colorTextures.values()) ResourceTracker.dispose(t);
+        colorTextures.clear();
+        clouds.dispose();
         if (tutorial != null) tutorial.dispose();
+        // Fonts are shared for the whole session, so anything besides them left here is a leak
+        ResourceTracker.logLive("GameScreen");
     }
 }
@@ -0,0 +1,82 @@
+package com.stormidle.screens;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.Touchable;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.stormidle.stats.IncomeSeries;
+
+/**
+ * Small HUD panel with the current income rate, the last minute/hour/day averages and a bar graph of
+ * the last minute. Draws from its own copy of an IncomeSeries, taken by {@link #show} when a new
+ * per-second sample arrived, so the series itself can be fed on another thread.
+ */
+public class IncomeGraph extends Group {
+
+    private static final float GRAPH_W = 180f;
+    private static final float GRAPH_H = 36f;
+    private static final float BAR_W   = GRAPH_W / IncomeSeries.SECONDS;
+
+    private final IncomeSeries series = new IncomeSeries();
+    private final Texture pixel; // 1x1 white, tinted per bar
+    private final Label label;
+    private final NumberText text = new NumberText();
+    private final Color barColor = new Color(0.4f, 0.75f, 1f, 0.8f);
+    private final Color backColor = new Color(0f, 0f, 0f, 0.35f);
+    private final Color batchColor = new Color();
+
+    public IncomeGraph(IncomeSeries series, Texture pixel, BitmapFont font) {
+        this.pixel = pixel;
+        setTouchable(Touchable.disabled);
+
+        label = new Label("", new Label.LabelStyle(font, Color.LIGHT_GRAY));
+        label.setPosition(0f, GRAPH_H + 4f);
+        addActor(label);
+        this.series.copyFrom(series);
+        refresh();
+    }
+
+    // Call once per frame with the latest series. Copies it and rebuilds the text only if it has a new sample
+    public void show(IncomeSeries latest) {
+        if (latest.samples() == series.samples()) return;
+        series.copyFrom(latest);
+        refresh();
+    }
+
+    private void refresh() {
+        text.clear()
+            .appendShort(series.rate(), 1).append("/s   1m ")
+            .appendShort(series.lastMinute(), 1).append("   1h ")
+            .appendShort(series.lastHour(), 1).append("   1d ")
+            .appendShort(series.lastDay(), 1);
+        label.setText(text.text());
+        label.setSize(label.getPrefWidth(), label.getPrefHeight());
+        setSize(Math.max(GRAPH_W, label.getWidth()), GRAPH_H + 4f + label.getHeight());
+    }
+
+    @Override
+    public void draw(Batch batch, float parentAlpha) {
+        batchColor.set(batch.getColor());
+
+        batch.setColor(backColor.r, backColor.g, backColor.b, backColor.a * parentAlpha);
+        batch.draw(pixel, getX(), getY(), GRAPH_W, GRAPH_H);
+
+        int samples = series.secondSamples();
+        float peak = 0f;
+        for (int age = 0; age < samples; age++) peak = Math.max(peak, series.secondSample(age));
+        if (peak > 0f) {
+            batch.setColor(barColor.r, barColor.g, barColor.b, barColor.a * parentAlpha);
+            for (int age = 0; age < samples; age++) {
+                float h = series.secondSample(age) / peak * GRAPH_H;
+                // Newest sample on the right
+                batch.draw(pixel, getX() + GRAPH_W - (age + 1) * BAR_W, getY(), BAR_W - 1f, h);
+            }
+        }
+        batch.setColor(batchColor);
+
+        super.draw(batch, parentAlpha);
+    }
+}
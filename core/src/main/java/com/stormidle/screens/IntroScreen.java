@@ -5,6 +5,7 @@ import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.stormidle.assets.AssetManifest;
 
 public class IntroScreen implements Screen {
 
@@ -34,9 +35,9 @@ public class IntroScreen implements Screen {
     public void show() {
         batch = new SpriteBatch();
 
-        // TODO: swap to AssetManager later
-        libgdxLogo = new Texture("libgdx_logo.png");
-        hexLogo = new Texture("hex_gaming_logo.png");
+        // Logos are already resident, Storm loads them before the rest of the manifest is queued
+        libgdxLogo = game.assets.get(AssetManifest.LIBGDX_LOGO, Texture.class);
+        hexLogo = game.assets.get(AssetManifest.HEX_LOGO, Texture.class);
 
         elapsed = 0f;
         alpha = 0f;
@@ -46,6 +47,10 @@ public class IntroScreen implements Screen {
     @Override
     public void render(float delta) {
 
+        // Stream the rest of the assets in while the logos animate
+        boolean assetsLoaded = game.assets.update();
+        game.startMusic();
+
         elapsed += delta;
         float introEnd = (2f * FADE_IN_TIME) + (2f * FADE_OUT_TIME) + 1f;
 
@@ -78,9 +83,10 @@ public class IntroScreen implements Screen {
         batch.setColor(1f,1f,1f,1f);
         batch.end();
 
-        // TODO: Switch screens when animation is done
-        if (elapsed > introEnd) {
+        // Switch screens when animation is done and every asset GameScreen needs is resident
+        if (elapsed > introEnd && assetsLoaded) {
             game.setScreen(new GameScreen(game));
+            dispose();
         }
 
 
@@ -125,6 +131,8 @@ public class IntroScreen implements Screen {
     public void dispose() {
         // Cleanup
         batch.dispose();
-        hexLogo.dispose();
+        // Logos are never shown again, so give their memory back
+        game.assets.unload(AssetManifest.LIBGDX_LOGO);
+        game.assets.unload(AssetManifest.HEX_LOGO);
     }
 }
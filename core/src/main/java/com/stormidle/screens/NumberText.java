@@ -0,0 +1,159 @@
+package com.stormidle.screens;
+
+import com.badlogic.gdx.utils.CharArray;
+
+/**
+ * Reusable text buffer for labels that show numbers. Numbers are written straight into a CharArray,
+ * which Label.setText copies without creating Strings. The buffer remembers the key it was last
+ * written for, so callers can skip rebuilding text that hasn't changed.
+ *
+ * Short numbers: below 10,000 they are written in full. Above that they get a suffix and three
+ * significant digits (12.3K, 456M, 7.89B, 1.23T), and past the trillions scientific notation (4.56e15).
+ */
+public class NumberText {
+
+    private static final char[] SUFFIXES = {'K', 'M', 'B', 'T'};
+    private static final double FULL_BELOW = 10_000;
+    private static final double SCIENTIFIC_FROM = 1e15;
+
+    private final CharArray text = new CharArray(32);
+    private Object lastOwner;
+    private long lastA;
+    private long lastB;
+    private boolean written;
+
+    // True if value differs from the last call, in which case the buffer is cleared for the new text.
+    // False means the text is still current and nothing needs to be done
+    public boolean changed(long value) {
+        return changed(null, value, 0);
+    }
+
+    public boolean changed(long a, long b) {
+        return changed(null, a, b);
+    }
+
+    // owner is compared by reference, e.g. the ability a timer belongs to
+    public boolean changed(Object owner, long value) {
+        return changed(owner, value, 0);
+    }
+
+    private boolean changed(Object owner, long a, long b) {
+        if (written && owner == lastOwner && a == lastA && b == lastB) return false;
+        written   = true;
+        lastOwner = owner;
+        lastA     = a;
+        lastB     = b;
+        text.clear();
+        return true;
+    }
+
+    // Clears the buffer for text that isn't keyed on a value
+    public NumberText clear() {
+        written = false;
+        text.clear();
+        return this;
+    }
+
+    public CharArray text() {
+        return text;
+    }
+
+    public boolean isEmpty() {
+        return text.size == 0;
+    }
+
+    public NumberText append(String s) {
+        text.append(s);
+        return this;
+    }
+
+    public NumberText append(long value) {
+        text.append(value);
+        return this;
+    }
+
+    // Whole number, abbreviated once it gets large
+    public NumberText appendShort(long value) {
+        if (Math.abs(value) < FULL_BELOW) {
+            text.append(value);
+            return this;
+        }
+        return appendLarge(value);
+    }
+
+    // Fractional number with the given decimals while small, abbreviated once it gets large
+    public NumberText appendShort(double value, int decimals) {
+        if (Math.abs(value) < FULL_BELOW) return appendFixed(value, decimals);
+        return appendLarge(value);
+    }
+
+    // "45s", "12m 5s", "3h 20m", "4d 6h"
+    public NumberText appendDuration(double seconds) {
+        long s = (long) Math.ceil(seconds);
+        if (s < 60) {
+            text.append(s).append('s');
+        } else if (s < 3600) {
+            text.append(s / 60).append("m ").append(s % 60).append('s');
+        } else if (s < 86400) {
+            text.append(s / 3600).append("h ").append(s % 3600 / 60).append('m');
+        } else {
+            text.append(s / 86400).append("d ").append(s % 86400 / 3600).append('h');
+        }
+        return this;
+    }
+
+    // "m:ss", e.g. a cooldown
+    public NumberText appendClock(int seconds) {
+        text.append(seconds / 60).append(':').append(seconds % 60, 2, '0');
+        return this;
+    }
+
+    private NumberText appendLarge(double value) {
+        if (value < 0) {
+            text.append('-');
+            value = -value;
+        }
+
+        if (value < SCIENTIFIC_FROM) {
+            int group = -1;
+            do {
+                value /= 1000;
+                group++;
+            } while (value >= 999.5 && group < SUFFIXES.length - 1);
+            if (value < 999.5) {
+                appendSignificant(value);
+                text.append(SUFFIXES[group]);
+                return this;
+            }
+            value *= Math.pow(1000, group + 1); // Rounds up past the last suffix
+        }
+
+        int exponent = (int) Math.floor(Math.log10(value));
+        double mantissa = value / Math.pow(10, exponent);
+        if (mantissa >= 9.995) {
+            mantissa /= 10;
+            exponent++;
+        }
+        appendFixed(mantissa, 2);
+        text.append('e').append(exponent);
+        return this;
+    }
+
+    // Three significant digits for 1 <= value < 999.5
+    private void appendSignificant(double value) {
+        appendFixed(value, value < 9.995 ? 2 : value < 99.95 ? 1 : 0);
+    }
+
+    private NumberText appendFixed(double value, int decimals) {
+        if (value < 0) {
+            text.append('-');
+            value = -value;
+        }
+        long scale = 1;
+        for (int i = 0; i < decimals; i++) scale *= 10;
+        long scaled = Math.round(value * scale);
+        text.append(scaled / scale);
+        if (decimals > 0) text.append('.').append(scaled % scale, decimals, '0');
+        return this;
+    }
+}
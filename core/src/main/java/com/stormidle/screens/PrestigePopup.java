@@ -10,8 +10,9 @@ import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.ProgressBar;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.graphics.Texture;
+import com.stormidle.assets.Fonts;
 import com.stormidle.objects.GameData;
-import com.stormidle.upgrades.PrestigeManager;
+import com.stormidle.upgrades.UpgradeManager;
 
 import static com.stormidle.screens.GameScreen.*;
 
@@ -26,6 +27,7 @@ public class PrestigePopup extends Group implements Refreshable {
     }
 
     private final GameData gameData;
+    private final UpgradeManager upgrades; // Thresholds are read through upgrades.prestige, which a reload replaces
     private final PrestigeCallback callback;
 
     // Mutable widgets
@@ -35,17 +37,23 @@ public class PrestigePopup extends Group implements Refreshable {
     private final ProgressBar progressBar;
     private final Image  prestigeBtn;
     private final Label  prestigeBtnLabel;
+    private final NumberText levelText     = new NumberText();
+    private final NumberText thresholdText = new NumberText();
+    private final NumberText progressText  = new NumberText();
 
     // Textures for button enabled/disabled states
     private final Texture buyBtnTex;
     private final Texture buyBtnDisabledTex;
 
     public PrestigePopup(GameData gameData,
+                         UpgradeManager upgrades,
                          Texture popupBgTex,
                          Texture buyBtnTex,
                          Texture buyBtnDisabledTex,
+                         ProgressBar.ProgressBarStyle barStyle,
                          PrestigeCallback callback) {
         this.gameData          = gameData;
+        this.upgrades          = upgrades;
         this.buyBtnTex         = buyBtnTex;
         this.buyBtnDisabledTex = buyBtnDisabledTex;
         this.callback          = callback;
@@ -58,14 +66,13 @@ public class PrestigePopup extends Group implements Refreshable {
         addActor(bg);
 
         // Title
-        BitmapFont titleFont = new BitmapFont();
-        titleFont.getData().setScale(1.5f);
+        BitmapFont titleFont = Fonts.get(1.5f);
         Label title = new Label("Cloud Prestige", new Label.LabelStyle(titleFont, Color.WHITE));
         title.setPosition(10f, POPUP_HEIGHT - 30f);
         addActor(title);
 
         // Close button
-        BitmapFont closeFont = new BitmapFont();
+        BitmapFont closeFont = Fonts.get();
         Label closeBtn = new Label("[X]", new Label.LabelStyle(closeFont, Color.RED));
         closeBtn.setPosition(POPUP_WIDTH - 30f, POPUP_HEIGHT - 25f);
         closeBtn.addListener(new ClickListener() {
@@ -79,15 +86,14 @@ public class PrestigePopup extends Group implements Refreshable {
         float y = POPUP_HEIGHT - 90f;
 
         // Current level label
-        BitmapFont levelFont = new BitmapFont();
-        levelFont.getData().setScale(1.3f);
+        BitmapFont levelFont = Fonts.get(1.3f);
         levelLabel = new Label("", new Label.LabelStyle(levelFont, new Color(0.4f, 0.9f, 1f, 1f)));
         addActor(levelLabel);
 
         y -= 60f;
 
         // Bonus description
-        BitmapFont descFont = new BitmapFont();
+        BitmapFont descFont = Fonts.get();
         Label bonusLabel = new Label("Each prestige doubles drops per click\nand upgrades your cloud.",
             new Label.LabelStyle(descFont, Color.LIGHT_GRAY));
         bonusLabel.setPosition(centerX - bonusLabel.getPrefWidth() / 2f, y);
@@ -96,20 +102,20 @@ public class PrestigePopup extends Group implements Refreshable {
         y -= 70f;
 
         // "Next prestige requires:" label
-        BitmapFont subFont = new BitmapFont();
+        BitmapFont subFont = Fonts.get();
         thresholdLabel = new Label("", new Label.LabelStyle(subFont, Color.LIGHT_GRAY));
         addActor(thresholdLabel);
 
         y -= 30f;
 
         // Progress label (current / required)
-        progressLabel = new Label("", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
+        progressLabel = new Label("", new Label.LabelStyle(Fonts.get(), Color.WHITE));
         addActor(progressLabel);
 
         y -= 24f;
 
         // Progress bar
-        progressBar = new ProgressBar(0f, 1f, 0.001f, false, createBarStyle());
+        progressBar = new ProgressBar(0f, 1f, 0.001f, false, barStyle);
         progressBar.setSize(POPUP_WIDTH - 40f, 18f);
         progressBar.setPosition(20f, y);
         addActor(progressBar);
@@ -122,13 +128,13 @@ public class PrestigePopup extends Group implements Refreshable {
         prestigeBtn.setPosition(centerX - 80f, y);
         addActor(prestigeBtn);
 
-        prestigeBtnLabel = new Label("PRESTIGE", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
+        prestigeBtnLabel = new Label("PRESTIGE", new Label.LabelStyle(Fonts.get(), Color.WHITE));
         prestigeBtnLabel.setTouchable(Touchable.disabled);
         addActor(prestigeBtnLabel);
 
         prestigeBtn.addListener(new ClickListener() {
             @Override public void clicked(InputEvent e, float x, float y) {
-                if (PrestigeManager.canPrestige(gameData.prestigeLevel, gameData.currency)) {
+                if (upgrades.prestige.canPrestige(gameData.prestigeLevel, gameData.currency)) {
                     callback.onPrestige();
                 }
             }
@@ -141,30 +147,37 @@ public class PrestigePopup extends Group implements Refreshable {
     @Override
     public void refresh() {
         int level     = gameData.prestigeLevel;
-        int threshold = PrestigeManager.nextThreshold(level);
+        int threshold = upgrades.prestige.nextThreshold(level);
         boolean maxed = threshold == -1;
-        boolean can   = PrestigeManager.canPrestige(level, gameData.currency);
+        boolean can   = upgrades.prestige.canPrestige(level, gameData.currency);
 
         // Level label
-        levelLabel.setText("Cloud Level " + (level + 1));
+        if (levelText.changed(level)) levelLabel.setText(levelText.append("Cloud Level ").append(level + 1).text());
         levelLabel.setPosition(POPUP_WIDTH / 2f - levelLabel.getPrefWidth() / 2f, POPUP_HEIGHT - 90f);
 
         if (maxed) {
+            thresholdText.clear();
             thresholdLabel.setText("Maximum prestige reached!");
             thresholdLabel.setPosition(POPUP_WIDTH / 2f - thresholdLabel.getPrefWidth() / 2f,
                 POPUP_HEIGHT - 210f);
+            progressText.clear();
             progressLabel.setText("");
             progressBar.setValue(1f);
             prestigeBtn.setDrawable(new com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable(
                 new com.badlogic.gdx.graphics.g2d.TextureRegion(buyBtnDisabledTex)));
             prestigeBtnLabel.setText("MAXED");
         } else {
-            thresholdLabel.setText("Next prestige requires: " + threshold + " currency");
+            if (thresholdText.changed(threshold)) {
+                thresholdLabel.setText(thresholdText.append("Next prestige requires: ")
+                    .appendShort(threshold).append(" currency").text());
+            }
             thresholdLabel.setPosition(POPUP_WIDTH / 2f - thresholdLabel.getPrefWidth() / 2f,
                 POPUP_HEIGHT - 210f);
 
             int cur = gameData.currency;
-            progressLabel.setText(cur + " / " + threshold);
+            if (progressText.changed(cur, threshold)) {
+                progressLabel.setText(progressText.appendShort(cur).append(" / ").appendShort(threshold).text());
+            }
             progressLabel.setPosition(POPUP_WIDTH / 2f - progressLabel.getPrefWidth() / 2f,
                 POPUP_HEIGHT - 240f);
 
@@ -185,32 +198,4 @@ public class PrestigePopup extends Group implements Refreshable {
             btnX + (160f / 2f) - prestigeBtnLabel.getPrefWidth()  / 2f,
             btnY + (44f  / 2f) - prestigeBtnLabel.getPrefHeight() / 2f);
     }
-
-    private ProgressBar.ProgressBarStyle createBarStyle() {
-        com.badlogic.gdx.graphics.Pixmap bg = new com.badlogic.gdx.graphics.Pixmap(1, 1,
-            com.badlogic.gdx.graphics.Pixmap.Format.RGBA8888);
-        bg.setColor(0.2f, 0.2f, 0.3f, 1f); bg.fill();
-        com.badlogic.gdx.graphics.Pixmap fill = new com.badlogic.gdx.graphics.Pixmap(1, 1,
-            com.badlogic.gdx.graphics.Pixmap.Format.RGBA8888);
-        fill.setColor(0.4f, 0.8f, 0.3f, 1f); fill.fill();
-        com.badlogic.gdx.graphics.Pixmap knob = new com.badlogic.gdx.graphics.Pixmap(1, 1,
-            com.badlogic.gdx.graphics.Pixmap.Format.RGBA8888);
-        knob.setColor(0f, 0f, 0f, 0f); knob.fill();
-
-        com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable bgD =
-            new com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable(
-                new com.badlogic.gdx.graphics.g2d.TextureRegion(new Texture(bg)));
-        com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable fillD =
-            new com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable(
-                new com.badlogic.gdx.graphics.g2d.TextureRegion(new Texture(fill)));
-        com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable knobD =
-            new com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable(
-                new com.badlogic.gdx.graphics.g2d.TextureRegion(new Texture(knob)));
-
-        bg.dispose(); fill.dispose(); knob.dispose();
-
-        ProgressBar.ProgressBarStyle style = new ProgressBar.ProgressBarStyle(bgD, knobD);
-        style.knobBefore = fillD;
-        return style;
-    }
 }
@@ -7,6 +7,7 @@ import com.badlogic.gdx.scenes.scene2d.actions.Actions;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.graphics.Texture;
+import com.stormidle.assets.Fonts;
 
 /**
  * Plays the prestige transition:
@@ -41,8 +42,7 @@ public class PrestigeTransition {
         stage.addActor(overlay);
 
         // "Cloud Level X" label — starts invisible
-        BitmapFont font = new BitmapFont();
-        font.getData().setScale(2.5f);
+        BitmapFont font = Fonts.get(2.5f);
         Label levelLabel = new Label("Cloud Level " + newLevel,
             new Label.LabelStyle(font, Color.WHITE));
         levelLabel.setPosition(
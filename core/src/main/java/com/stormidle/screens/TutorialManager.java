@@ -12,6 +12,8 @@ import com.badlogic.gdx.scenes.scene2d.actions.Actions;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
+import com.stormidle.assets.Fonts;
+import com.stormidle.assets.ResourceTracker;
 
 public class TutorialManager {
 
@@ -44,7 +46,7 @@ public class TutorialManager {
         Pixmap pm = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
         pm.setColor(0.1f, 0.1f, 0.18f, 0.97f);
         pm.fill();
-        tooltipTex = new Texture(pm);
+        tooltipTex = ResourceTracker.track(new Texture(pm));
         pm.dispose();
     }
 
@@ -106,7 +108,7 @@ public class TutorialManager {
         overlay.addActor(tooltipBg);
 
         // Message
-        BitmapFont msgFont = new BitmapFont();
+        BitmapFont msgFont = Fonts.get();
         Label msg = new Label(messageFor(step), new Label.LabelStyle(msgFont, Color.WHITE));
         msg.setWrap(true);
         msg.setWidth(TOOLTIP_W - 20f);
@@ -116,7 +118,7 @@ public class TutorialManager {
 
         // Skip button
         Label skipBtn = new Label("[Skip tutorial]",
-            new Label.LabelStyle(new BitmapFont(), new Color(0.55f, 0.55f, 0.55f, 1f)));
+            new Label.LabelStyle(Fonts.get(), new Color(0.55f, 0.55f, 0.55f, 1f)));
         skipBtn.setPosition(tooltipX + TOOLTIP_W - skipBtn.getPrefWidth() - 8f, tooltipY + 8f);
         skipBtn.addListener(new ClickListener() {
             @Override public void clicked(InputEvent e, float x, float y) { finish(); }
@@ -127,7 +129,7 @@ public class TutorialManager {
         if (step >= 4) {
             String btnText = (step == 8) ? "Let's go!" : "Next";
             Label nextBtn = new Label(btnText,
-                new Label.LabelStyle(new BitmapFont(), new Color(0.3f, 0.85f, 0.4f, 1f)));
+                new Label.LabelStyle(Fonts.get(), new Color(0.3f, 0.85f, 0.4f, 1f)));
             nextBtn.setPosition(tooltipX + 10f, tooltipY + 8f);
             nextBtn.addListener(new ClickListener() {
                 @Override public void clicked(InputEvent e, float x, float y) { advance(); }
@@ -158,6 +160,6 @@ public class TutorialManager {
     }
 
     public void dispose() {
-        if (tooltipTex != null) tooltipTex.dispose();
+        if (tooltipTex != null) ResourceTracker.dispose(tooltipTex);
     }
 }
@@ -3,14 +3,18 @@ package com.stormidle.screens;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Touchable;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.utils.Array;
+import com.stormidle.assets.Fonts;
 import com.stormidle.objects.GameData;
+import com.stormidle.upgrades.IncomeProjection;
 import com.stormidle.upgrades.UpgradeTier;
+import com.stormidle.upgrades.UpgradeTree;
 
 import static com.stormidle.screens.GameScreen.*;
 
@@ -21,10 +25,22 @@ import static com.stormidle.screens.GameScreen.*;
  */
 public class UpgradeRow extends com.badlogic.gdx.scenes.scene2d.Group implements Refreshable {
 
-    // Data references — never change, safe to hold
-    private final Array<UpgradeTier> tree;
-    private final int index;
+    // How many tiers the x10 button buys
+    private static final int BULK_COUNT = 10;
+    private static final String[] BULK_LABELS = new String[BULK_COUNT + 1]; // See bulkLabel()
+
+    // Purchase count of the Max button: as many as the currency covers when the purchase runs
+    public static final int MAX = -1;
+
+    // Data references — tree/index change when VirtualUpgradeList recycles the row
+    private UpgradeTree tree;
+    private int index;
     private final GameData gameData;
+    private final IncomeProjection projection;
+
+    // Payback time for the current tier, reused until the income changes or the row is re-bound
+    private int paybackVersion = -1;
+    private double paybackSeconds;
 
     // Shared textures from GameScreen
     private final Texture rowTex;
@@ -33,9 +49,10 @@ public class UpgradeRow extends com.badlogic.gdx.scenes.scene2d.Group implements
     private final Texture buyBtnTex;
     private final Texture buyBtnDisabledTex;
 
-    // Callback so the row can tell GameScreen to update currency display etc.
+    // Rows don't buy anything themselves. GameScreen runs the purchase where the simulation runs, records it
+    // and updates the currency display etc. count is a number of tiers from index, all or nothing, or MAX
     public interface PurchaseCallback {
-        void onPurchased();
+        void onPurchase(UpgradeTree tree, int index, int count);
     }
     private final PurchaseCallback callback;
 
@@ -43,18 +60,20 @@ public class UpgradeRow extends com.badlogic.gdx.scenes.scene2d.Group implements
     private final Image rowBg;
     private final Label nameLabel;
     private final Label descLabel;
+    private final Label projectionLabel; // Time to afford and payback, top right
+    private final Label costLabel;       // Above the buttons, hidden unless the tier is buyable
+    private final NumberText costText = new NumberText();
+    private final NumberText projectionText = new NumberText();
 
     // Right-side widgets (swapped out on refresh)
-    private Image buyBtn;
-    private Label costLabel;
     private Label badgeLabel;   // "Purchased"
     private Label lockLabel;    // "Locked"
-    private Label btnLabel;     // "Buy"
+    private final Array<Actor> buttons = new Array<>(); // Buy / x10 / Max images and their labels
 
     private final float rowWidth;
     private final BitmapFont font;
 
-    public UpgradeRow(Array<UpgradeTier> tree, int index, GameData gameData,
+    public UpgradeRow(UpgradeTree tree, int index, GameData gameData, IncomeProjection projection,
                       float rowWidth, BitmapFont font,
                       Texture rowTex, Texture rowLockedTex, Texture rowPurchasedTex,
                       Texture buyBtnTex, Texture buyBtnDisabledTex,
@@ -62,6 +81,7 @@ public class UpgradeRow extends com.badlogic.gdx.scenes.scene2d.Group implements
         this.tree            = tree;
         this.index           = index;
         this.gameData        = gameData;
+        this.projection      = projection;
         this.rowWidth        = rowWidth;
         this.font            = font;
         this.rowTex          = rowTex;
@@ -84,21 +104,37 @@ public class UpgradeRow extends com.badlogic.gdx.scenes.scene2d.Group implements
         addActor(nameLabel);
 
         // Description label — text is fixed, color changes
-        BitmapFont descFont = new BitmapFont();
+        BitmapFont descFont = Fonts.get();
         descLabel = new Label("", new Label.LabelStyle(descFont, Color.LIGHT_GRAY));
         descLabel.setPosition(6f, 6f);
         addActor(descLabel);
 
+        // Projection label — text changes, hidden unless the tier is buyable
+        projectionLabel = new Label("", new Label.LabelStyle(Fonts.get(0.8f), new Color(0.6f, 0.85f, 1f, 1f)));
+        addActor(projectionLabel);
+
+        // Cost label — text only rebuilt when the cost changes
+        costLabel = new Label("", new Label.LabelStyle(Fonts.get(), Color.WHITE));
+        costLabel.setPosition(rowWidth - BTN_BUY_W - 6f, BTN_BUY_H + 10f);
+        addActor(costLabel);
+
         // Do a full refresh to set all initial state
         refresh();
     }
 
+    // Points this row at a different tier and redraws it. Used when rows are recycled while scrolling
+    public void bind(UpgradeTree tree, int index) {
+        this.tree  = tree;
+        this.index = index;
+        paybackVersion = -1;
+        refresh();
+    }
+
     @Override
     public void refresh() {
         UpgradeTier upgrade  = tree.get(index);
-        UpgradeTier previous = UpgradeTier.previous(tree, index);
         boolean purchased = upgrade.purchased;
-        boolean unlocked  = upgrade.isUnlocked(previous);
+        boolean unlocked  = tree.isUnlocked(index);
         boolean canAfford = gameData.currency >= upgrade.cost;
 
         // --- Background ---
@@ -115,12 +151,23 @@ public class UpgradeRow extends com.badlogic.gdx.scenes.scene2d.Group implements
         descLabel.setText(upgrade.getDescription());
         descLabel.setColor(unlocked ? Color.LIGHT_GRAY : Color.DARK_GRAY);
 
+        // --- Projection ---
+        projectionLabel.setVisible(unlocked && !purchased);
+        if (unlocked && !purchased) updateProjection(upgrade);
+
+        // --- Cost ---
+        costLabel.setVisible(unlocked && !purchased);
+        if (costText.changed(upgrade.cost)) {
+            costLabel.setText(costText.appendShort(upgrade.cost).append(" drops").text());
+        }
+        costLabel.setColor(canAfford ? COST_COLOR : Color.RED);
+
         // --- Remove old right-side widgets ---
         removeRightSide();
 
         // --- Add new right-side widget for current state ---
         if (purchased) {
-            badgeLabel = new Label("Purchased", new Label.LabelStyle(new BitmapFont(), Color.GREEN));
+            badgeLabel = new Label("Purchased", new Label.LabelStyle(Fonts.get(), Color.GREEN));
             badgeLabel.setPosition(
                 rowWidth - badgeLabel.getPrefWidth() - 6f,
                 (ROW_HEIGHT / 2f) - (badgeLabel.getPrefHeight() / 2f));
@@ -129,36 +176,19 @@ public class UpgradeRow extends com.badlogic.gdx.scenes.scene2d.Group implements
         } else if (unlocked) {
             float btnX = rowWidth - BTN_BUY_W - 6f;
 
-            costLabel = new Label(upgrade.cost + " drops",
-                new Label.LabelStyle(new BitmapFont(),
-                    canAfford ? new Color(0.9f, 0.85f, 0.3f, 1f) : Color.RED));
-            costLabel.setPosition(btnX, BTN_BUY_H + 10f);
-            addActor(costLabel);
-
-            buyBtn = new Image(canAfford ? buyBtnTex : buyBtnDisabledTex);
-            buyBtn.setSize(BTN_BUY_W, BTN_BUY_H);
-            buyBtn.setPosition(btnX, 6f);
-            addActor(buyBtn);
-
-            btnLabel = new Label("Buy", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
-            btnLabel.setPosition(
-                btnX + (BTN_BUY_W / 2f) - (btnLabel.getPrefWidth()  / 2f),
-                6f   + (BTN_BUY_H / 2f) - (btnLabel.getPrefHeight() / 2f));
-            btnLabel.setTouchable(Touchable.disabled);
-            addActor(btnLabel);
-
-            if (canAfford) {
-                buyBtn.addListener(new ClickListener() {
-                    @Override public void clicked(InputEvent event, float x, float y) {
-                        if (gameData.currency < tree.get(index).cost) return;
-                        boolean bought = UpgradeTier.tryPurchase(tree, index, gameData);
-                        if (bought) callback.onPurchased();
-                    }
-                });
-            }
+            addButton("Buy", btnX, BTN_BUY_W, canAfford, 1);
+
+            // Bulk buttons sit to the left of Buy. x10 is all or nothing, Max buys whatever is affordable.
+            // Near the end of a tree, or before a tier that is still locked, x10 becomes x<tiers it can buy>,
+            // and with only one it is disabled
+            int bulk = tree.buyableCount(index, BULK_COUNT);
+            float bulkX = btnX - BTN_BULK_W - 4f;
+            addButton(bulk > 1 ? bulkLabel(bulk) : bulkLabel(BULK_COUNT), bulkX, BTN_BULK_W,
+                bulk > 1 && gameData.currency >= tree.costOf(index, bulk), bulk);
+            addButton("Max", bulkX - BTN_BULK_W - 4f, BTN_BULK_W, canAfford, MAX);
 
         } else {
-            lockLabel = new Label("Locked", new Label.LabelStyle(new BitmapFont(), Color.DARK_GRAY));
+            lockLabel = new Label("Locked", new Label.LabelStyle(Fonts.get(), Color.DARK_GRAY));
             lockLabel.setPosition(
                 rowWidth - lockLabel.getPrefWidth() - 6f,
                 (ROW_HEIGHT / 2f) - (lockLabel.getPrefHeight() / 2f));
@@ -166,11 +196,64 @@ public class UpgradeRow extends com.badlogic.gdx.scenes.scene2d.Group implements
         }
     }
 
+    // "x2" .. "x10", built once each so refreshes don't allocate
+    private static String bulkLabel(int count) {
+        if (BULK_LABELS[count] == null) BULK_LABELS[count] = "x" + count;
+        return BULK_LABELS[count];
+    }
+
+    // Time until affordable at the current passive income, and how long the upgrade takes to pay itself back
+    private void updateProjection(UpgradeTier upgrade) {
+        if (paybackVersion != projection.version()) {
+            paybackVersion = projection.version();
+            paybackSeconds = projection.paybackSeconds(upgrade);
+        }
+
+        double toAfford = projection.secondsToAfford(upgrade.cost);
+        NumberText text = projectionText.clear();
+        if (toAfford == 0) text.append("Ready");
+        else if (!Double.isInfinite(toAfford)) text.append("In ").appendDuration(toAfford);
+        if (!Double.isInfinite(paybackSeconds)) {
+            if (!text.isEmpty()) text.append("  ");
+            text.append("Payback ").appendDuration(paybackSeconds);
+        }
+
+        projectionLabel.setText(text.text());
+        projectionLabel.setSize(projectionLabel.getPrefWidth(), projectionLabel.getPrefHeight());
+        projectionLabel.setPosition(
+            rowWidth - projectionLabel.getPrefWidth() - 6f,
+            ROW_HEIGHT - projectionLabel.getPrefHeight() - 4f);
+    }
+
+    /** Adds one purchase button along the bottom-right of the row. */
+    private void addButton(String text, float x, float width, boolean enabled, int count) {
+        Image btn = new Image(enabled ? buyBtnTex : buyBtnDisabledTex);
+        btn.setSize(width, BTN_BUY_H);
+        btn.setPosition(x, 6f);
+        addActor(btn);
+        buttons.add(btn);
+
+        Label label = new Label(text, new Label.LabelStyle(Fonts.get(), Color.WHITE));
+        label.setPosition(
+            x  + (width     / 2f) - (label.getPrefWidth()  / 2f),
+            6f + (BTN_BUY_H / 2f) - (label.getPrefHeight() / 2f));
+        label.setTouchable(Touchable.disabled);
+        addActor(label);
+        buttons.add(label);
+
+        if (enabled) {
+            btn.addListener(new ClickListener() {
+                @Override public void clicked(InputEvent event, float x, float y) {
+                    callback.onPurchase(tree, index, count);
+                }
+            });
+        }
+    }
+
     /** Removes whichever right-side actors are currently present. */
     private void removeRightSide() {
-        if (buyBtn     != null) { buyBtn.remove();     buyBtn     = null; }
-        if (costLabel  != null) { costLabel.remove();  costLabel  = null; }
-        if (btnLabel   != null) { btnLabel.remove();   btnLabel   = null; }
+        for (Actor actor : buttons) actor.remove();
+        buttons.clear();
         if (badgeLabel != null) { badgeLabel.remove(); badgeLabel = null; }
         if (lockLabel  != null) { lockLabel.remove();  lockLabel  = null; }
     }
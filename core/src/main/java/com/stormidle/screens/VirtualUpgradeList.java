@@ -0,0 +1,163 @@
+package com.stormidle.screens;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.ScrollPane;
+import com.badlogic.gdx.scenes.scene2d.ui.WidgetGroup;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.stormidle.upgrades.UpgradeTree;
+
+import static com.stormidle.screens.GameScreen.*;
+
+/**
+ * Scrollable list of upgrade trees that only keeps actors for the rows in view.
+ * Sits inside a ScrollPane and reports the full content height as its pref height, but creates
+ * UpgradeRows only for the visible tiers plus a small overscan. Rows that scroll out of view go
+ * back to a pool and get re-bound to whichever tier scrolls in, so the actor count stays the same
+ * however long the trees are.
+ */
+public class VirtualUpgradeList extends WidgetGroup implements Refreshable {
+
+    // Extra rows kept above and below the viewport so fast scrolling doesn't show gaps
+    private static final int OVERSCAN = 2;
+    private static final float ROW_STRIDE  = ROW_HEIGHT + ROW_PADDING;
+    private static final float SECTION_GAP = ROW_PADDING * 2f;
+
+    // Creates a new row actor. Rows are only created when the pool is empty
+    public interface RowFactory {
+        UpgradeRow create(UpgradeTree tree, int index);
+    }
+
+    private final UpgradeTree[] trees;
+    private final Label[] headers;
+    private final RowFactory factory;
+    private final float rowWidth;
+
+    // Offset from the top of the content to the first row of each section
+    private final FloatArray rowsTop = new FloatArray();
+    private float totalHeight;
+
+    // Visible rows keyed by (section << 20 | index), and rows waiting to be reused
+    private final IntMap<UpgradeRow> visible = new IntMap<>();
+    private final Array<UpgradeRow> pool = new Array<>();
+    private final IntMap<UpgradeRow> keep = new IntMap<>();
+
+    // Last window the rows were laid out for, so act() only does work when it moves
+    private float lastScrollY = -1f;
+    private float lastViewH = -1f;
+
+    public VirtualUpgradeList(String[] sectionNames, UpgradeTree[] trees,
+                              float rowWidth, BitmapFont headerFont, RowFactory factory) {
+        this.trees    = trees;
+        this.factory  = factory;
+        this.rowWidth = rowWidth;
+
+        headers = new Label[trees.length];
+        Label.LabelStyle headerStyle = new Label.LabelStyle(headerFont, new Color(0.6f, 0.85f, 1f, 1f));
+        for (int s = 0; s < trees.length; s++) {
+            headers[s] = new Label(sectionNames[s], headerStyle);
+            addActor(headers[s]);
+        }
+
+        measure();
+    }
+
+    // Works out where every section starts. Only depends on tree sizes, not on scroll position
+    private void measure() {
+        rowsTop.clear();
+        float y = 0f;
+        for (int s = 0; s < trees.length; s++) {
+            if (s > 0) y += SECTION_GAP;
+            y += ROW_PADDING + headers[s].getPrefHeight() + 4f;
+            rowsTop.add(y);
+            y += trees[s].size() * ROW_STRIDE;
+        }
+        totalHeight = y;
+    }
+
+    // Recycling rows adds and removes children constantly, but the size only depends on the trees,
+    // so don't let that invalidate the ScrollPane's layout
+    @Override protected void childrenChanged() { }
+
+    @Override public float getPrefWidth()  { return rowWidth; }
+    @Override public float getPrefHeight() { return totalHeight; }
+
+    @Override
+    public void layout() {
+        for (int s = 0; s < headers.length; s++) {
+            float top = rowsTop.get(s) - 4f - headers[s].getPrefHeight();
+            headers[s].setPosition(0f, getHeight() - top - headers[s].getPrefHeight());
+        }
+        lastScrollY = -1f; // Force rows to be re-positioned against the new height
+        updateVisibleRows();
+    }
+
+    @Override
+    public void act(float delta) {
+        super.act(delta);
+        updateVisibleRows();
+    }
+
+    // Binds row actors to exactly the tiers inside the viewport (+ overscan)
+    private void updateVisibleRows() {
+        float scrollY = 0f;
+        float viewH   = getHeight();
+        if (getParent() instanceof ScrollPane) {
+            ScrollPane pane = (ScrollPane) getParent();
+            scrollY = pane.getVisualScrollY();
+            viewH   = pane.getScrollHeight();
+        }
+        if (scrollY == lastScrollY && viewH == lastViewH) return;
+        lastScrollY = scrollY;
+        lastViewH   = viewH;
+
+        keep.clear();
+        for (int s = 0; s < trees.length; s++) {
+            int size = trees[s].size();
+            if (size == 0) continue;
+
+            // O(1) per section: the visible index range falls straight out of the row stride
+            float rel   = scrollY - rowsTop.get(s);
+            int   first = Math.max(0, (int) Math.floor(rel / ROW_STRIDE) - OVERSCAN);
+            int   last  = Math.min(size - 1, (int) Math.ceil((rel + viewH) / ROW_STRIDE) + OVERSCAN);
+
+            for (int i = first; i <= last; i++) {
+                int key = (s << 20) | i;
+                UpgradeRow row = visible.remove(key);
+                if (row == null) row = obtain(trees[s], i);
+                float top = rowsTop.get(s) + i * ROW_STRIDE;
+                row.setPosition(0f, getHeight() - top - ROW_HEIGHT);
+                keep.put(key, row);
+            }
+        }
+
+        // Whatever is left scrolled out of view
+        for (UpgradeRow row : visible.values()) {
+            row.remove();
+            pool.add(row);
+        }
+        visible.clear();
+        visible.putAll(keep);
+    }
+
+    private UpgradeRow obtain(UpgradeTree tree, int index) {
+        UpgradeRow row;
+        if (pool.size > 0) {
+            row = pool.pop();
+            row.bind(tree, index);
+        } else {
+            row = factory.create(tree, index);
+        }
+        addActor(row);
+        return row;
+    }
+
+    // Refreshes only the rows that currently exist, off-screen tiers are refreshed when bound
+    @Override
+    public void refresh() {
+        for (UpgradeRow row : visible.values()) row.refresh();
+    }
+}
@@ -0,0 +1,141 @@
+package com.stormidle.services;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Background work (save writes, state file syncs, the definitions watcher) runs here, each task on its own
+// virtual thread, so blocking I/O never holds up a frame.
+//
+// Work always belongs to a Scope, which belongs to whatever started it: Storm opens one for the whole game and
+// every screen opens its own in show() and closes it in dispose(). Closing a scope stops it taking tasks, waits
+// for the running ones up to a deadline and then interrupts what is left, so exit never hangs on a slow disk.
+// Storm shuts down in order: the screen's scope, then its own, then the executor.
+//
+// Metrics: tasks in flight and their peak, and how long each scope took to close. summary() is on the debug HUD.
+
+public class BackgroundServices {
+
+    private final ExecutorService executor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("storm-service-", 0).factory());
+    private final Array<Scope> scopes = new Array<>(); // Open scopes, in the order they were opened
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int peakInFlight;
+    private volatile String lastClosed = "-";
+    private volatile long lastCloseMillis;
+
+    // Render thread only
+    public Scope openScope(String name) {
+        Scope scope = new Scope(name);
+        scopes.add(scope);
+        return scope;
+    }
+
+    // Closes whatever scopes are still open, newest first, then the executor. Render thread only
+    public void shutdown(long deadlineMs) {
+        for (int i = scopes.size - 1; i >= 0; i--) scopes.get(i).close(deadlineMs);
+        executor.shutdownNow();
+    }
+
+    // Tasks submitted and not yet finished, across every scope
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public int peakInFlight() {
+        return peakInFlight;
+    }
+
+    public String summary() {
+        return "Services: " + inFlight.get() + " in flight (peak " + peakInFlight + "), last close "
+            + lastClosed + " " + lastCloseMillis + " ms";
+    }
+
+    // A group of tasks with one owner and one lifetime
+    public class Scope {
+
+        private final String name;
+        private final Set<Thread> running = ConcurrentHashMap.newKeySet();
+        private int active; // Guarded by this
+        private volatile boolean closed;
+
+        private Scope(String name) {
+            this.name = name;
+        }
+
+        // Any thread. Returns false, without running work, once the scope is closed
+        public boolean submit(String task, Runnable work) {
+            synchronized (this) {
+                if (closed) return false;
+                active++;
+            }
+            int now = inFlight.incrementAndGet();
+            if (now > peakInFlight) peakInFlight = now;
+
+            try {
+                executor.execute(() -> run(task, work));
+                return true;
+            } catch (RejectedExecutionException e) {
+                finished();
+                return false;
+            }
+        }
+
+        private void run(String task, Runnable work) {
+            Thread thread = Thread.currentThread();
+            running.add(thread);
+            try {
+                work.run();
+            } catch (Throwable t) {
+                Gdx.app.error("BackgroundServices", name + "/" + task + " failed: " + t);
+            } finally {
+                running.remove(thread);
+                finished();
+            }
+        }
+
+        private void finished() {
+            inFlight.decrementAndGet();
+            synchronized (this) {
+                if (--active == 0) notifyAll();
+            }
+        }
+
+        // Render thread. Waits up to deadlineMs for running tasks, then interrupts them. Safe to call twice
+        public void close(long deadlineMs) {
+            if (!scopes.contains(this, true)) return; // Already closed
+            long start = System.nanoTime();
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+            int abandoned;
+            synchronized (this) {
+                closed = true;
+                try {
+                    long left;
+                    while (active > 0 && (left = deadline - System.nanoTime()) > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(this, left);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                abandoned = active;
+            }
+            if (abandoned > 0) {
+                for (Thread thread : running) thread.interrupt();
+                Gdx.app.error("BackgroundServices", name + ": " + abandoned + " tasks still running after "
+                    + deadlineMs + " ms, interrupted");
+            }
+
+            scopes.removeValue(this, true);
+            lastClosed      = name;
+            lastCloseMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            Gdx.app.log("BackgroundServices", "Closed " + name + " in " + lastCloseMillis + " ms");
+        }
+    }
+}
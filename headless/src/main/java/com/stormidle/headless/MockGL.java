@@ -0,0 +1,45 @@
+package com.stormidle.headless;
+
+import com.badlogic.gdx.graphics.GL20;
+
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+/**
+ * A {@link GL20} that draws nothing, for running screens on the headless backend. Every call returns zero, false or
+ * an empty string, except that object creation hands out fresh ids and shader compile and program link report
+ * success, so SpriteBatch, ShapeRenderer and Texture construct the same way they would on a real context.
+ */
+public final class MockGL {
+
+    private MockGL() {
+    }
+
+    public static GL20 create() {
+        int[] nextId = {1};
+        return (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[] {GL20.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "glGenTexture": case "glGenBuffer": case "glGenFramebuffer": case "glGenRenderbuffer":
+                    case "glCreateShader": case "glCreateProgram":
+                        return nextId[0]++;
+                    case "glGetShaderiv": case "glGetProgramiv":
+                        int pname = (Integer) args[1];
+                        if (pname == GL20.GL_COMPILE_STATUS || pname == GL20.GL_LINK_STATUS) {
+                            ((IntBuffer) args[2]).put(0, GL20.GL_TRUE);
+                        }
+                        return null;
+                    case "hashCode": return System.identityHashCode(proxy);
+                    case "equals":   return proxy == args[0];
+                    case "toString": return "MockGL";
+                }
+                Class<?> type = method.getReturnType();
+                if (type == String.class)  return "";
+                if (type == boolean.class) return false;
+                if (type == int.class)     return 0;
+                if (type == long.class)    return 0L;
+                if (type == float.class)   return 0f;
+                return null;
+            });
+    }
+}
@@ -0,0 +1,98 @@
+package com.stormidle.headless;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.backends.headless.mock.graphics.MockGraphics;
+import com.badlogic.gdx.graphics.GL20;
+import com.stormidle.Storm;
+import com.stormidle.assets.ResourceTracker;
+import com.stormidle.screens.GameScreen;
+
+/**
+ * Leak check for {@code headless:popupLeakCheck}, run with {@code -Dstorm.debug=true} so {@link ResourceTracker}
+ * counts. Plays the intro at ten times speed on the headless backend with {@link MockGL} and a 1280x720 mock screen,
+ * lets GameScreen settle, then opens and closes every popup {@value #CYCLES} times. Prints one
+ * {@code POPUP_LEAK_CHECK} line with the live GL resource count before and after, and exits with status 1 if it grew
+ * or if anything threw on the way. The task runs it in a scratch working directory, so it never touches the player's
+ * save.
+ */
+public class PopupLeakCheck extends Storm {
+
+    private static final float STEP = 1f / 6f;   // Seconds of game time per frame
+    private static final int SETTLE_FRAMES = 30; // Frames of GameScreen before the baseline is taken
+    private static final int CYCLES = 1000;
+    private static final int WIDTH = 1280, HEIGHT = 720;
+
+    private int gameFrames;
+    private int baseline = -1;
+    private int cycles;
+    private boolean finished; // exit() takes effect after this frame, so render() can run once more
+
+    public static void main(String[] args) {
+        if (!ResourceTracker.ENABLED) {
+            System.out.println("POPUP_LEAK_CHECK failed: run with -Dstorm.debug=true so GL resources are counted");
+            System.exit(1);
+        }
+        // The headless main loop lets an exception end its thread quietly, which would read as a pass
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> {
+            System.out.println("POPUP_LEAK_CHECK failed: " + e);
+            e.printStackTrace(System.out);
+            System.out.flush();
+            Runtime.getRuntime().halt(1);
+        });
+        HeadlessApplicationConfiguration configuration = new HeadlessApplicationConfiguration();
+        configuration.updatesPerSecond = 0; // As fast as it can
+        new HeadlessApplication(new PopupLeakCheck(), configuration);
+    }
+
+    @Override
+    public void create() {
+        // The headless backend leaves GL null and the screen 0x0, so GameScreen would have nothing to lay out
+        MockGraphics graphics = new MockGraphics() {
+            @Override public int getWidth()            { return WIDTH; }
+            @Override public int getHeight()           { return HEIGHT; }
+            @Override public int getBackBufferWidth()  { return WIDTH; }
+            @Override public int getBackBufferHeight() { return HEIGHT; }
+        };
+        GL20 gl = MockGL.create();
+        graphics.setGL20(gl);
+        Gdx.graphics = graphics;
+        Gdx.gl = Gdx.gl20 = gl;
+        super.create();
+        Gdx.app.setLogLevel(Application.LOG_INFO); // Debug would log every one of the popup opens
+    }
+
+    @Override
+    public void render() {
+        if (screen == null) return;
+        screen.render(STEP);
+        if (finished || !(screen instanceof GameScreen) || ++gameFrames < SETTLE_FRAMES) return;
+
+        if (baseline < 0) {
+            // Every popup built once first, so the baseline includes what the popup cache keeps on purpose
+            ((GameScreen) screen).cyclePopups();
+            baseline = ResourceTracker.liveCount();
+            return;
+        }
+        if (cycles < CYCLES) {
+            ((GameScreen) screen).cyclePopups();
+            cycles++;
+            return;
+        }
+
+        finished = true;
+        int live = ResourceTracker.liveCount();
+        boolean passed = live <= baseline;
+        System.out.println("POPUP_LEAK_CHECK " + (passed ? "passed" : "failed") + " cycles=" + CYCLES
+            + " live_before=" + baseline + " live_after=" + live);
+        if (passed) {
+            Gdx.app.exit();
+            return;
+        }
+        System.out.println(ResourceTracker.summary());
+        System.out.flush();
+        Runtime.getRuntime().halt(1);
+    }
+}
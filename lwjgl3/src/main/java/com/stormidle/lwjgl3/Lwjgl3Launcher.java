@@ -12,7 +12,8 @@ public class Lwjgl3Launcher {
     }
 
     private static Lwjgl3Application createApplication() {
-        return new Lwjgl3Application(new Storm(), getDefaultConfiguration());
+        Storm game = TrainingRun.ENABLED ? new TrainingRun() : new Storm();
+        return new Lwjgl3Application(game, getDefaultConfiguration());
     }
 
     private static Lwjgl3ApplicationConfiguration getDefaultConfiguration() {
@@ -33,6 +34,11 @@ public class Lwjgl3Launcher {
         //// They can also be loaded from the root of assets/ .
         configuration.setWindowIcon("libgdx128.png", "libgdx64.png", "libgdx32.png", "libgdx16.png");
 
+        //// Prints time-to-first-frame and memory use, then exits. Used by lwjgl3:startupBenchmark.
+        if (StartupProbe.ENABLED) StartupProbe.install(configuration);
+        //// Hidden window running as fast as it can, for the AppCDS training run of lwjgl3:cdsArchive.
+        if (TrainingRun.ENABLED) TrainingRun.configure(configuration);
+
         //// This could improve compatibility with Windows machines with buggy OpenGL drivers, Macs
         //// with Apple Silicon that have to emulate compatibility with OpenGL anyway, and more.
         //// This uses the dependency `com.badlogicgames.gdx:gdx-lwjgl3-angle` to function.
@@ -39,7 +39,7 @@ import java.util.Locale;
  *  This is required for LWJGL3 to work on macOS.</li>
  *  <li> Linux (NVIDIA GPUs only): Spawns a child JVM process with the {@code __GL_THREADED_OPTIMIZATIONS}
  *  {@link System#getenv(String) Environment Variable} set to {@code 0} (if it was not already). This is required for
- *  LWJGL3 to work on Linux with NVIDIA GPUs.</li>
+ *  LWJGL3 to work on Linux with NVIDIA GPUs. A native image relaunches its own executable instead.</li>
  * </ul>
  * <a href="https://jvm-gaming.org/t/starting-jvm-on-mac-with-xstartonfirstthread-programmatically/57547">Based on this java-gaming.org post by kappa</a>
  * @author damios
@@ -153,7 +153,7 @@ public class StartupHelper {
 			if ("0".equals(System.getenv("__GL_THREADED_OPTIMIZATIONS"))) return false;
 		} else {
 			// There is no need for -XstartOnFirstThread on Graal native image
-			if (!System.getProperty("org.graalvm.nativeimage.imagecode", "").isEmpty()) return false;
+			if (isNativeImage()) return false;
 
 			// Checks if we are already on the main thread, such as from running via Construo.
 			long objcMsgSend = ObjCRuntime.getLibrary().getFunctionAddress("objc_msgSend");
@@ -174,6 +174,21 @@ public class StartupHelper {
 
 		// Spawn the child JVM process with updated environment variables or JVM args
 		List<String> jvmArgs = new ArrayList<>();
+		if (isNativeImage()) {
+			// A native image has no JVM to start, so it relaunches its own executable instead.
+			// Its -D options are read at run time, so the game's own flags are passed on the same way.
+			String executable = ProcessHandle.current().info().command().orElse(null);
+			if (executable == null) {
+				System.err.println("The native executable could not be determined.");
+				return false;
+			}
+			jvmArgs.add(executable);
+			jvmArgs.add("-D" + JVM_RESTARTED_ARG + "=true");
+			for (String key : System.getProperties().stringPropertyNames()) {
+				if (key.startsWith("storm.")) jvmArgs.add("-D" + key + "=" + System.getProperty(key));
+			}
+			return startChild(jvmArgs, isMac, inheritIO);
+		}
 		// The following line is used assuming you target Java 8, the minimum for LWJGL3.
 		String javaExecPath = System.getProperty("java.home") + "/bin/java";
 		// If targeting Java 9 or higher, you could use the following instead of the above line:
@@ -187,6 +202,7 @@ public class StartupHelper {
 		if (isMac) jvmArgs.add("-XstartOnFirstThread");
 		jvmArgs.add("-D" + JVM_RESTARTED_ARG + "=true");
 		jvmArgs.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+		addSharedArchive(jvmArgs);
 		jvmArgs.add("-cp");
 		jvmArgs.add(System.getProperty("java.class.path"));
 		String mainClass = System.getenv("JAVA_MAIN_CLASS_" + processID);
@@ -199,7 +215,10 @@ public class StartupHelper {
 			}
 		}
 		jvmArgs.add(mainClass);
+		return startChild(jvmArgs, isMac, inheritIO);
+	}
 
+	private static boolean startChild(List<String> jvmArgs, boolean isMac, boolean inheritIO) {
 		try {
 			ProcessBuilder processBuilder = new ProcessBuilder(jvmArgs);
 			if (!isMac) processBuilder.environment().put("__GL_THREADED_OPTIMIZATIONS", "0");
@@ -215,6 +234,26 @@ public class StartupHelper {
 		return true;
 	}
 
+	/**
+	 * Starts the child JVM from the AppCDS archive made by {@code lwjgl3:cdsArchive} when this one was started from a
+	 * jar with the archive next to it (e.g. StormIdle-1.0.0.jar and StormIdle-1.0.0.jsa) and no archive was given.
+	 * An archive from a different JDK is ignored by the JVM, so this is always safe.
+	 */
+	private static void addSharedArchive(List<String> jvmArgs) {
+		for (String arg : jvmArgs) {
+			if (arg.startsWith("-XX:SharedArchiveFile=")) return;
+		}
+		String classPath = System.getProperty("java.class.path", "");
+		if (!classPath.endsWith(".jar") || classPath.contains(File.pathSeparator)) return;
+		File archive = new File(classPath.substring(0, classPath.length() - ".jar".length()) + ".jsa");
+		if (archive.isFile()) jvmArgs.add("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+	}
+
+	/** @return whether this is running as a GraalVM native image rather than on a JVM. */
+	public static boolean isNativeImage() {
+		return !System.getProperty("org.graalvm.nativeimage.imagecode", "").isEmpty();
+	}
+
 	private static String getJreErrMsg(boolean isMac) {
 		if (isMac) return MAC_JRE_ERR_MSG;
 		else return LINUX_JRE_ERR_MSG;
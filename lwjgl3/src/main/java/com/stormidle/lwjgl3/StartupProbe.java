@@ -0,0 +1,52 @@
+package com.stormidle.lwjgl3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Window;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3WindowAdapter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Startup measurement for {@code lwjgl3:startupBenchmark}. With {@code -Dstorm.startupProbe=true} the game prints
+ * one {@code STARTUP} line once its first frame is on screen, then exits. The time is counted from the start of the
+ * process, so it includes JVM boot (or none, for the native image) and any StartupHelper relaunch.
+ */
+public class StartupProbe {
+
+    public static final boolean ENABLED = Boolean.getBoolean("storm.startupProbe");
+
+    private StartupProbe() {}
+
+    public static void install(Lwjgl3ApplicationConfiguration configuration) {
+        configuration.setWindowListener(new Lwjgl3WindowAdapter() {
+            @Override
+            public void created(Lwjgl3Window window) {
+                // Runnables run after every window has rendered, so this one runs right after the first frame
+                Gdx.app.postRunnable(StartupProbe::report);
+            }
+        });
+    }
+
+    private static void report() {
+        Instant start = ProcessHandle.current().info().startInstant().orElse(Instant.now());
+        System.out.println("STARTUP first_frame_ms=" + Duration.between(start, Instant.now()).toMillis()
+            + " rss_kb=" + status("VmRSS") + " peak_rss_kb=" + status("VmHWM"));
+        Gdx.app.exit();
+    }
+
+    // A size in kB from /proc/self/status, or -1 where there is no procfs (Windows, macOS)
+    private static long status(String key) {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+                if (line.startsWith(key + ":")) return Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        } catch (IOException | RuntimeException ignored) {
+        }
+        return -1;
+    }
+}
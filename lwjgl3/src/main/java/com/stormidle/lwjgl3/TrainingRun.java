@@ -0,0 +1,62 @@
+package com.stormidle.lwjgl3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputProcessor;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.stormidle.Storm;
+import com.stormidle.screens.GameScreen;
+
+/**
+ * Scripted session for {@code lwjgl3:cdsArchive}, enabled with {@code -Dstorm.training=true}. Plays the intro at
+ * ten times speed in a hidden window, then taps its way across GameScreen (the cloud, the upgrade and ability
+ * buttons and whatever popups they open) for a while and exits, so the JVM loads the classes a real session does.
+ * The task runs it in a scratch working directory, so it never touches the player's save.
+ */
+public class TrainingRun extends Storm {
+
+    public static final boolean ENABLED = Boolean.getBoolean("storm.training");
+
+    private static final float STEP = 1f / 6f;    // Seconds of game time per frame
+    private static final int GAME_FRAMES = 600;   // Frames of GameScreen before exiting
+    private static final int TAP_EVERY = 3;       // Frames between taps, so popups get drawn before the next one
+    private static final int GRID = 8;            // Taps walk an 8x8 grid over the window
+
+    private int gameFrames;
+    private int taps;
+
+    public static void configure(Lwjgl3ApplicationConfiguration configuration) {
+        configuration.setWindowedMode(1280, 720);
+        configuration.setInitialVisible(false);
+        configuration.useVsync(false);
+        configuration.setForegroundFPS(0);
+        configuration.setIdleFPS(0);
+    }
+
+    @Override
+    public void render() {
+        if (screen == null) return;
+        screen.render(STEP);
+        if (!(screen instanceof GameScreen)) return;
+
+        if (++gameFrames % TAP_EVERY == 0) tap();
+        if (gameFrames == GAME_FRAMES) Gdx.app.exit();
+    }
+
+    @Override
+    public void startMusic() {
+        super.startMusic();
+        if (music != null) music.setVolume(0f);
+    }
+
+    // Taps the next cell of the grid, column by column
+    private void tap() {
+        InputProcessor input = Gdx.input.getInputProcessor();
+        if (input == null) return;
+        int cell = taps++ % (GRID * GRID);
+        int x = (int) ((cell / GRID + 0.5f) * Gdx.graphics.getWidth() / GRID);
+        int y = (int) ((cell % GRID + 0.5f) * Gdx.graphics.getHeight() / GRID);
+        input.touchDown(x, y, 0, Input.Buttons.LEFT);
+        input.touchUp(x, y, 0, Input.Buttons.LEFT);
+    }
+}
@@ -1,7 +1,12 @@
 package com.stormidle.objects;
 
+import com.stormidle.stats.IncomeSeries;
+import com.stormidle.stats.Statistics;
+
 // Holds the game state
 // Exports to json upon close to save game data
+// Only the thread stepping the Simulation may touch it: the render thread, or the SimulationThread when there is one.
+// Other threads read a RenderFrame or Simulation.published instead
 
 public class GameData {
 
@@ -23,17 +28,40 @@ public class GameData {
     public int prestigeLevel = 0; // Prestige/cloud level
     public int rainMultiplier = 1; // Multiplies the amount of rain generated from clicking/auto
 
+    // Lifetime counters and achievements. Kept through prestige and not part of copyFrom()
+    public final Statistics stats = new Statistics();
+    public final IncomeSeries income = new IncomeSeries(); // Observed income, fed from stats each frame
+
     // Resets the GameData to default values and sets new prestige levels and rain multipliers
     public void prestige() {
         currency = 0;
+        resetStats();
+        prestigeLevel++;
+        rainMultiplier++;
+    }
+
+    // Makes this an exact copy of other. Used to try an upgrade out on a scratch copy
+    public void copyFrom(GameData other) {
+        currency = other.currency;
+        fallSpeed = other.fallSpeed;
+        dropsToFill = other.dropsToFill;
+        rps = other.rps;
+        currencyGained = other.currencyGained;
+        cps = other.cps;
+        maxIdleTime = other.maxIdleTime;
+        tutorialComplete = other.tutorialComplete;
+        prestigeLevel = other.prestigeLevel;
+        rainMultiplier = other.rainMultiplier;
+    }
+
+    // Puts every upgrade-affected value back to its base, as if no upgrades were bought
+    public void resetStats() {
         fallSpeed = 300f;
         dropsToFill = 50;
         rps = 0;
         currencyGained = 1;
         cps = 0f;
         maxIdleTime = 1;
-        prestigeLevel++;
-        rainMultiplier++;
     }
 }
 
@@ -0,0 +1,20 @@
+package com.stormidle.objects;
+
+// Steady-state income for a given GameData, averaged over time.
+// Mirrors GameScreen: every click or auto-rain tick drops rainMultiplier drops (twice that during Hurricane),
+// every dropsToFill drops convert into currencyGained, and condensation adds cps on top.
+// Bowl conversions are treated as continuous, so partial bowls count towards the rate.
+
+public class Income {
+
+    // Drops landing in the bowl per second
+    public static double dropsPerSecond(GameData gameData, double clicksPerSecond, boolean hurricane) {
+        return (clicksPerSecond + gameData.rps) * gameData.rainMultiplier * (hurricane ? 2 : 1);
+    }
+
+    // Currency earned per second from rain conversions and condensation together
+    public static double currencyPerSecond(GameData gameData, double clicksPerSecond, boolean hurricane) {
+        double conversions = dropsPerSecond(gameData, clicksPerSecond, hurricane) / gameData.dropsToFill;
+        return conversions * gameData.currencyGained + gameData.cps;
+    }
+}
@@ -0,0 +1,49 @@
+package com.stormidle.objects;
+
+import com.stormidle.upgrades.UpgradeManager;
+
+import java.util.concurrent.locks.StampedLock;
+
+// Hands the simulation's state to other threads. GameData is plain mutable fields written by the simulation,
+// the purchase commands and AbilityManager, so only the thread stepping the simulation may touch it. Instead the
+// Simulation publishes a copy here at the end of every tick, and other threads read() that copy into their own
+// StateSnapshot. The autosave and the mapped state file are written from such copies on background threads.
+//
+// This is a seqlock (StampedLock's optimistic read): a reader copies the fields and then checks that no publish
+// ran meanwhile, retrying if one did. Readers never take the lock, so the simulation never waits for them, and
+// a reader only ever waits for one publish (a few hundred field copies) to finish.
+
+public class PublishedState {
+
+    private final StampedLock lock = new StampedLock();
+    private final StateSnapshot latest = new StateSnapshot();
+
+    // Simulation thread only
+    public void publish(GameData gameData, UpgradeManager upgrades, long tick, int dropsCollected,
+                        float autoRainAccumulator, float condensationAccumulator) {
+        long stamp = lock.writeLock();
+        try {
+            latest.capture(gameData, upgrades);
+            latest.version++;
+            latest.tick                    = tick;
+            latest.dropsCollected          = dropsCollected;
+            latest.autoRainAccumulator     = autoRainAccumulator;
+            latest.condensationAccumulator = condensationAccumulator;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Any thread. Copies the latest published state into snapshot and returns its version, 0 if nothing has been
+    // published yet
+    public long read(StateSnapshot snapshot) {
+        while (true) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                snapshot.copyFrom(latest);
+                if (lock.validate(stamp)) return snapshot.version;
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.stormidle.objects;
+
+import com.stormidle.stats.Statistics;
+import com.stormidle.upgrades.AbilityDefinition;
+import com.stormidle.upgrades.AbilityManager;
+import com.stormidle.upgrades.Effect;
+import com.stormidle.upgrades.UpgradeManager;
+import com.stormidle.upgrades.UpgradeTree;
+
+import java.util.Arrays;
+import java.util.List;
+
+// A consistent copy of the simulated state at the end of one tick, filled in by PublishedState.read().
+// It holds everything a save (SaveFormat.capture) and the mapped state file need, so background threads can
+// write either one without touching GameData. Each reader owns its snapshot and reuses it, so reading allocates
+// nothing once the arrays are sized.
+
+public class StateSnapshot {
+
+    public final GameData data = new GameData(); // Scalars and data.income. Stats are in stats below
+    public long version;  // Publishes before this one, tells a reader whether anything moved since its last read
+    public long tick;     // Simulation tick the state was taken at
+    public int dropsCollected;
+    public float autoRainAccumulator;
+    public float condensationAccumulator;
+    public final long[] stats = new long[Statistics.COUNT];
+
+    // The trees the counts below refer to. A reader may look at their ids and tiers, never at what is bought
+    public List<UpgradeTree> trees = List.of();
+    public int[] purchased = new int[0]; // Tiers bought per tree, in UpgradeManager.getAllTrees() order
+
+    public String[] abilityIds = new String[0]; // AbilityManager.abilities in order
+    public String activeAbility;                // Id of the running ability, or null
+    public float activeRemaining;
+    public final float[] activeSaved = new float[Effect.STAT_COUNT]; // Stats the running ability restores
+
+    // Cooldowns as AbilityManager stores them, see cooldownCount()
+    public String[] cooldownIds = new String[0];
+    public long[] cooldownTimestamps = new long[0];
+    public int cooldownCount;
+
+    // Copies the saved state of a game. Called by its owning thread, tick and the Simulation fields are left alone
+    public void capture(GameData gameData, UpgradeManager upgrades) {
+        data.copyFrom(gameData);
+        data.income.copyFrom(gameData.income);
+        for (int i = 0; i < stats.length; i++) stats[i] = gameData.stats.get(i);
+
+        // Only reallocated when a reset or a definitions reload changes the trees or abilities
+        List<UpgradeTree> trees = upgrades.getAllTrees();
+        if (purchased.length != trees.size()) purchased = new int[trees.size()];
+        for (int t = 0; t < trees.size(); t++) purchased[t] = trees.get(t).purchasedCount();
+        this.trees = trees;
+
+        AbilityManager abilities = upgrades.abilities;
+        List<AbilityDefinition> defs = abilities.abilities;
+        if (abilityIds.length != defs.size()) abilityIds = new String[defs.size()];
+        for (int a = 0; a < defs.size(); a++) abilityIds[a] = defs.get(a).id;
+        activeAbility   = abilities.isAnyAbilityActive() ? abilities.getActiveAbility().id : null;
+        activeRemaining = abilities.getActiveTimeRemaining();
+        abilities.copySavedStats(activeSaved);
+
+        cooldownCount = abilities.cooldownCount();
+        if (cooldownIds.length < cooldownCount) {
+            cooldownIds        = new String[cooldownCount];
+            cooldownTimestamps = new long[cooldownCount];
+        }
+        for (int i = 0; i < cooldownCount; i++) {
+            cooldownIds[i]        = abilities.cooldownId(i);
+            cooldownTimestamps[i] = abilities.cooldownTimestamp(i);
+        }
+    }
+
+    // Unix timestamp of the ability's last activation, or 0 if it has never been used
+    public long lastUsed(String abilityId) {
+        for (int i = 0; i < cooldownCount; i++) if (cooldownIds[i].equals(abilityId)) return cooldownTimestamps[i];
+        return 0L;
+    }
+
+    void copyFrom(StateSnapshot other) {
+        data.copyFrom(other.data);
+        data.income.copyFrom(other.data.income);
+        version                 = other.version;
+        tick                    = other.tick;
+        dropsCollected          = other.dropsCollected;
+        autoRainAccumulator     = other.autoRainAccumulator;
+        condensationAccumulator = other.condensationAccumulator;
+        System.arraycopy(other.stats, 0, stats, 0, stats.length);
+        trees = other.trees;
+
+        // The writer may swap an array while this runs, so copy from one reference. A torn copy fails validate()
+        int[] src = other.purchased;
+        if (purchased.length != src.length) purchased = new int[src.length];
+        System.arraycopy(src, 0, purchased, 0, src.length);
+
+        String[] ids = other.abilityIds;
+        if (abilityIds.length != ids.length) abilityIds = new String[ids.length];
+        System.arraycopy(ids, 0, abilityIds, 0, ids.length);
+        activeAbility   = other.activeAbility;
+        activeRemaining = other.activeRemaining;
+        System.arraycopy(other.activeSaved, 0, activeSaved, 0, activeSaved.length);
+
+        String[] cooldowns = other.cooldownIds;
+        long[] timestamps  = other.cooldownTimestamps;
+        int count = Math.min(other.cooldownCount, Math.min(cooldowns.length, timestamps.length));
+        if (cooldownIds.length < count) {
+            cooldownIds        = Arrays.copyOf(cooldownIds, count);
+            cooldownTimestamps = Arrays.copyOf(cooldownTimestamps, count);
+        }
+        System.arraycopy(cooldowns, 0, cooldownIds, 0, count);
+        System.arraycopy(timestamps, 0, cooldownTimestamps, 0, count);
+        cooldownCount = count;
+    }
+}
@@ -0,0 +1,331 @@
+package com.stormidle.persist;
+
+// A parsed JSON value, shaped like libGDX's JsonValue so code reads the same: an object or array keeps its
+// entries as a linked list from child through next, and each entry of an object has its key in name.
+// Used for upgrades.json and by the generated save serializers, so the model needs no libGDX.
+//
+// parse() accepts standard JSON plus the relaxed form libGDX's Json writes by default, which old saves use:
+// unquoted keys and strings, // and /* */ comments, and newlines instead of commas. An unquoted value that reads
+// as a number, true, false or null is one, anything else is a string.
+// Numbers keep their text and are converted when read, so a long never goes through a double.
+
+public final class JsonNode {
+
+    public enum Type { OBJECT, ARRAY, STRING, NUMBER, BOOLEAN, NULL }
+
+    private final Type type;
+    private final String text; // The string, or the number or literal as written. Null for objects and arrays
+
+    public String name;    // Key within the parent object, null elsewhere
+    public JsonNode child; // First entry of an object or array
+    public JsonNode next;  // Next entry of the parent
+    public int size;       // Number of entries of an object or array
+
+    private JsonNode(Type type, String text) {
+        this.type = type;
+        this.text = text;
+    }
+
+    public static JsonNode parse(String json) {
+        Parser parser = new Parser(json);
+        JsonNode root = parser.value();
+        parser.skipSpace();
+        if (parser.at < json.length()) throw parser.error("Unexpected text after the root value");
+        return root;
+    }
+
+    public Type type()         { return type; }
+    public boolean isObject()  { return type == Type.OBJECT; }
+    public boolean isArray()   { return type == Type.ARRAY; }
+    public boolean isNull()    { return type == Type.NULL; }
+
+    // The entry with the given key, or null
+    public JsonNode get(String key) {
+        for (JsonNode c = child; c != null; c = c.next) if (key.equals(c.name)) return c;
+        return null;
+    }
+
+    public boolean has(String key) {
+        return get(key) != null;
+    }
+
+    // First entry of the array or object under key, or null if there is none
+    public JsonNode getChild(String key) {
+        JsonNode value = get(key);
+        return value == null ? null : value.child;
+    }
+
+    public String getString(String key) { return require(key).asString(); }
+    public int getInt(String key)       { return require(key).asInt(); }
+    public long getLong(String key)     { return require(key).asLong(); }
+    public float getFloat(String key)   { return require(key).asFloat(); }
+    public double getDouble(String key) { return require(key).asDouble(); }
+
+    private JsonNode require(String key) {
+        JsonNode value = get(key);
+        if (value == null) throw new IllegalArgumentException("No value named \"" + key + "\"");
+        return value;
+    }
+
+    public String asString() {
+        if (type == Type.OBJECT || type == Type.ARRAY) throw wrongType("a string");
+        return type == Type.NULL ? null : text;
+    }
+
+    public long asLong() {
+        number();
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            return (long) Double.parseDouble(text); // Written with a fraction or an exponent
+        }
+    }
+
+    public int asInt() {
+        return (int) asLong();
+    }
+
+    public double asDouble() {
+        number();
+        return Double.parseDouble(text);
+    }
+
+    public float asFloat() {
+        number();
+        return Float.parseFloat(text);
+    }
+
+    public boolean asBoolean() {
+        if (type == Type.BOOLEAN) return text.equals("true");
+        if (type == Type.STRING) return text.equalsIgnoreCase("true");
+        return type == Type.NUMBER && asDouble() != 0;
+    }
+
+    public int[] asIntArray() {
+        int[] array = new int[elements()];
+        int i = 0;
+        for (JsonNode c = child; c != null; c = c.next) array[i++] = c.asInt();
+        return array;
+    }
+
+    public long[] asLongArray() {
+        long[] array = new long[elements()];
+        int i = 0;
+        for (JsonNode c = child; c != null; c = c.next) array[i++] = c.asLong();
+        return array;
+    }
+
+    public float[] asFloatArray() {
+        float[] array = new float[elements()];
+        int i = 0;
+        for (JsonNode c = child; c != null; c = c.next) array[i++] = c.asFloat();
+        return array;
+    }
+
+    public double[] asDoubleArray() {
+        double[] array = new double[elements()];
+        int i = 0;
+        for (JsonNode c = child; c != null; c = c.next) array[i++] = c.asDouble();
+        return array;
+    }
+
+    public String[] asStringArray() {
+        String[] array = new String[elements()];
+        int i = 0;
+        for (JsonNode c = child; c != null; c = c.next) array[i++] = c.asString();
+        return array;
+    }
+
+    private void number() {
+        // Strings are allowed so a quoted number in a hand-edited file still reads
+        if (type != Type.NUMBER && type != Type.STRING) throw wrongType("a number");
+    }
+
+    private int elements() {
+        if (type != Type.ARRAY) throw wrongType("an array");
+        return size;
+    }
+
+    private IllegalArgumentException wrongType(String expected) {
+        return new IllegalArgumentException((name == null ? "Value" : "\"" + name + "\"") + " is " + type
+            + ", not " + expected);
+    }
+
+    @Override
+    public String toString() {
+        return type == Type.OBJECT || type == Type.ARRAY ? type + "[" + size + "]" : String.valueOf(text);
+    }
+
+    // Recursive descent over the text. Nesting depth is bounded by what the file contains, and our files are shallow
+    private static final class Parser {
+
+        private final String json;
+        private int at;
+
+        Parser(String json) {
+            this.json = json;
+        }
+
+        JsonNode value() {
+            skipSpace();
+            if (at >= json.length()) throw error("Unexpected end of input");
+            char c = json.charAt(at);
+            switch (c) {
+                case '{': return object();
+                case '[': return array();
+                case '"': return new JsonNode(Type.STRING, quoted());
+                default:  return unquoted(bare(true));
+            }
+        }
+
+        private JsonNode object() {
+            JsonNode object = new JsonNode(Type.OBJECT, null);
+            at++;
+            JsonNode last = null;
+            while (true) {
+                skipSeparators();
+                if (at >= json.length()) throw error("Unterminated object");
+                if (json.charAt(at) == '}') {
+                    at++;
+                    return object;
+                }
+                String key = json.charAt(at) == '"' ? quoted() : bare(false);
+                skipSpace();
+                if (at >= json.length() || json.charAt(at) != ':') throw error("Expected ':' after \"" + key + "\"");
+                at++;
+                JsonNode value = value();
+                value.name = key;
+                if (last == null) object.child = value; else last.next = value;
+                last = value;
+                object.size++;
+            }
+        }
+
+        private JsonNode array() {
+            JsonNode array = new JsonNode(Type.ARRAY, null);
+            at++;
+            JsonNode last = null;
+            while (true) {
+                skipSeparators();
+                if (at >= json.length()) throw error("Unterminated array");
+                if (json.charAt(at) == ']') {
+                    at++;
+                    return array;
+                }
+                JsonNode value = value();
+                if (last == null) array.child = value; else last.next = value;
+                last = value;
+                array.size++;
+            }
+        }
+
+        private String quoted() {
+            at++;
+            StringBuilder out = null; // Only needed once an escape shows up
+            int start = at;
+            while (at < json.length()) {
+                char c = json.charAt(at);
+                if (c == '"') {
+                    String value = out == null ? json.substring(start, at) : out.append(json, start, at).toString();
+                    at++;
+                    return value;
+                }
+                if (c != '\\') {
+                    at++;
+                    continue;
+                }
+                if (out == null) out = new StringBuilder();
+                out.append(json, start, at);
+                if (++at >= json.length()) break;
+                char escaped = json.charAt(at++);
+                switch (escaped) {
+                    case 'n': out.append('\n'); break;
+                    case 'r': out.append('\r'); break;
+                    case 't': out.append('\t'); break;
+                    case 'b': out.append('\b'); break;
+                    case 'f': out.append('\f'); break;
+                    case 'u':
+                        if (at + 4 > json.length()) throw error("Bad \\u escape");
+                        try {
+                            out.append((char) Integer.parseInt(json.substring(at, at + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Bad \\u escape");
+                        }
+                        at += 4;
+                        break;
+                    default: out.append(escaped); // \" \\ \/ and anything else stand for themselves
+                }
+                start = at;
+            }
+            throw error("Unterminated string");
+        }
+
+        // An unquoted key runs up to the ':', an unquoted value up to the end of the line or the next , ] or }
+        private String bare(boolean value) {
+            int start = at;
+            while (at < json.length()) {
+                char c = json.charAt(at);
+                if (value ? c == ',' || c == ']' || c == '}' || c == '\n' || c == '\r' : c == ':') break;
+                if (c == '/' && at + 1 < json.length() && (json.charAt(at + 1) == '/' || json.charAt(at + 1) == '*')) {
+                    break;
+                }
+                if (!value && (c == '{' || c == '}' || c == '[' || c == ']' || c == ',')) break;
+                at++;
+            }
+            String token = json.substring(start, at).trim();
+            if (token.isEmpty()) throw error(value ? "Expected a value" : "Expected a key");
+            return token;
+        }
+
+        private static JsonNode unquoted(String token) {
+            switch (token) {
+                case "true": case "false": return new JsonNode(Type.BOOLEAN, token);
+                case "null":               return new JsonNode(Type.NULL, token);
+            }
+            return new JsonNode(isNumber(token) ? Type.NUMBER : Type.STRING, token);
+        }
+
+        private static boolean isNumber(String token) {
+            char first = token.charAt(0);
+            if (first != '-' && (first < '0' || first > '9')) return false;
+            try {
+                Double.parseDouble(token);
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        void skipSpace() {
+            while (at < json.length()) {
+                char c = json.charAt(at);
+                if (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                    at++;
+                } else if (c == '/' && at + 1 < json.length() && json.charAt(at + 1) == '/') {
+                    while (at < json.length() && json.charAt(at) != '\n') at++;
+                } else if (c == '/' && at + 1 < json.length() && json.charAt(at + 1) == '*') {
+                    int end = json.indexOf("*/", at + 2);
+                    if (end < 0) throw error("Unterminated comment");
+                    at = end + 2;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        // Whitespace, comments and commas between entries
+        private void skipSeparators() {
+            skipSpace();
+            while (at < json.length() && json.charAt(at) == ',') {
+                at++;
+                skipSpace();
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            int line = 1;
+            for (int i = 0; i < Math.min(at, json.length()); i++) if (json.charAt(i) == '\n') line++;
+            return new IllegalArgumentException(message + " at line " + line);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.stormidle.save;
+
+// What a player earned while the game was closed. SaveManager.load() returns one so GameScreen knows whether
+// to show the offline progress popup. compute() holds the rules, so anything that settles a save without the
+// game running gets the same numbers.
+
+public class OfflineResult {
+    public final boolean hasProgress;
+    public final long secondsAway;
+    public final int rainfallCurrency;    // Currency earned from auto-rain conversions
+    public final int condensationCurrency; // Currency earned from condensation
+    public final boolean exceededCap; // Will be true if player was away for longer than max idle time
+    public final int maxIdleHours; // Warning message in popup
+
+    public OfflineResult(boolean hasProgress, long secondsAway, int rainfallCurrency, int condensationCurrency,
+                         boolean exceededCap, int maxIdleHours) {
+        this.hasProgress = hasProgress;
+        this.secondsAway = secondsAway;
+        this.rainfallCurrency = rainfallCurrency;
+        this.condensationCurrency = condensationCurrency;
+        this.exceededCap = exceededCap;
+        this.maxIdleHours = maxIdleHours;
+    }
+
+    // Currency to add to the player's balance
+    public int earned() {
+        return rainfallCurrency + condensationCurrency;
+    }
+
+    // Works out what was earned between lastClosedTime and now (unix seconds) from the passive stats in force
+    // when the game closed. incomeRate is the observed rate when the game closed, or -1 if unknown
+    public static OfflineResult compute(float rps, int dropsToFill, int currencyGained, float cps, int maxIdleTime,
+                                        long lastClosedTime, double incomeRate, long now) {
+        OfflineResult result = new OfflineResult(false, 0, 0, 0, false, maxIdleTime);
+        if (lastClosedTime <= 0) return result;
+
+        long rawSecondsAway = now - lastClosedTime;
+        long maxSeconds     = maxIdleTime * 3600L;
+        long cappedSeconds  = Math.min(rawSecondsAway, maxSeconds);
+        boolean exceededCap = rawSecondsAway > maxSeconds;
+
+        int rainfallCurrency     = 0;
+        int condensationCurrency = 0;
+
+        // Earnings calculated against capped time only
+        if (rps > 0) {
+            float totalDrops = rps * cappedSeconds;
+            int conversions  = (int)(totalDrops / dropsToFill);
+            rainfallCurrency = conversions * currencyGained;
+        }
+
+        if (cps > 0) {
+            condensationCurrency = (int)(cps * cappedSeconds);
+        }
+
+        // Scale down to the income actually observed before closing (IncomeSeries.settledRate(), -1 if the session
+        // was too short to tell). That rate includes clicking, so it can only lower the passive figure, never raise it
+        double passiveRate = (double) rps / dropsToFill * currencyGained + cps;
+        if (incomeRate >= 0 && passiveRate > 0 && incomeRate < passiveRate) {
+            double scale = incomeRate / passiveRate;
+            rainfallCurrency     = (int)(rainfallCurrency * scale);
+            condensationCurrency = (int)(condensationCurrency * scale);
+        }
+
+        // Show popup if there's earnings OR if the cap was exceeded (even if earnings = 0)
+        if (rainfallCurrency + condensationCurrency > 0 || exceededCap) {
+            result = new OfflineResult(true, rawSecondsAway, rainfallCurrency,
+                condensationCurrency, exceededCap, maxIdleTime);
+        }
+        return result;
+    }
+}
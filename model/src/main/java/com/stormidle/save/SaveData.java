@@ -0,0 +1,46 @@
+package com.stormidle.save;
+
+import com.stormidle.persist.Persisted;
+
+// Everything in the save file, as plain fields. SaveFormat copies GameData and the upgrades in and out of it.
+// SaveDataSerializer is generated from it at compile time, see PersistedProcessor for the field types it can
+// hold. Older saves written by libGDX's Json load too, JsonNode reads their relaxed format.
+//
+// Format:
+// {
+//   "currency": 100,
+//   "fallSpeed": 350.0,
+//   "dropsToFill": 45,
+//   "rps": 0.5,
+//   "purchasedUpgrades": ["speed_1", "value_1", "auto_1"],
+//   "formulaTreeIds": ["humidity"],
+//   "formulaTreeLevels": [12],
+//   "stats": [5120, 102, 4870, 330, 1, 4],
+//   "incomeRate": 2.4,
+//   "incomeMinutes": [2.1, 2.3, ...],
+//   "incomeHours": [1.8, ...]
+// }
+
+@Persisted
+public class SaveData {
+    public int currency = 0;
+    public float fallSpeed = 300f;
+    public int dropsToFill = 50;
+    public float rps = 0f;
+    public float cps = 0f;
+    public int currencyEarned = 1;
+    public int prestigeLevel = 0;
+    public int rainMultiplier = 1;
+    public int maxIdleTime = 1;
+    public boolean tutorialComplete = false; // Tutorial only shows once when game is first ran
+    public long lastClosedTime = 0L;
+    public String[] purchasedUpgrades = new String[0];
+    public String[] formulaTreeIds = new String[0];
+    public int[] formulaTreeLevels = new int[0]; // Parallel to formulaTreeIds
+    public String[] cooldownIds = new String[0];
+    public long[] cooldownTimestamps = new long[0]; // Parallel to cooldownIds
+    public long[] stats = new long[0]; // Lifetime counters, indexed like Statistics
+    public double incomeRate = -1;     // Smoothed currency/sec when saved, -1 if not settled yet or from before it existed
+    public float[] incomeMinutes = new float[0]; // Per-minute and per-hour income history, oldest first
+    public float[] incomeHours = new float[0];
+}
@@ -0,0 +1,163 @@
+package com.stormidle.save;
+
+import com.stormidle.objects.GameData;
+import com.stormidle.objects.StateSnapshot;
+import com.stormidle.upgrades.FormulaUpgradeTree;
+import com.stormidle.upgrades.UpgradeManager;
+import com.stormidle.upgrades.UpgradeTier;
+import com.stormidle.upgrades.UpgradeTree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Moves game state in and out of a SaveData and a SaveStore, with no I/O threads or logging of its own.
+// SaveManager wraps this for the game, tools call it directly with SaveStore.forPath().
+
+public class SaveFormat {
+
+    private SaveFormat() {}
+
+    // The save in a store, or null if there is none. Throws if the file can't be read or parsed
+    public static SaveData read(SaveStore store) {
+        if (!store.exists()) return null;
+        return SaveDataSerializer.fromJson(store.read());
+    }
+
+    // Writes the save indented, the way the game always has so a player can read it
+    public static void write(SaveStore store, SaveData data) {
+        store.write(SaveDataSerializer.prettyPrint(data));
+    }
+
+    // Copies GameData and all purchased upgrades into a new save, stamped as closed at now (unix seconds).
+    // Call from the thread that owns gameData
+    public static SaveData capture(GameData gameData, UpgradeManager upgrades, long now) {
+        StateSnapshot snapshot = new StateSnapshot();
+        snapshot.capture(gameData, upgrades);
+        return capture(snapshot, now);
+    }
+
+    // The same from a snapshot, so any thread holding one can build the save
+    public static SaveData capture(StateSnapshot snapshot, long now) {
+        SaveData data = new SaveData();
+        GameData gameData = snapshot.data;
+
+        // Copy GameData fields into save container
+        data.currency = gameData.currency;
+        data.fallSpeed = gameData.fallSpeed;
+        data.dropsToFill = gameData.dropsToFill;
+        data.rps = gameData.rps;
+        data.cps = gameData.cps;
+        data.currencyEarned = gameData.currencyGained;
+        data.prestigeLevel = gameData.prestigeLevel;
+        data.rainMultiplier = gameData.rainMultiplier;
+        data.maxIdleTime = gameData.maxIdleTime;
+        data.tutorialComplete = gameData.tutorialComplete;
+        data.lastClosedTime = now;
+        data.stats = snapshot.stats.clone();
+        data.incomeRate = gameData.income.settledRate();
+        data.incomeMinutes = gameData.income.minuteHistory();
+        data.incomeHours = gameData.income.hourHistory();
+
+        // Collect IDs of all purchased upgrades across every tree. Tiers are bought in order, so they are the
+        // first purchased[t] of each tree
+        List<UpgradeTree> trees = snapshot.trees;
+        List<String> purchased = new ArrayList<>();
+        int formulaTrees = 0;
+        for (UpgradeTree tree : trees) if (tree instanceof FormulaUpgradeTree) formulaTrees++;
+        data.formulaTreeIds    = new String[formulaTrees];
+        data.formulaTreeLevels = new int[formulaTrees];
+        int formula = 0;
+        for (int t = 0; t < trees.size(); t++) {
+            UpgradeTree tree = trees.get(t);
+            // Endless trees only store how many tiers have been bought
+            if (tree instanceof FormulaUpgradeTree) {
+                data.formulaTreeIds[formula]    = tree.id;
+                data.formulaTreeLevels[formula] = snapshot.purchased[t];
+                formula++;
+                continue;
+            }
+            for (int i = 0; i < snapshot.purchased[t]; i++) {
+                UpgradeTier tier = tree.get(i);
+                // ID format: "tree_tier" e.g. "speed_1", "auto_3"
+                purchased.add(tier.tree + "_" + tier.tier);
+            }
+        }
+        data.purchasedUpgrades = purchased.toArray(new String[0]);
+
+        // Ability cooldown timestamps stored as parallel arrays
+        data.cooldownIds        = Arrays.copyOf(snapshot.cooldownIds, snapshot.cooldownCount);
+        data.cooldownTimestamps = Arrays.copyOf(snapshot.cooldownTimestamps, snapshot.cooldownCount);
+        return data;
+    }
+
+    // Copies a parsed save into gameData and the upgrade trees. The caller rebuilds the unlocks afterwards
+    public static void apply(SaveData data, GameData gameData, UpgradeManager upgrades) {
+        gameData.currency = data.currency;
+        gameData.fallSpeed = data.fallSpeed;
+        gameData.dropsToFill = data.dropsToFill;
+        gameData.rps = data.rps;
+        gameData.cps = data.cps;
+        gameData.currencyGained = data.currencyEarned;
+        gameData.prestigeLevel = data.prestigeLevel;
+        gameData.rainMultiplier = data.rainMultiplier;
+        gameData.tutorialComplete = data.tutorialComplete;
+        gameData.maxIdleTime = data.maxIdleTime;
+        gameData.stats.load(data.stats);
+        gameData.income.restore(data.incomeRate, data.incomeMinutes, data.incomeHours);
+
+        // Restore purchased upgrade states
+        for (UpgradeTree tree : upgrades.getAllTrees()) {
+            if (tree instanceof FormulaUpgradeTree) {
+                int saved = indexOf(data.formulaTreeIds, tree.id);
+                if (saved != -1 && saved < data.formulaTreeLevels.length) {
+                    tree.restorePurchased(data.formulaTreeLevels[saved]);
+                }
+                continue;
+            }
+            for (int i = 0; i < tree.size(); i++) {
+                UpgradeTier tier = tree.get(i);
+                String id = tier.tree + "_" + tier.tier;
+                if (indexOf(data.purchasedUpgrades, id) != -1) {
+                    tier.purchased = true;
+                    // GameData values from save already include all upgrade effects,
+                    // so we only mark purchased = true for UI state without re-applying.
+                }
+            }
+        }
+
+        // Restore ability cooldown timestamps
+        upgrades.abilities.clearCooldowns();
+        int cooldowns = Math.min(data.cooldownIds.length, data.cooldownTimestamps.length);
+        for (int i = 0; i < cooldowns; i++) {
+            upgrades.abilities.setCooldown(data.cooldownIds[i], data.cooldownTimestamps[i]);
+        }
+    }
+
+    // Adds what was earned between lastClosedTime and now to gameData, see OfflineResult.compute()
+    public static OfflineResult offlineProgress(GameData gameData, long lastClosedTime, double incomeRate, long now) {
+        OfflineResult result = OfflineResult.compute(gameData.rps, gameData.dropsToFill, gameData.currencyGained,
+            gameData.cps, gameData.maxIdleTime, lastClosedTime, incomeRate, now);
+        gameData.currency += result.earned();
+        return result;
+    }
+
+    // The same for a save that isn't loaded into a game: adds the earnings to data.currency.
+    // lastClosedTime is left alone, the caller decides whether the time away has been used up
+    public static OfflineResult offlineProgress(SaveData data, long now) {
+        OfflineResult result = pendingOffline(data, now);
+        data.currency += result.earned();
+        return result;
+    }
+
+    // What offlineProgress() would add right now, without changing the save
+    public static OfflineResult pendingOffline(SaveData data, long now) {
+        return OfflineResult.compute(data.rps, data.dropsToFill, data.currencyEarned, data.cps,
+            data.maxIdleTime, data.lastClosedTime, data.incomeRate, now);
+    }
+
+    private static int indexOf(String[] ids, String id) {
+        for (int i = 0; i < ids.length; i++) if (id.equals(ids[i])) return i;
+        return -1;
+    }
+}
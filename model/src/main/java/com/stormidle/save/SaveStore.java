@@ -0,0 +1,57 @@
+package com.stormidle.save;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// Where one save file lives. The game keeps it in libGDX's local storage (see SaveManager), tools and servers
+// in plain files with forPath().
+
+public interface SaveStore {
+
+    boolean exists();
+
+    // The whole file as text
+    String read();
+
+    // Replaces the whole file
+    void write(String text);
+
+    // A file on disk. Writes go to a temporary file next to it first, so a crash mid-write leaves the old save
+    static SaveStore forPath(Path path) {
+        return new SaveStore() {
+            @Override
+            public boolean exists() {
+                return Files.exists(path);
+            }
+
+            @Override
+            public String read() {
+                try {
+                    return Files.readString(path, StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void write(String text) {
+                Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+                try {
+                    Files.writeString(temp, text, StandardCharsets.UTF_8);
+                    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public String toString() {
+                return path.toString();
+            }
+        };
+    }
+}
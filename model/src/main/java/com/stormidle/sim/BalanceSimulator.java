@@ -0,0 +1,164 @@
+package com.stormidle.sim;
+
+import com.stormidle.upgrades.PrestigeManager;
+import com.stormidle.upgrades.UpgradeDefinitions;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Headless Monte Carlo balance simulator. Plays thousands of games per strategy against the current
+// upgrades.json on every core and reports how long each prestige level takes.
+//
+//   gradle model:simulate --args="--runs 5000 --years 5"
+//
+// Options: --runs N (per strategy, default 2000), --years N (time cap per game, default 10),
+// --seed N, --threads N, --definitions path (default assets/upgrades.json), --out path (default build/balance-sim.csv).
+// Runs are seeded by index, so the same seed always gives the same numbers however many threads are used.
+
+public class BalanceSimulator {
+
+    private static final double SECONDS_PER_YEAR = 365.0 * 24 * 3600;
+
+    // Runs this small are played on the current thread instead of split further
+    private static final int LEAF_RUNS = 32;
+
+    public static void main(String[] args) throws IOException {
+        int runs = 2000;
+        double years = 10;
+        long seed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String definitionsPath = "assets/upgrades.json";
+        String outPath = "build/balance-sim.csv";
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--runs":        runs = Integer.parseInt(args[i + 1]); break;
+                case "--years":       years = Double.parseDouble(args[i + 1]); break;
+                case "--seed":        seed = Long.parseLong(args[i + 1]); break;
+                case "--threads":     threads = Integer.parseInt(args[i + 1]); break;
+                case "--definitions": definitionsPath = args[i + 1]; break;
+                case "--out":         outPath = args[i + 1]; break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        UpgradeDefinitions definitions = UpgradeDefinitions.parse(Files.readString(Path.of(definitionsPath)));
+        int levels = new PrestigeManager(definitions).maxLevel();
+        Strategy[] strategies = Strategy.defaults();
+
+        double[][] prestigeTimes = new double[strategies.length][runs * levels];
+        double[][] simulated     = new double[strategies.length][runs];
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        for (int s = 0; s < strategies.length; s++) {
+            pool.invoke(new Batch(strategies[s], s, definitions, seed, years * SECONDS_PER_YEAR,
+                prestigeTimes[s], simulated[s], levels, 0, runs));
+        }
+        pool.shutdown();
+        double wallSeconds = (System.nanoTime() - start) / 1e9;
+
+        double simulatedYears = 0;
+        for (double[] perRun : simulated) for (double t : perRun) simulatedYears += t / SECONDS_PER_YEAR;
+
+        File out = new File(outPath);
+        if (out.getParentFile() != null) out.getParentFile().mkdirs();
+        try (PrintWriter csv = new PrintWriter(out, "UTF-8")) {
+            csv.println("strategy,level,runs,reached,mean_hours,p10_hours,p50_hours,p90_hours");
+            for (int s = 0; s < strategies.length; s++) {
+                System.out.println(strategies[s].name);
+                for (int level = 0; level < levels; level++) {
+                    summarize(strategies[s].name, level, prestigeTimes[s], runs, levels, csv);
+                }
+            }
+        }
+
+        System.out.printf("%d games, %.0f game-years in %.2fs on %d threads (%.0f game-years per core-second)%n",
+            runs * strategies.length, simulatedYears, wallSeconds, threads, simulatedYears / (wallSeconds * threads));
+        System.out.println("Wrote " + out.getPath());
+    }
+
+    // Prints one line per prestige level and appends it to the CSV
+    private static void summarize(String strategy, int level, double[] times, int runs, int levels, PrintWriter csv) {
+        double[] reached = new double[runs];
+        int count = 0;
+        double sum = 0;
+        for (int r = 0; r < runs; r++) {
+            double t = times[r * levels + level];
+            if (Double.isNaN(t)) continue;
+            reached[count++] = t / 3600.0;
+            sum += t / 3600.0;
+        }
+        Arrays.sort(reached, 0, count);
+
+        double mean = count > 0 ? sum / count : Double.NaN;
+        double p10 = percentile(reached, count, 0.10);
+        double p50 = percentile(reached, count, 0.50);
+        double p90 = percentile(reached, count, 0.90);
+
+        System.out.printf("  prestige %d: %5.1f%% reached  mean %8.2fh  p10 %8.2fh  p50 %8.2fh  p90 %8.2fh%n",
+            level + 1, 100.0 * count / runs, mean, p10, p50, p90);
+        csv.printf("%s,%d,%d,%d,%.4f,%.4f,%.4f,%.4f%n", strategy, level + 1, runs, count, mean, p10, p50, p90);
+    }
+
+    private static double percentile(double[] sorted, int count, double p) {
+        if (count == 0) return Double.NaN;
+        return sorted[Math.min(count - 1, (int) (p * count))];
+    }
+
+    // Plays runs [from, to) of one strategy, splitting in half until the batch is small enough.
+    // Serializable only because ForkJoinTask is, batches are never serialized
+    @SuppressWarnings("serial")
+    private static class Batch extends RecursiveAction {
+        private final Strategy strategy;
+        private final int strategyIndex;
+        private final UpgradeDefinitions definitions;
+        private final long seed;
+        private final double maxSeconds;
+        private final double[] prestigeTimes;
+        private final double[] simulated;
+        private final int levels;
+        private final int from;
+        private final int to;
+
+        Batch(Strategy strategy, int strategyIndex, UpgradeDefinitions definitions, long seed, double maxSeconds,
+              double[] prestigeTimes, double[] simulated, int levels, int from, int to) {
+            this.strategy      = strategy;
+            this.strategyIndex = strategyIndex;
+            this.definitions   = definitions;
+            this.seed          = seed;
+            this.maxSeconds    = maxSeconds;
+            this.prestigeTimes = prestigeTimes;
+            this.simulated     = simulated;
+            this.levels        = levels;
+            this.from          = from;
+            this.to            = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_RUNS) {
+                int mid = (from + to) >>> 1;
+                invokeAll(
+                    new Batch(strategy, strategyIndex, definitions, seed, maxSeconds, prestigeTimes, simulated,
+                        levels, from, mid),
+                    new Batch(strategy, strategyIndex, definitions, seed, maxSeconds, prestigeTimes, simulated,
+                        levels, mid, to));
+                return;
+            }
+            for (int run = from; run < to; run++) {
+                SplittableRandom random = new SplittableRandom(
+                    seed ^ (strategyIndex * 0x9E3779B97F4A7C15L) ^ (run * 0xC2B2AE3D27D4EB4FL));
+                simulated[run] = new Playthrough(strategy, definitions, random, maxSeconds)
+                    .run(prestigeTimes, run * levels);
+            }
+        }
+    }
+}
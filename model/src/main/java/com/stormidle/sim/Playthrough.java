@@ -0,0 +1,177 @@
+package com.stormidle.sim;
+
+import com.stormidle.objects.GameData;
+import com.stormidle.objects.Income;
+import com.stormidle.upgrades.AbilityDefinition;
+import com.stormidle.upgrades.PrestigeManager;
+import com.stormidle.upgrades.UpgradeDefinitions;
+import com.stormidle.upgrades.UpgradeManager;
+import com.stormidle.upgrades.UpgradeTier;
+import com.stormidle.upgrades.UpgradeTree;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// One simulated game from a fresh save to the last prestige level, using the real GameData,
+// UpgradeManager and AbilityManager. Income only changes when something is bought, an ability starts or ends,
+// or the player prestiges, so instead of ticking frames the simulation jumps straight from one of those
+// decision points to the next and adds rate * time in between.
+
+class Playthrough {
+
+    private final Strategy strategy;
+    private final SplittableRandom random;
+    private final double maxSeconds;
+
+    private final GameData gameData = new GameData();
+    private final GameData scratch  = new GameData();
+    private final UpgradeManager upgrades;
+
+    private final double clicksPerSecond;
+    private double time   = 0; // Seconds of game time
+    private double wallet = 0; // Currency including the fraction GameData's int can't hold
+
+    // Target chosen at the last decision point, and when the player gets round to buying it
+    private UpgradeTree targetTree;
+    private double targetReadyAt;
+
+    Playthrough(Strategy strategy, UpgradeDefinitions definitions, SplittableRandom random, double maxSeconds) {
+        this.strategy   = strategy;
+        this.random     = random;
+        this.maxSeconds = maxSeconds;
+        this.upgrades   = new UpgradeManager(gameData, definitions);
+        upgrades.abilities.setClock(this::clock);
+
+        // Some players click faster than others, spread the strategy's rate by about +-25%
+        clicksPerSecond = strategy.clicksPerSecond * Math.exp(random.nextGaussian() * 0.25);
+    }
+
+    // Plays until the last prestige or the time cap and returns the game time simulated.
+    // prestigeTimes[offset + level] gets the game time at which prestige level + 1 was reached, or NaN
+    double run(double[] prestigeTimes, int offset) {
+        Arrays.fill(prestigeTimes, offset, offset + upgrades.prestige.maxLevel(), Double.NaN);
+
+        while (time < maxSeconds && gameData.prestigeLevel < upgrades.prestige.maxLevel()) {
+            if (upgrades.prestige.canPrestige(gameData.prestigeLevel, gameData.currency)) {
+                prestigeTimes[offset + gameData.prestigeLevel] = time;
+                PrestigeManager.doPrestige(gameData, upgrades);
+                upgrades.abilities.setClock(this::clock);
+                wallet = 0;
+                targetTree = null;
+                continue;
+            }
+
+            if (strategy.useAbilities) tryAbility();
+            if (targetTree == null) pickTarget();
+
+            double rate = rate();
+            double next = nextDecision(rate);
+            if (Double.isInfinite(next)) break; // Nothing will ever change, the player is stuck
+
+            advance(Math.min(next, maxSeconds - time), rate);
+
+            if (targetTree != null && time >= targetReadyAt) {
+                int index = targetTree.purchasedCount();
+                int before = gameData.currency;
+                if (UpgradeTier.tryPurchase(targetTree, index, gameData)) {
+                    wallet -= before - gameData.currency;
+                    targetTree = null;
+                }
+            }
+        }
+        return time;
+    }
+
+    // Seconds until the next moment something changes
+    private double nextDecision(double rate) {
+        double next = Double.POSITIVE_INFINITY;
+
+        int threshold = upgrades.prestige.nextThreshold(gameData.prestigeLevel);
+        if (rate > 0) next = Math.max(0, (threshold - wallet) / rate);
+
+        if (targetTree != null) {
+            // Bought once it's affordable and the player has noticed, whichever comes last
+            double missing = Math.max(0, targetTree.get(targetTree.purchasedCount()).cost - wallet);
+            if (missing == 0 || rate > 0) {
+                double affordIn = missing == 0 ? 0 : missing / rate;
+                next = Math.min(next, Math.max(affordIn, targetReadyAt - time));
+            }
+        }
+
+        if (upgrades.abilities.isAnyAbilityActive()) {
+            next = Math.min(next, upgrades.abilities.getActiveTimeRemaining());
+        } else if (strategy.useAbilities) {
+            for (AbilityDefinition def : upgrades.abilities.abilities) {
+                float cooldown = upgrades.abilities.getCooldownRemaining(def.id);
+                if (cooldown > 0) next = Math.min(next, cooldown);
+            }
+        }
+        // Never stand still on a decision that didn't change anything
+        return Math.max(next, 1e-3);
+    }
+
+    private void advance(double seconds, double rate) {
+        time   += seconds;
+        wallet += rate * seconds;
+        gameData.currency = (int) Math.min(Integer.MAX_VALUE, wallet);
+        upgrades.abilities.tick((float) seconds, gameData);
+    }
+
+    private double rate() {
+        return Income.currencyPerSecond(gameData, clicksPerSecond, upgrades.abilities.isHurricaneActive());
+    }
+
+    private long clock() {
+        return (long) time;
+    }
+
+    // Chooses the next tier to save up for according to the strategy, and when the player will react to it
+    private void pickTarget() {
+        double rate = rate();
+        UpgradeTree best = null;
+        double bestScore = Double.POSITIVE_INFINITY;
+
+        for (UpgradeTree tree : upgrades.getAllTrees()) {
+            int index = tree.purchasedCount();
+            if (index >= tree.size() || !tree.isUnlocked(index)) continue;
+            UpgradeTier tier = tree.get(index);
+
+            double score;
+            if (strategy.policy == Strategy.PurchasePolicy.CHEAPEST) {
+                score = tier.cost;
+            } else {
+                scratch.copyFrom(gameData);
+                tier.applyEffect(scratch);
+                double gain = Income.currencyPerSecond(scratch, clicksPerSecond, false)
+                    - Income.currencyPerSecond(gameData, clicksPerSecond, false);
+                if (gain <= 0) continue; // Doesn't earn anything, an optimizer never buys it
+                double wait = rate > 0 ? Math.max(0, tier.cost - wallet) / rate : Double.POSITIVE_INFINITY;
+                score = wait + tier.cost / gain;
+            }
+            if (score < bestScore) {
+                bestScore = score;
+                best = tree;
+            }
+        }
+
+        targetTree = best;
+        if (best != null) {
+            double affordIn = rate > 0
+                ? Math.max(0, best.get(best.purchasedCount()).cost - wallet) / rate : 0;
+            targetReadyAt = time + affordIn - Math.log(1 - random.nextDouble()) * strategy.reactionSeconds;
+        }
+    }
+
+    // Fires any ability that is ready and costs at most a tenth of the wallet
+    private void tryAbility() {
+        if (upgrades.abilities.isAnyAbilityActive()) return;
+        for (AbilityDefinition def : upgrades.abilities.abilities) {
+            if (def.cost * 10L > gameData.currency) continue;
+            int before = gameData.currency;
+            if (upgrades.abilities.tryActivate(def.id, gameData)) {
+                wallet -= before - gameData.currency;
+                return;
+            }
+        }
+    }
+}
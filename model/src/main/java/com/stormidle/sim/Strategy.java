@@ -0,0 +1,38 @@
+package com.stormidle.sim;
+
+// How a simulated player plays: how fast they click, how they pick upgrades and whether they use abilities.
+// Click rate and reaction time are means, every playthrough draws its own values around them.
+
+public class Strategy {
+
+    // Which upgrade a player saves up for next
+    public enum PurchasePolicy {
+        CHEAPEST, // Next tier with the lowest cost, whatever it does
+        BEST_ROI  // Next tier that pays for itself soonest, counting the wait to afford it
+    }
+
+    public final String name;
+    public final double clicksPerSecond;
+    public final double reactionSeconds; // Mean delay between affording something and buying it
+    public final PurchasePolicy policy;
+    public final boolean useAbilities;
+
+    public Strategy(String name, double clicksPerSecond, double reactionSeconds,
+                    PurchasePolicy policy, boolean useAbilities) {
+        this.name            = name;
+        this.clicksPerSecond = clicksPerSecond;
+        this.reactionSeconds = reactionSeconds;
+        this.policy          = policy;
+        this.useAbilities    = useAbilities;
+    }
+
+    // The player types the simulator compares by default
+    public static Strategy[] defaults() {
+        return new Strategy[]{
+            new Strategy("idle",      0.2, 600, PurchasePolicy.CHEAPEST, false),
+            new Strategy("casual",    1.0,  30, PurchasePolicy.CHEAPEST, true),
+            new Strategy("active",    4.0,   5, PurchasePolicy.BEST_ROI, true),
+            new Strategy("optimizer", 8.0,   1, PurchasePolicy.BEST_ROI, true)
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.stormidle.stats;
+
+// One achievement: unlocked once a lifetime statistic reaches its threshold.
+// Built by UpgradeDefinitions from the "achievements" list in assets/upgrades.json.
+
+public class Achievement {
+
+    public final String id;          // Unique identifier
+    public final String name;        // Display name shown when unlocked
+    public final String description; // One-line description
+    public final int stat;           // Statistics counter it watches, e.g. Statistics.DROPS
+    public final long threshold;     // Counter value that unlocks it
+
+    public Achievement(String id, String name, String description, int stat, long threshold) {
+        this.id          = id;
+        this.name        = name;
+        this.description = description;
+        this.stat        = stat;
+        this.threshold   = threshold;
+    }
+}
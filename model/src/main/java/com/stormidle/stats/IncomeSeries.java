@@ -0,0 +1,205 @@
+package com.stormidle.stats;
+
+// Currency earned per second over the last minute, hour and day, plus a smoothed current rate.
+//
+// Three fixed rings of per-second, per-minute and per-hour averages. Every full second pushes one sample into
+// the seconds ring. Each completed minute is averaged down into the minutes ring, and each completed hour into
+// the hours ring. Running sums make every window average O(1). Nothing is allocated after construction.
+//
+// rate() is an exponential moving average of the per-second samples. The HUD shows it, and SaveManager uses
+// it for offline progress, so both work from the same estimate instead of going back over raw history.
+// The average starts from nothing, so until it has a full window behind it rate() is bias-corrected (divided by
+// the weight the samples so far carry) and settledRate() reports -1, which offline progress treats as unknown.
+
+public class IncomeSeries {
+
+    public static final int SECONDS = 60;
+    public static final int MINUTES = 60;
+    public static final int HOURS   = 24;
+
+    // Time constant of the moving average
+    private static final double RATE_WINDOW_SECONDS = 300;
+    private static final double RATE_ALPHA = 1 - Math.exp(-1 / RATE_WINDOW_SECONDS);
+
+    private final Ring seconds = new Ring(SECONDS);
+    private final Ring minutes = new Ring(MINUTES);
+    private final Ring hours   = new Ring(HOURS);
+
+    // Partial second, minute and hour not yet pushed
+    private float elapsed;
+    private double earned;
+    private double minuteSum;
+    private int secondsInMinute;
+    private double hourSum;
+    private int minutesInHour;
+
+    private long lastTotal = -1;
+    private double rate;           // Uncorrected moving average
+    private double startWeight = 1; // Weight the average still gives its zero start, (1 - RATE_ALPHA)^samples
+    private int warmSeconds;        // Samples behind the average, counted up to RATE_WINDOW_SECONDS
+    private long samples;           // Per-second samples recorded since construction
+
+    // Call once per frame with the lifetime currency earned (Statistics.CURRENCY_EARNED).
+    // Returns true if at least one new per-second sample was recorded
+    public boolean tick(float delta, long totalEarned) {
+        if (lastTotal >= 0) earned += totalEarned - lastTotal;
+        lastTotal = totalEarned;
+        elapsed += delta;
+        if (elapsed < 1f) return false;
+
+        // A long frame spans several seconds, spread what it earned evenly over them
+        while (elapsed >= 1f) {
+            float sample = (float) (earned / elapsed);
+            earned  -= sample;
+            elapsed -= 1f;
+            pushSecond(sample);
+        }
+        return true;
+    }
+
+    private void pushSecond(float sample) {
+        samples++;
+        seconds.push(sample);
+        rate += RATE_ALPHA * (sample - rate);
+        startWeight *= 1 - RATE_ALPHA;
+        if (warmSeconds < RATE_WINDOW_SECONDS) warmSeconds++;
+
+        minuteSum += sample;
+        if (++secondsInMinute < 60) return;
+        float minute = (float) (minuteSum / 60);
+        minuteSum = 0;
+        secondsInMinute = 0;
+        minutes.push(minute);
+
+        hourSum += minute;
+        if (++minutesInHour < 60) return;
+        hours.push((float) (hourSum / 60));
+        hourSum = 0;
+        minutesInHour = 0;
+    }
+
+    // Smoothed currency per second
+    public double rate() {
+        return startWeight < 1 ? rate / (1 - startWeight) : 0;
+    }
+
+    // Smoothed currency per second once a full window has been averaged, -1 before that.
+    // This is what gets saved for offline progress
+    public double settledRate() {
+        return warmSeconds >= RATE_WINDOW_SECONDS ? rate() : -1;
+    }
+
+    // Average currency per second over each window. Until a window has a full sample it falls back to the
+    // finer one
+    public double lastMinute() {
+        return seconds.average();
+    }
+
+    public double lastHour() {
+        return minutes.size > 0 ? minutes.average() : lastMinute();
+    }
+
+    public double lastDay() {
+        return hours.size > 0 ? hours.average() : lastHour();
+    }
+
+    // Grows with every per-second sample, so a copy can tell whether it is behind
+    public long samples() {
+        return samples;
+    }
+
+    // Makes this an exact copy of other, for a thread that must not read the live series. Allocates nothing
+    public void copyFrom(IncomeSeries other) {
+        seconds.copyFrom(other.seconds);
+        minutes.copyFrom(other.minutes);
+        hours.copyFrom(other.hours);
+        elapsed         = other.elapsed;
+        earned          = other.earned;
+        minuteSum       = other.minuteSum;
+        secondsInMinute = other.secondsInMinute;
+        hourSum         = other.hourSum;
+        minutesInHour   = other.minutesInHour;
+        lastTotal       = other.lastTotal;
+        rate            = other.rate;
+        startWeight     = other.startWeight;
+        warmSeconds     = other.warmSeconds;
+        samples         = other.samples;
+    }
+
+    // Per-second samples for the graph, age 0 is the newest
+    public int secondSamples() {
+        return seconds.size;
+    }
+
+    public float secondSample(int age) {
+        return seconds.get(age);
+    }
+
+    // Saved history, oldest first. The seconds ring and partial minutes aren't worth saving
+    public float[] minuteHistory() {
+        return minutes.toArray();
+    }
+
+    public float[] hourHistory() {
+        return hours.toArray();
+    }
+
+    // rate is a saved settledRate(). A settled one carries on as is, -1 starts the average over
+    public void restore(double rate, float[] minuteHistory, float[] hourHistory) {
+        boolean settled = rate >= 0;
+        this.rate   = settled ? rate : 0;
+        startWeight = settled ? 0 : 1;
+        warmSeconds = settled ? (int) RATE_WINDOW_SECONDS : 0;
+        minutes.load(minuteHistory);
+        hours.load(hourHistory);
+    }
+
+    // Fixed-size ring of floats with a running sum
+    private static class Ring {
+        private final float[] values;
+        private int head; // Next slot to write
+        private int size;
+        private double sum;
+
+        Ring(int capacity) {
+            values = new float[capacity];
+        }
+
+        void push(float value) {
+            if (size == values.length) sum -= values[head];
+            else size++;
+            values[head] = value;
+            sum += value;
+            head = (head + 1) % values.length;
+        }
+
+        float get(int age) {
+            return values[(head - 1 - age + values.length * 2) % values.length];
+        }
+
+        void copyFrom(Ring other) {
+            System.arraycopy(other.values, 0, values, 0, values.length);
+            head = other.head;
+            size = other.size;
+            sum  = other.sum;
+        }
+
+        double average() {
+            return size > 0 ? sum / size : 0;
+        }
+
+        float[] toArray() {
+            float[] out = new float[size];
+            for (int i = 0; i < size; i++) out[i] = get(size - 1 - i);
+            return out;
+        }
+
+        void load(float[] saved) {
+            head = 0;
+            size = 0;
+            sum  = 0;
+            if (saved == null) return;
+            for (int i = Math.max(0, saved.length - values.length); i < saved.length; i++) push(saved[i]);
+        }
+    }
+}
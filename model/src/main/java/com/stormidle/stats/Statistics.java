@@ -0,0 +1,136 @@
+package com.stormidle.stats;
+
+import java.util.List;
+
+// Lifetime statistics and the achievements unlocked by them. Unlike the rest of GameData these survive prestige.
+//
+// add() only bumps a pending counter, so it is cheap enough to call from any event. flush() runs once per frame:
+// it folds the pending counts into the totals and checks achievements for the counters that moved.
+// Achievements are grouped by the counter they watch and sorted by threshold, and each counter remembers the
+// first one it hasn't reached yet. A flush only looks at the thresholds it just crossed, plus one.
+// Unlocked achievements follow from the totals, so only the totals are saved.
+
+public class Statistics {
+
+    public static final int DROPS           = 0; // Raindrops that reached the bowl
+    public static final int CONVERSIONS     = 1; // Full bowls turned into currency
+    public static final int CLICKS          = 2; // Cloud clicks
+    public static final int CURRENCY_EARNED = 3; // From conversions and condensation, not offline progress
+    public static final int PRESTIGES       = 4;
+    public static final int ABILITIES_USED  = 5;
+    public static final int COUNT           = 6;
+
+    // Names used in upgrades.json, indexed by counter
+    private static final String[] NAMES = {
+        "drops", "conversions", "clicks", "currencyEarned", "prestiges", "abilitiesUsed"
+    };
+
+    public interface UnlockListener {
+        void onUnlocked(Achievement achievement);
+    }
+
+    private final long[] totals  = new long[COUNT];
+    private final long[] pending = new long[COUNT];
+    private int dirty; // Bit per counter with pending increments
+
+    private Achievement[][] byStat = new Achievement[COUNT][0]; // Sorted by threshold
+    private final int[] next = new int[COUNT]; // First achievement of each counter not yet unlocked
+
+    public void add(int stat, long amount) {
+        pending[stat] += amount;
+        dirty |= 1 << stat;
+    }
+
+    // Applies this frame's increments and reports every achievement they unlocked
+    public void flush(UnlockListener listener) {
+        while (dirty != 0) {
+            int stat = Integer.numberOfTrailingZeros(dirty);
+            dirty &= dirty - 1;
+
+            long total = totals[stat] += pending[stat];
+            pending[stat] = 0;
+
+            Achievement[] watching = byStat[stat];
+            while (next[stat] < watching.length && watching[next[stat]].threshold <= total) {
+                listener.onUnlocked(watching[next[stat]++]);
+            }
+        }
+    }
+
+    public long get(int stat) {
+        return totals[stat] + pending[stat];
+    }
+
+    // Replaces the achievement list, e.g. after the definitions are reloaded. Already reached ones stay quiet
+    public void setAchievements(List<Achievement> achievements) {
+        int[] counts = new int[COUNT];
+        for (Achievement a : achievements) counts[a.stat]++;
+
+        Achievement[][] grouped = new Achievement[COUNT][];
+        for (int stat = 0; stat < COUNT; stat++) {
+            grouped[stat] = new Achievement[counts[stat]];
+            counts[stat] = 0;
+        }
+        for (Achievement a : achievements) {
+            Achievement[] group = grouped[a.stat];
+            // Insertion sort, a counter only has a handful of achievements
+            int at = counts[a.stat]++;
+            while (at > 0 && group[at - 1].threshold > a.threshold) {
+                group[at] = group[at - 1];
+                at--;
+            }
+            group[at] = a;
+        }
+        byStat = grouped;
+        skipReached();
+    }
+
+    public boolean isUnlocked(Achievement achievement) {
+        return get(achievement.stat) >= achievement.threshold;
+    }
+
+    public int unlockedCount() {
+        int unlocked = 0;
+        for (int stat = 0; stat < COUNT; stat++) unlocked += next[stat];
+        return unlocked;
+    }
+
+    public int achievementCount() {
+        int count = 0;
+        for (Achievement[] group : byStat) count += group.length;
+        return count;
+    }
+
+    // Totals for the save file, indexed by counter
+    public long[] toArray() {
+        long[] saved = new long[COUNT];
+        for (int stat = 0; stat < COUNT; stat++) saved[stat] = get(stat);
+        return saved;
+    }
+
+    // Restores saved totals. Older saves may have fewer counters, the rest start at zero
+    public void load(long[] saved) {
+        for (int stat = 0; stat < COUNT; stat++) {
+            totals[stat]  = saved != null && stat < saved.length ? saved[stat] : 0;
+            pending[stat] = 0;
+        }
+        dirty = 0;
+        skipReached();
+    }
+
+    // Counter index for a name from upgrades.json, or -1
+    public static int statOf(String name) {
+        for (int stat = 0; stat < COUNT; stat++) if (NAMES[stat].equals(name)) return stat;
+        return -1;
+    }
+
+    // Moves each counter past the achievements it already reached without reporting them
+    private void skipReached() {
+        for (int stat = 0; stat < COUNT; stat++) {
+            Achievement[] watching = byStat[stat];
+            int i = 0;
+            while (i < watching.length && watching[i].threshold <= totals[stat]) i++;
+            next[stat] = i;
+        }
+    }
+}
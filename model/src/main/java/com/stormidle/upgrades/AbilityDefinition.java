@@ -1,7 +1,7 @@
 package com.stormidle.upgrades;
 
-// Describes a single ability — its identity, cost, duration, and cooldown.
-// AbilityManager holds instances of these and applies their effects at runtime.
+// Describes a single ability — its identity, cost, duration, cooldown and effect.
+// Built by UpgradeDefinitions from assets/upgrades.json. AbilityManager applies the effects at runtime.
 
 public class AbilityDefinition {
 
@@ -11,14 +11,16 @@ public class AbilityDefinition {
     public final int cost;           // Currency cost to activate
     public final float duration;     // How long the effect lasts in seconds
     public final float cooldown;     // How long before it can be bought again in seconds
+    public final Effect effect;      // Applied on activation, undone on expiry
 
     public AbilityDefinition(String id, String name, String description,
-                             int cost, float duration, float cooldown) {
+                             int cost, float duration, float cooldown, Effect effect) {
         this.id          = id;
         this.name        = name;
         this.description = description;
         this.cost        = cost;
         this.duration    = duration;
         this.cooldown    = cooldown;
+        this.effect      = effect;
     }
 }
@@ -0,0 +1,185 @@
+package com.stormidle.upgrades;
+
+import com.stormidle.objects.GameData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+// Manages all abilities: definitions, active state, cooldowns, and effects.
+// GameScreen calls tick() every frame and tryActivate() when the player buys one.
+// The abilities themselves come from UpgradeDefinitions. Hurricane has no stat effect, GameScreen checks
+// isHurricaneActive() instead.
+
+public class AbilityManager {
+
+    public static final float COOLDOWN_SECONDS   = 20f * 60f; // 20 minutes
+    public static final String ID_HURRICANE      = "hurricane";
+    public static final String ID_BIG_MONEY      = "big_money";
+    public static final String ID_DOWNPOUR       = "downpour";
+    public static final String ID_GOLDEN_HOUR    = "golden_hour";
+
+    public final List<AbilityDefinition> abilities = new ArrayList<>();
+
+    private String activeAbilityId      = null;
+    private float  activeTimeRemaining  = 0f;
+
+    // Persisted cooldown timestamps as parallel arrays: ability id and unix timestamp of its last activation.
+    // There are only a handful of abilities, so lookups are a scan and nothing is boxed
+    private String[] cooldownIds  = new String[4];
+    private long[]   cooldownTimes = new long[4];
+    private int      cooldownCount;
+
+    // Source of "now" in unix seconds for cooldowns. The balance simulator swaps in a simulated clock
+    private LongSupplier clock = () -> System.currentTimeMillis() / 1000L;
+
+    // Backed-up GameData values (indexed by Effect.STAT_*) so we can cleanly restore them on expiry
+    private final float[] savedStats = new float[Effect.STAT_COUNT];
+
+    public AbilityManager(UpgradeDefinitions definitions) {
+        abilities.addAll(definitions.abilities);
+    }
+
+    // Swaps in reloaded ability definitions. Cooldowns carry over, and an ability that is running keeps
+    // running with its new effect on top of the current stats
+    public void applyDefinitions(UpgradeDefinitions definitions, GameData gameData) {
+        abilities.clear();
+        abilities.addAll(definitions.abilities);
+
+        if (activeAbilityId == null) return;
+        AbilityDefinition def = getActiveAbility();
+        if (def == null) {
+            activeAbilityId     = null;
+            activeTimeRemaining = 0f;
+            return;
+        }
+        Effect.snapshot(gameData, savedStats);
+        def.effect.apply(gameData);
+    }
+
+    public void setClock(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public AbilityDefinition getActiveAbility() {
+        if (activeAbilityId == null) return null;
+        for (AbilityDefinition def : abilities) {
+            if (def.id.equals(activeAbilityId)) return def;
+        }
+        return null;
+    }
+
+    public float getActiveTimeRemaining() { return activeTimeRemaining; }
+    public boolean isAnyAbilityActive()   { return activeAbilityId != null; }
+
+    public boolean isOnCooldown(String id) {
+        int i = cooldownIndex(id);
+        if (i < 0) return false;
+        long elapsed = clock.getAsLong() - cooldownTimes[i];
+        return elapsed < (long) COOLDOWN_SECONDS;
+    }
+
+    public float getCooldownRemaining(String id) {
+        int i = cooldownIndex(id);
+        if (i < 0) return 0f;
+        long elapsed = clock.getAsLong() - cooldownTimes[i];
+        return Math.max(0f, COOLDOWN_SECONDS - elapsed);
+    }
+
+    // Unix timestamp of the ability's last activation, or 0 if it has never been used
+    public long getLastUsed(String id) {
+        int i = cooldownIndex(id);
+        return i < 0 ? 0L : cooldownTimes[i];
+    }
+
+    // Stored cooldowns in the order they were first set, for save files
+    public int cooldownCount()              { return cooldownCount; }
+    public String cooldownId(int index)     { return cooldownIds[index]; }
+    public long cooldownTimestamp(int index) { return cooldownTimes[index]; }
+
+    public void clearCooldowns() {
+        Arrays.fill(cooldownIds, 0, cooldownCount, null);
+        cooldownCount = 0;
+    }
+
+    // Records an activation time, replacing any earlier one for the same ability
+    public void setCooldown(String id, long timestamp) {
+        int i = cooldownIndex(id);
+        if (i < 0) {
+            if (cooldownCount == cooldownIds.length) {
+                cooldownIds   = Arrays.copyOf(cooldownIds, cooldownCount * 2);
+                cooldownTimes = Arrays.copyOf(cooldownTimes, cooldownCount * 2);
+            }
+            i = cooldownCount++;
+            cooldownIds[i] = id;
+        }
+        cooldownTimes[i] = timestamp;
+    }
+
+    private int cooldownIndex(String id) {
+        for (int i = 0; i < cooldownCount; i++) if (cooldownIds[i].equals(id)) return i;
+        return -1;
+    }
+
+    // Attempts to activate ability. Returns false if blocked (another active, on cooldown, can't afford).
+    public boolean tryActivate(String abilityId, GameData gameData) {
+        if (isAnyAbilityActive())    return false;
+        if (isOnCooldown(abilityId)) return false;
+
+        AbilityDefinition def = null;
+        for (AbilityDefinition d : abilities) { if (d.id.equals(abilityId)) { def = d; break; } }
+        if (def == null || gameData.currency < def.cost) return false;
+
+        gameData.currency -= def.cost;
+
+        // Back up values before modifying them
+        Effect.snapshot(gameData, savedStats);
+        def.effect.apply(gameData);
+
+        activeAbilityId     = abilityId;
+        activeTimeRemaining = def.duration;
+        setCooldown(abilityId, clock.getAsLong());
+        return true;
+    }
+
+    // Called every frame from GameScreen to tick the active ability timer
+    public void tick(float delta, GameData gameData) {
+        if (activeAbilityId == null) return;
+        activeTimeRemaining -= delta;
+        if (activeTimeRemaining <= 0f) expireActive(gameData);
+    }
+
+    private void expireActive(GameData gameData) {
+        AbilityDefinition def = getActiveAbility();
+        if (def != null) def.effect.restore(gameData, savedStats);
+        activeAbilityId     = null;
+        activeTimeRemaining = 0f;
+    }
+
+    // Copies the stats the running ability will restore on expiry, indexed by Effect.STAT_*
+    public void copySavedStats(float[] out) {
+        System.arraycopy(savedStats, 0, out, 0, savedStats.length);
+    }
+
+    // Puts a running ability back after MappedState recovered a crashed session.
+    // gameData already holds the boosted stats, saved are the ones to restore on expiry
+    public void resumeActive(String abilityId, float remaining, float[] saved) {
+        activeAbilityId     = abilityId;
+        activeTimeRemaining = remaining;
+        System.arraycopy(saved, 0, savedStats, 0, savedStats.length);
+    }
+
+    // Shows the given running ability and cooldowns without applying any effect. For a copy that only displays the
+    // state of a manager another thread runs
+    public void mirror(String activeId, float remaining, String[] ids, long[] timestamps, int count) {
+        activeAbilityId     = activeId;
+        activeTimeRemaining = remaining;
+        clearCooldowns();
+        for (int i = 0; i < count; i++) setCooldown(ids[i], timestamps[i]);
+    }
+
+    public boolean isHurricaneActive() {
+        return ID_HURRICANE.equals(activeAbilityId);
+    }
+}
@@ -0,0 +1,20 @@
+package com.stormidle.upgrades;
+
+import com.stormidle.objects.GameData;
+
+// Manages the "Auto" upgrade trees
+// Tiers, costs and effects live in assets/upgrades.json, see UpgradeDefinitions
+
+public class AutoUpgrades {
+
+    // Upgrade trees stored as indexed arrays (index 0 = tier 1, etc)
+    public final UpgradeTree autoTree;     // Drops generated per second, description scales with rainMultiplier
+    public final UpgradeTree idleTimeTree; // Max hours of offline progress
+
+    // Constructor
+    // Builds fresh copies of the upgrade trees from their definitions
+    public AutoUpgrades(UpgradeDefinitions definitions, GameData gameData) {
+        autoTree     = definitions.createTree(UpgradeTier.TREE_AUTO, gameData);
+        idleTimeTree = definitions.createTree(UpgradeTier.TREE_IDLE, gameData);
+    }
+}
@@ -0,0 +1,80 @@
+package com.stormidle.upgrades;
+
+import com.stormidle.objects.GameData;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Times loading upgrades.json: parse + compile (UpgradeDefinitions.parse, what the game does once at startup and on
+// every hot reload) and building a full set of trees from the result (new UpgradeManager, what every prestige does).
+// Reports the cost of the very first load in a fresh JVM, then the warmed-up time and garbage per load.
+//
+//   gradle model:benchmarkDefinitions --args="--iterations 50000"
+//
+// Options: --iterations N (timed loads per step, default 20000), --file path (default assets/upgrades.json).
+
+public class DefinitionBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static long sink; // Keeps the JIT from dropping the work
+
+    private interface Step {
+        long run();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int iterations = 20_000;
+        Path file = Path.of("assets/upgrades.json");
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--iterations": iterations = Integer.parseInt(args[i + 1]); break;
+                case "--file":       file = Path.of(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        // The first of each step is timed on its own, before anything has warmed up
+        long start = System.nanoTime();
+        String text = Files.readString(file);
+        long readNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        UpgradeDefinitions definitions = UpgradeDefinitions.parse(text);
+        long parseNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        sink += new UpgradeManager(new GameData(), definitions).getAllTrees().size();
+        long treesNanos = System.nanoTime() - start;
+
+        System.out.println("Loaded " + definitions.summary() + " from " + file + " (" + text.length() + " chars)");
+
+        Step parse = () -> UpgradeDefinitions.parse(text).checksum;
+        Step trees = () -> new UpgradeManager(new GameData(), definitions).getAllTrees().size();
+        measure(parse, iterations / 10); // Warm up both before timing either
+        measure(trees, iterations / 10);
+        double[] p = measure(parse, iterations);
+        double[] t = measure(trees, iterations);
+
+        System.out.printf("%-14s %12s %14s %12s%n", "step", "us/op", "bytes/op", "first us");
+        System.out.printf("%-14s %12s %14s %12.0f%n", "read file", "-", "-", readNanos / 1e3);
+        System.out.printf("%-14s %12.2f %14.0f %12.0f%n", "parse+compile", p[0], p[1], parseNanos / 1e3);
+        System.out.printf("%-14s %12.2f %14.0f %12.0f%n", "build trees", t[0], t[1], treesNanos / 1e3);
+        System.out.printf("First load %.2f ms in total (checksum %d)%n",
+            (readNanos + parseNanos + treesNanos) / 1e6, sink);
+    }
+
+    // Returns {microseconds per run, bytes allocated per run}
+    private static double[] measure(Step step, int iterations) {
+        long thread = Thread.currentThread().threadId();
+        long bytes  = THREADS.getThreadAllocatedBytes(thread);
+        long start  = System.nanoTime();
+        for (int i = 0; i < iterations; i++) sink += step.run();
+        long nanos = System.nanoTime() - start;
+        bytes = THREADS.getThreadAllocatedBytes(thread) - bytes;
+        return new double[]{nanos / 1e3 / iterations, (double) bytes / iterations};
+    }
+}
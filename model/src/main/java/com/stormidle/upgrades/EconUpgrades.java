@@ -0,0 +1,22 @@
+package com.stormidle.upgrades;
+
+import com.stormidle.objects.GameData;
+
+// Manages all "Econ" upgrade trees
+// conversionTree - multiplies currency earned per bowl conversion
+// condensationTree - generates currency passively over time
+// humidityTree - endless formula-driven tree that keeps adding passive income
+// Tiers, costs and effects live in assets/upgrades.json, see UpgradeDefinitions
+
+public class EconUpgrades {
+
+    public final UpgradeTree conversionTree;
+    public final UpgradeTree condensationTree;
+    public final UpgradeTree humidityTree;
+
+    public EconUpgrades(UpgradeDefinitions definitions, GameData gameData) {
+        conversionTree   = definitions.createTree(UpgradeTier.TREE_CONVERSION, gameData);
+        condensationTree = definitions.createTree(UpgradeTier.TREE_CONDENSATION, gameData);
+        humidityTree     = definitions.createTree(UpgradeTier.TREE_HUMIDITY, gameData);
+    }
+}
@@ -0,0 +1,105 @@
+package com.stormidle.upgrades;
+
+import com.stormidle.objects.GameData;
+
+// A compiled upgrade or ability effect: a run of "stat op value" operations like "fallSpeed += 50".
+// Every effect in the definition file shares the same flat op/stat/value arrays, an Effect is just the
+// [start, end) slice that belongs to one tier or ability. Applying it is a switch over primitives,
+// so nothing is looked up by name or boxed at runtime.
+
+public class Effect {
+
+    // Operations
+    public static final byte OP_SET = 0; // stat = value
+    public static final byte OP_ADD = 1; // stat += value
+    public static final byte OP_MUL = 2; // stat *= value
+
+    // GameData fields an effect can touch
+    public static final byte STAT_FALL_SPEED      = 0;
+    public static final byte STAT_DROPS_TO_FILL   = 1;
+    public static final byte STAT_RPS             = 2;
+    public static final byte STAT_CURRENCY_GAINED = 3;
+    public static final byte STAT_CPS             = 4;
+    public static final byte STAT_MAX_IDLE_TIME   = 5;
+    public static final int  STAT_COUNT           = 6;
+
+    // Names used in the definition file, indexed by STAT_*
+    private static final String[] STAT_NAMES = {
+        "fallSpeed", "dropsToFill", "rps", "currencyGained", "cps", "maxIdleTime"
+    };
+
+    private final byte[] ops;
+    private final byte[] stats;
+    private final float[] values;
+    private final int start;
+    private final int end;
+
+    Effect(byte[] ops, byte[] stats, float[] values, int start, int end) {
+        this.ops    = ops;
+        this.stats  = stats;
+        this.values = values;
+        this.start  = start;
+        this.end    = end;
+    }
+
+    // Applies the effect once
+    public void apply(GameData gameData) {
+        apply(gameData, 1);
+    }
+
+    // Applies the effect as if it was applied levels times in a row
+    public void apply(GameData gameData, int levels) {
+        for (int i = start; i < end; i++) {
+            float current = read(gameData, stats[i]);
+            float value   = values[i];
+            switch (ops[i]) {
+                case OP_SET: current = value; break;
+                case OP_ADD: current += value * levels; break;
+                case OP_MUL: current *= (float) Math.pow(value, levels); break;
+            }
+            write(gameData, stats[i], current);
+        }
+    }
+
+    // Copies every stat into out (indexed by STAT_*), so restore() can undo a temporary effect
+    public static void snapshot(GameData gameData, float[] out) {
+        for (int s = 0; s < STAT_COUNT; s++) out[s] = read(gameData, s);
+    }
+
+    // Puts back the snapshotted value of every stat this effect touches, leaving the rest alone
+    public void restore(GameData gameData, float[] saved) {
+        for (int i = start; i < end; i++) write(gameData, stats[i], saved[stats[i]]);
+    }
+
+    static float read(GameData g, int stat) {
+        switch (stat) {
+            case STAT_FALL_SPEED:      return g.fallSpeed;
+            case STAT_DROPS_TO_FILL:   return g.dropsToFill;
+            case STAT_RPS:             return g.rps;
+            case STAT_CURRENCY_GAINED: return g.currencyGained;
+            case STAT_CPS:             return g.cps;
+            case STAT_MAX_IDLE_TIME:   return g.maxIdleTime;
+            default: throw new IllegalArgumentException("Unknown stat: " + stat);
+        }
+    }
+
+    static void write(GameData g, int stat, float value) {
+        switch (stat) {
+            case STAT_FALL_SPEED:      g.fallSpeed      = value;       break;
+            case STAT_DROPS_TO_FILL:   g.dropsToFill    = (int) value; break;
+            case STAT_RPS:             g.rps            = value;       break;
+            case STAT_CURRENCY_GAINED: g.currencyGained = (int) value; break;
+            case STAT_CPS:             g.cps            = value;       break;
+            case STAT_MAX_IDLE_TIME:   g.maxIdleTime    = (int) value; break;
+            default: throw new IllegalArgumentException("Unknown stat: " + stat);
+        }
+    }
+
+    // STAT_* for a field name from the definition file, or -1
+    static int statOf(String name) {
+        for (int s = 0; s < STAT_NAMES.length; s++) {
+            if (STAT_NAMES[s].equals(name)) return s;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,142 @@
+package com.stormidle.upgrades;
+
+import com.stormidle.objects.GameData;
+import java.util.function.IntFunction;
+
+// An endless upgrade tree whose tiers come from a formula instead of being written out by hand.
+// Cost grows exponentially: cost(n) = baseCost * costGrowth^n. Every tier applies the same per-level effect,
+// given the number of levels bought at once, so "(g, n) -> g.cps += n" gives additive growth and
+// "(g, n) -> g.fallSpeed *= (float) Math.pow(1.1, n)" multiplicative growth.
+//
+// Because costs are a geometric series, the cost of n tiers and the most tiers a balance can buy are both
+// closed-form, so bulk purchases are O(1) however many tiers they cover.
+//
+// Tiers are only materialized when the UI or a purchase asks for them, and kept in a small direct-mapped
+// window, so memory does not depend on how long the tree is. The purchased state is a single counter.
+
+public class FormulaUpgradeTree extends UpgradeTree {
+
+    // Number of materialized tiers kept around. Covers the visible rows around the purchase frontier
+    private static final int WINDOW = 16;
+
+    // Effect of buying levels tiers at once. Must equal applying the single-tier effect levels times
+    public interface LevelEffect {
+        void apply(GameData gameData, int levels);
+    }
+
+    private final String namePrefix;
+    private final IntFunction<String> description; // Tier number -> description
+    private final int baseCost;
+    private final double costGrowth;
+    private final LevelEffect effect;
+    private final int size;
+
+    private int purchased = 0;
+    private Requirement[] firstTierRequires = Requirement.NONE;
+    private final UpgradeTier[] window = new UpgradeTier[WINDOW];
+
+    public FormulaUpgradeTree(String id, String namePrefix, IntFunction<String> description,
+                              int baseCost, double costGrowth, LevelEffect effect) {
+        super(id);
+        this.namePrefix  = namePrefix;
+        this.description = description;
+        this.baseCost    = baseCost;
+        this.costGrowth  = costGrowth;
+        this.effect      = effect;
+        // Currency is an int, so the tree ends at the last tier whose cost still fits in one
+        this.size = (int) Math.min(Integer.MAX_VALUE - 1,
+            Math.floor(Math.log((double) Integer.MAX_VALUE / baseCost) / Math.log(costGrowth)) + 1);
+    }
+
+    // Requirements for tier 1. Later tiers only need the one before them
+    public void requireForFirstTier(Requirement... requires) {
+        firstTierRequires = requires;
+    }
+
+    @Override
+    int unlockNodes() {
+        return 1;
+    }
+
+    @Override
+    Requirement[] requirements(int node) {
+        return firstTierRequires;
+    }
+
+    // Cost of the tier at the given index
+    public int cost(int index) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.round(baseCost * Math.pow(costGrowth, index)));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public UpgradeTier get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+
+        int slot = index % WINDOW;
+        UpgradeTier tier = window[slot];
+        if (tier == null || tier.tier != index + 1) {
+            final int number = index + 1;
+            tier = new UpgradeTier(id, number, namePrefix + " " + number,
+                () -> description.apply(number), cost(index), g -> effect.apply(g, 1));
+            window[slot] = tier;
+        }
+        tier.purchased = index < purchased;
+        return tier;
+    }
+
+    // Sum of the geometric series: baseCost * g^index * (g^count - 1) / (g - 1).
+    // Rounded once for the whole batch, so it can differ from buying the same tiers one by one by a few drops
+    @Override
+    public long costOf(int index, int count) {
+        if (count <= 0) return 0;
+        double first = baseCost * Math.pow(costGrowth, index);
+        double total = costGrowth == 1.0
+            ? first * count
+            : first * (Math.pow(costGrowth, count) - 1.0) / (costGrowth - 1.0);
+        return (long) Math.min(Long.MAX_VALUE, Math.round(total));
+    }
+
+    // Inverse of costOf: largest n with costOf(index, n) <= currency, and no more than buyableCount()
+    @Override
+    public int affordableCount(int index, long currency, int limit) {
+        limit = buyableCount(index, limit);
+        if (limit <= 0) return 0;
+
+        double first = baseCost * Math.pow(costGrowth, index);
+        double n = costGrowth == 1.0
+            ? currency / first
+            : Math.log1p(currency * (costGrowth - 1.0) / first) / Math.log(costGrowth);
+        int count = (int) Math.max(0, Math.min(limit, Math.floor(n)));
+
+        // The log can land a hair either side of a whole number, settle it against costOf
+        if (count > 0 && costOf(index, count) > currency) count--;
+        else if (count < limit && costOf(index, count + 1) <= currency) count++;
+        return count;
+    }
+
+    @Override
+    public int purchasedCount() {
+        return purchased;
+    }
+
+    @Override
+    public void restorePurchased(int count) {
+        purchased = Math.max(0, Math.min(count, size));
+    }
+
+    @Override
+    protected void onPurchased(int index, int count) {
+        purchased = Math.max(purchased, index + count);
+    }
+
+    // One call for the whole batch instead of one per tier
+    @Override
+    protected void applyEffects(int index, int count, GameData gameData) {
+        effect.apply(gameData, count);
+    }
+}
@@ -0,0 +1,77 @@
+package com.stormidle.upgrades;
+
+import com.stormidle.objects.GameData;
+import com.stormidle.objects.Income;
+
+// Projects how long things take at the current passive income (auto rain + condensation, no clicking).
+// The income rate is only recomputed when one of the stats it depends on changes. Every change bumps
+// version(), which rows use to decide when their cached payback times are stale. Time-to-afford only needs
+// the current currency, so it's a subtraction and a division and isn't cached.
+
+public class IncomeProjection {
+
+    private final GameData gameData;
+    private final UpgradeManager upgrades;
+    private final GameData scratch = new GameData();
+
+    private int version = 0;
+    private double rate = 0;
+
+    // Stats the rate was last computed from
+    private float lastRps = Float.NaN;
+    private float lastCps = Float.NaN;
+    private int lastDropsToFill;
+    private int lastCurrencyGained;
+    private int lastRainMultiplier;
+    private boolean lastHurricane;
+
+    public IncomeProjection(GameData gameData, UpgradeManager upgrades) {
+        this.gameData = gameData;
+        this.upgrades = upgrades;
+    }
+
+    // Call once per frame. Returns true if the income changed, meaning projections shown on screen are stale
+    public boolean update() {
+        boolean hurricane = upgrades.abilities.isHurricaneActive();
+        if (gameData.rps == lastRps && gameData.cps == lastCps
+            && gameData.dropsToFill == lastDropsToFill && gameData.currencyGained == lastCurrencyGained
+            && gameData.rainMultiplier == lastRainMultiplier && hurricane == lastHurricane) {
+            return false;
+        }
+        lastRps            = gameData.rps;
+        lastCps            = gameData.cps;
+        lastDropsToFill    = gameData.dropsToFill;
+        lastCurrencyGained = gameData.currencyGained;
+        lastRainMultiplier = gameData.rainMultiplier;
+        lastHurricane      = hurricane;
+
+        rate = Income.currencyPerSecond(gameData, 0, hurricane);
+        version++;
+        return true;
+    }
+
+    // Increases every time the income changes
+    public int version() {
+        return version;
+    }
+
+    public double currencyPerSecond() {
+        return rate;
+    }
+
+    // Seconds until cost can be paid at the current income. 0 if it already can, infinite if there's no income
+    public double secondsToAfford(int cost) {
+        int missing = cost - gameData.currency;
+        if (missing <= 0) return 0;
+        return rate > 0 ? missing / rate : Double.POSITIVE_INFINITY;
+    }
+
+    // Seconds of the extra income from buying tier until it has paid for itself.
+    // Infinite for tiers that don't raise income, like fall speed or idle time
+    public double paybackSeconds(UpgradeTier tier) {
+        scratch.copyFrom(gameData);
+        tier.applyEffect(scratch);
+        double gain = Income.currencyPerSecond(scratch, 0, lastHurricane) - rate;
+        return gain > 1e-9 ? tier.cost / gain : Double.POSITIVE_INFINITY;
+    }
+}
@@ -0,0 +1,41 @@
+package com.stormidle.upgrades;
+
+import com.stormidle.objects.GameData;
+
+// Prestige thresholds from one set of definitions. UpgradeManager holds the current one in its prestige field
+// and replaces it when definitions are reloaded. Immutable, so any thread holding one reads consistent values.
+
+public class PrestigeManager {
+
+    // Thresholds for being able to prestige, one per level
+    // From prestigeThresholds in upgrades.json, never written after construction
+    private final int[] thresholds;
+
+    public PrestigeManager(UpgradeDefinitions definitions) {
+        this.thresholds = definitions.prestigeThresholds;
+    }
+
+    public int maxLevel() {
+        return thresholds.length;
+    }
+
+    // Returns the currency threshold for the next prestige, or -1 if already maxed
+    public int nextThreshold(int currentLevel) {
+        if (currentLevel >= thresholds.length) return -1;
+        return thresholds[currentLevel];
+    }
+
+    // True if the player has enough currency to prestige right now
+    public boolean canPrestige(int currentLevel, int currency) {
+        int threshold = nextThreshold(currentLevel);
+        return threshold != -1 && currency >= threshold;
+    }
+
+
+    // Executes a prestige: resets GameData and all upgrades, then increments
+    // the prestige level and applies the cloud bonus.
+    public static void doPrestige(GameData gameData, UpgradeManager upgrades) {
+        gameData.prestige();
+        upgrades.reset(gameData);
+    }
+}
@@ -0,0 +1,21 @@
+package com.stormidle.upgrades;
+
+import com.stormidle.objects.GameData;
+
+// Manages all the "Rain" upgrade trees
+// Exposes helpers used by the UI to render them and by GameScreen.java to apply their effects at runtime
+// Tiers, costs and effects live in assets/upgrades.json, see UpgradeDefinitions
+
+public class RainUpgrades {
+
+    // Upgrade trees stored as ordered arrays (index 0 = tier 1, etc)
+    public final UpgradeTree speedTree; // Flat speed bonus added on top of the base FALL_SPEED constant
+    public final UpgradeTree bowlTree;  // Lowers DROPS_TO_FILL (less drops needed to convert to currency)
+
+    // Constructor
+    // Builds fresh copies of the upgrade trees from their definitions
+    public RainUpgrades(UpgradeDefinitions definitions, GameData gameData) {
+        speedTree = definitions.createTree(UpgradeTier.TREE_SPEED, gameData);
+        bowlTree  = definitions.createTree(UpgradeTier.TREE_VALUE, gameData);
+    }
+}
@@ -0,0 +1,35 @@
+package com.stormidle.upgrades;
+
+// One prerequisite of an upgrade tier, written in upgrades.json as "<tree>:<tier>" (that many tiers of the
+// tree bought, e.g. "value:2") or "prestige:<level>" (at least that prestige level).
+// The previous tier in the same tree is always required and isn't written out.
+
+public class Requirement {
+
+    public static final String PRESTIGE = "prestige";
+    public static final Requirement[] NONE = new Requirement[0];
+
+    public final String tree; // Tree id, or PRESTIGE
+    public final int count;   // Tiers bought in tree, or prestige level
+
+    public Requirement(String tree, int count) {
+        this.tree  = tree;
+        this.count = count;
+    }
+
+    static Requirement parse(String source, String owner) {
+        int colon = source.indexOf(':');
+        if (colon < 0) throw new IllegalArgumentException(owner + ": bad requirement \"" + source + "\"");
+        try {
+            return new Requirement(source.substring(0, colon).trim(),
+                Integer.parseInt(source.substring(colon + 1).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(owner + ": bad requirement \"" + source + "\"");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return tree + ":" + count;
+    }
+}
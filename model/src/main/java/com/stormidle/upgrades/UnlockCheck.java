@@ -0,0 +1,169 @@
+package com.stormidle.upgrades;
+
+import com.stormidle.objects.GameData;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Checks UnlockGraph against a definitions file that uses "requires". The shipped upgrades.json doesn't gate
+// anything, so the default is model/fixtures/upgrades-requires.json, where Condensation I needs Rain Value II and
+// prestige 1, Condensation IV needs Silver Lining III and Humidity needs Condensation II.
+// Plays a short script of purchases, bulk purchases, prestiges and a definitions reload, checking the expected
+// locks at each step. After every step it also builds a second UpgradeManager from the same tiers bought and
+// prestige level, the way loading a save does, and checks that it agrees with the live graph on every tier.
+//
+//   gradle model:checkUnlocks
+//
+// Options: --definitions path (default model/fixtures/upgrades-requires.json). Prints one UNLOCK_CHECK line and
+// exits with status 1 if any check failed.
+
+public class UnlockCheck {
+
+    private static final int FORMULA_TIERS_CHECKED = 20; // Formula trees are endless, compare this many tiers
+
+    private final UpgradeDefinitions definitions;
+    private final GameData gameData = new GameData();
+    private final UpgradeManager upgrades;
+    private final List<String> failures = new ArrayList<>();
+    private int checks;
+
+    private UnlockCheck(UpgradeDefinitions definitions) {
+        this.definitions = definitions;
+        upgrades = new UpgradeManager(gameData, definitions);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path path = Path.of("model/fixtures/upgrades-requires.json");
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--definitions": path = Path.of(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        String text = Files.readString(path);
+        UnlockCheck check = new UnlockCheck(UpgradeDefinitions.parse(text));
+        check.run(text);
+
+        boolean passed = check.failures.isEmpty();
+        System.out.println("UNLOCK_CHECK " + (passed ? "passed" : "failed") + " checks=" + check.checks
+            + " failures=" + check.failures.size());
+        if (!passed) {
+            for (String failure : check.failures) System.out.println("  " + failure);
+            System.exit(1);
+        }
+    }
+
+    private void run(String text) {
+        step("fresh game");
+        expect(!isUnlocked("condensation", 0), "Condensation I is locked before anything is bought");
+        expect(!isUnlocked("humidity", 0), "Humidity is locked before anything is bought");
+        expect(tree("condensation").buyableCount(0, 5) == 0, "a bulk purchase of locked Condensation buys nothing");
+        expect(buy("condensation", 0, 1) == 0, "locked Condensation I can't be bought");
+
+        expect(buy("value", 0, 2) == 2, "Rain Value I and II in one purchase");
+        step("Rain Value II at prestige 0");
+        expect(!isUnlocked("condensation", 0), "Condensation I still needs prestige 1");
+        // Starts right at the threshold Condensation I already counted, which must not count it again
+        expect(buy("value", 2, 1) == 1, "Rain Value III");
+        step("Rain Value III at prestige 0");
+        expect(!isUnlocked("condensation", 0), "Condensation I still needs prestige 1 after Rain Value III");
+
+        PrestigeManager.doPrestige(gameData, upgrades);
+        step("first prestige");
+        expect(tree("value").purchasedCount() == 0, "prestige resets Rain Value");
+        expect(!isUnlocked("condensation", 0), "Condensation I is locked again until Rain Value II");
+        expect(buy("value", 0, 1) == 1, "Rain Value I");
+        expect(!isUnlocked("condensation", 0), "Condensation I needs the second Rain Value tier, not the first");
+        expect(buy("value", 1, 1) == 1, "Rain Value II");
+        step("Rain Value II at prestige 1");
+        expect(isUnlocked("condensation", 0), "Condensation I unlocks with Rain Value II at prestige 1");
+
+        expect(tree("condensation").buyableCount(0, 5) == 3, "a bulk purchase stops short of Condensation IV");
+        expect(buy("condensation", 0, 5) == 3, "buying five Condensation tiers buys three");
+        step("Condensation III");
+        expect(!isUnlocked("condensation", 3), "Condensation IV needs Silver Lining III");
+        expect(tree("condensation").buyableCount(3, 2) == 0, "Condensation IV can't be bought yet");
+        expect(isUnlocked("humidity", 0), "Humidity unlocks with Condensation II");
+
+        expect(buy("conversion", 0, 3) == 3, "Silver Lining I to III in one purchase");
+        step("Silver Lining III");
+        expect(isUnlocked("condensation", 3), "Condensation IV unlocks with Silver Lining III");
+        expect(tree("condensation").buyableCount(3, 5) == 2, "the rest of Condensation can be bought in one go");
+
+        boolean[][] before = unlockStates(upgrades);
+        upgrades.applyDefinitions(UpgradeDefinitions.parse(text), gameData);
+        step("definitions reload");
+        expect(Arrays.deepEquals(before, unlockStates(upgrades)), "a reload keeps every tier's lock state");
+
+        expect(buy("condensation", 3, 2) == 2, "Condensation IV and V after the reload");
+        step("Condensation V");
+
+        PrestigeManager.doPrestige(gameData, upgrades);
+        step("second prestige");
+        expect(!isUnlocked("condensation", 0), "Condensation I is locked again after the second prestige");
+        expect(!isUnlocked("humidity", 0), "Humidity is locked again after the second prestige");
+        expect(buy("value", 0, 2) == 2, "Rain Value I and II at prestige 2");
+        step("Rain Value II at prestige 2");
+        expect(isUnlocked("condensation", 0), "a higher prestige level still meets prestige 1");
+    }
+
+    // Checks that a graph rebuilt from scratch, as after loading a save, agrees with the live one
+    private void step(String name) {
+        GameData loaded = new GameData();
+        loaded.prestigeLevel = gameData.prestigeLevel;
+        UpgradeManager rebuilt = new UpgradeManager(loaded, definitions);
+        for (UpgradeTree tree : upgrades.getAllTrees()) {
+            find(rebuilt, tree.id).restorePurchased(tree.purchasedCount());
+        }
+        rebuilt.rebuildUnlocks(loaded);
+        expect(Arrays.deepEquals(unlockStates(upgrades), unlockStates(rebuilt)),
+            name + ": live unlocks match a rebuild");
+    }
+
+    // isUnlocked and buyableCount of every tier, one row per tree
+    private static boolean[][] unlockStates(UpgradeManager manager) {
+        List<UpgradeTree> trees = manager.getAllTrees();
+        boolean[][] states = new boolean[trees.size()][];
+        for (int t = 0; t < trees.size(); t++) {
+            UpgradeTree tree = trees.get(t);
+            int tiers = Math.min(tree.size(), tree.purchasedCount() + FORMULA_TIERS_CHECKED);
+            states[t] = new boolean[tiers * (tiers + 1)];
+            for (int i = 0; i < tiers; i++) {
+                states[t][i * (tiers + 1)] = tree.isUnlocked(i);
+                // buyableCount as a run of flags, so two states compare with one equals
+                int run = tree.buyableCount(i, tiers - i);
+                for (int k = 0; k < run; k++) states[t][i * (tiers + 1) + 1 + k] = true;
+            }
+        }
+        return states;
+    }
+
+    private int buy(String id, int index, int count) {
+        gameData.currency = Integer.MAX_VALUE;
+        return UpgradeTier.tryPurchase(tree(id), index, count, gameData);
+    }
+
+    private boolean isUnlocked(String id, int index) {
+        return tree(id).isUnlocked(index);
+    }
+
+    // Looked up every time, because prestige and reload replace the trees
+    private UpgradeTree tree(String id) {
+        return find(upgrades, id);
+    }
+
+    private static UpgradeTree find(UpgradeManager manager, String id) {
+        for (UpgradeTree tree : manager.getAllTrees()) if (tree.id.equals(id)) return tree;
+        throw new IllegalArgumentException("No tree " + id);
+    }
+
+    private void expect(boolean condition, String description) {
+        checks++;
+        if (!condition) failures.add(description);
+    }
+}
@@ -0,0 +1,211 @@
+package com.stormidle.upgrades;
+
+import com.stormidle.objects.GameData;
+
+import java.util.BitSet;
+import java.util.List;
+
+// Which tiers can be bought, kept up to date instead of worked out on every refresh.
+// Every tier of a hand-written tree is a node. A formula tree is a single node for its first tier,
+// because later tiers only ever need the one before them.
+// A node is unlocked once all of its Requirements are met. The previous tier in the same tree counts as
+// one of them.
+//
+// Each node keeps a count of its unmet requirements, and of those that aren't on its own tree. Each tree
+// keeps a reverse index of the nodes waiting on it, sorted by how many tiers they need. A purchase walks only
+// the waiters whose threshold it just crossed. isUnlocked() is a bit test.
+// Prestige requirements are only checked by rebuild(). A prestige always rebuilds the trees, and the graph
+// with them.
+
+public class UnlockGraph {
+
+    private final List<UpgradeTree> trees;
+    private final int[] nodeBase; // First node of each tree, indexed by UpgradeTree.unlockSlot
+    private final int[] nodeSlot; // Tree slot of each node
+    private final int nodeCount;
+
+    // All requirements of each node: node -> (source slot or -1 for prestige, count) pairs
+    private final int[][] requirements;
+    private final int[] unmet;
+    private final int[] unmetElsewhere; // Unmet requirements on other trees or prestige, see buyableRun()
+    private final BitSet unlocked = new BitSet();
+
+    // Reverse edges, per source tree: waiting nodes and the tier count each needs, sorted by count
+    private final int[][] waitNodes;
+    private final int[][] waitCounts;
+
+    UnlockGraph(List<UpgradeTree> trees) {
+        this.trees = trees;
+        nodeBase = new int[trees.size()];
+
+        int nodes = 0;
+        for (int t = 0; t < trees.size(); t++) {
+            UpgradeTree tree = trees.get(t);
+            tree.unlockSlot = t;
+            tree.unlocks    = this;
+            nodeBase[t] = nodes;
+            nodes += tree.unlockNodes();
+        }
+        nodeCount      = nodes;
+        requirements   = new int[nodes][];
+        unmet          = new int[nodes];
+        unmetElsewhere = new int[nodes];
+        nodeSlot       = new int[nodes];
+
+        // Forward edges, plus a count of waiters per source tree to size the reverse index
+        int[] waiting = new int[trees.size()];
+        for (int t = 0; t < trees.size(); t++) {
+            UpgradeTree tree = trees.get(t);
+            for (int i = 0; i < tree.unlockNodes(); i++) {
+                Requirement[] extra = tree.requirements(i);
+                int[] reqs = new int[(i > 0 ? 2 : 0) + extra.length * 2];
+                int k = 0;
+                if (i > 0) {
+                    reqs[k++] = t;
+                    reqs[k++] = i;
+                }
+                for (Requirement r : extra) {
+                    if (Requirement.PRESTIGE.equals(r.tree)) {
+                        reqs[k++] = -1;
+                        reqs[k++] = r.count;
+                        continue;
+                    }
+                    int source = treeSlot(r.tree);
+                    if (source < 0) {
+                        throw new IllegalArgumentException(tree.id + " tier " + (i + 1) + " requires unknown tree " + r);
+                    }
+                    if (r.count < 1 || r.count > trees.get(source).size()) {
+                        throw new IllegalArgumentException(tree.id + " tier " + (i + 1) + " requires missing tier " + r);
+                    }
+                    reqs[k++] = source;
+                    reqs[k++] = r.count;
+                }
+                for (k = 0; k < reqs.length; k += 2) {
+                    if (reqs[k] >= 0) waiting[reqs[k]]++;
+                }
+                requirements[nodeBase[t] + i] = reqs;
+                nodeSlot[nodeBase[t] + i]     = t;
+            }
+        }
+
+        waitNodes  = new int[trees.size()][];
+        waitCounts = new int[trees.size()][];
+        for (int t = 0; t < trees.size(); t++) {
+            waitNodes[t]  = new int[waiting[t]];
+            waitCounts[t] = new int[waiting[t]];
+            waiting[t] = 0;
+        }
+        for (int node = 0; node < nodes; node++) {
+            int[] reqs = requirements[node];
+            for (int k = 0; k < reqs.length; k += 2) {
+                int source = reqs[k];
+                if (source < 0) continue;
+                int at = waiting[source]++;
+                // Insertion sort, lists are a handful of entries long
+                while (at > 0 && waitCounts[source][at - 1] > reqs[k + 1]) {
+                    waitCounts[source][at] = waitCounts[source][at - 1];
+                    waitNodes[source][at]  = waitNodes[source][at - 1];
+                    at--;
+                }
+                waitCounts[source][at] = reqs[k + 1];
+                waitNodes[source][at]  = node;
+            }
+        }
+
+        checkAcyclic();
+    }
+
+    // Recomputes every node from the trees' purchased state and the prestige level.
+    // Used after building, loading a save or reloading definitions
+    void rebuild(GameData gameData) {
+        unlocked.clear();
+        for (int node = 0; node < nodeCount; node++) {
+            int[] reqs = requirements[node];
+            int missing = 0, elsewhere = 0;
+            for (int k = 0; k < reqs.length; k += 2) {
+                int source = reqs[k];
+                int have = source < 0 ? gameData.prestigeLevel : trees.get(source).purchasedCount();
+                if (have < reqs[k + 1]) {
+                    missing++;
+                    if (source != nodeSlot[node]) elsewhere++;
+                }
+            }
+            unmet[node] = missing;
+            unmetElsewhere[node] = elsewhere;
+            if (missing == 0) unlocked.set(node);
+        }
+    }
+
+    // Called after tree went from `from` to `to` tiers bought. Only touches nodes whose threshold was crossed
+    void onPurchased(UpgradeTree tree, int from, int to) {
+        int[] counts = waitCounts[tree.unlockSlot];
+        int[] nodes  = waitNodes[tree.unlockSlot];
+
+        // First waiter needing more than `from` tiers
+        int lo = 0, hi = counts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (counts[mid] <= from) lo = mid + 1; else hi = mid;
+        }
+        for (int i = lo; i < counts.length && counts[i] <= to; i++) {
+            if (nodeSlot[nodes[i]] != tree.unlockSlot) unmetElsewhere[nodes[i]]--;
+            if (--unmet[nodes[i]] == 0) unlocked.set(nodes[i]);
+        }
+    }
+
+    // How many tiers from index on one purchase may buy, at most limit. Tier index has to be unlocked now. Each
+    // tier after it only needs its requirements on other trees and prestige met, because the ones on its own tree
+    // are earlier tiers the same purchase buys. Stops short of the first tier that would still be locked
+    int buyableRun(UpgradeTree tree, int index, int limit) {
+        limit = Math.min(limit, tree.size() - index);
+        if (limit <= 0 || !isUnlocked(tree, index)) return 0;
+        int base = nodeBase[tree.unlockSlot];
+        for (int next = index + 1; next < index + limit; next++) {
+            if (next >= tree.unlockNodes()) return limit; // Formula tiers past the first only need the previous one
+            if (unmetElsewhere[base + next] > 0) return next - index;
+        }
+        return limit;
+    }
+
+    boolean isUnlocked(UpgradeTree tree, int index) {
+        if (index >= tree.unlockNodes()) return tree.purchasedCount() >= index; // Formula tiers past the first
+        return unlocked.get(nodeBase[tree.unlockSlot] + index);
+    }
+
+    // A cycle would leave its nodes locked forever, so refuse definitions that contain one
+    private void checkAcyclic() {
+        int[] indegree = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            int[] reqs = requirements[node];
+            for (int k = 0; k < reqs.length; k += 2) if (reqs[k] >= 0) indegree[node]++;
+        }
+
+        // Stack of nodes with no unmet edges. Each node is pushed at most once
+        int[] ready = new int[nodeCount];
+        int readyCount = 0;
+        for (int node = 0; node < nodeCount; node++) if (indegree[node] == 0) ready[readyCount++] = node;
+
+        int visited = 0;
+        while (readyCount > 0) {
+            int node = ready[--readyCount];
+            visited++;
+            // Buying this node's tier satisfies the waiters that need exactly that many tiers.
+            // A formula tree's only node stands in for all of its tiers
+            int slot = nodeSlot[node];
+            int tier = node - nodeBase[slot] + 1;
+            boolean last = tier == trees.get(slot).unlockNodes();
+            int[] counts = waitCounts[slot];
+            for (int i = 0; i < counts.length; i++) {
+                boolean satisfied = counts[i] == tier || (last && counts[i] > tier);
+                if (satisfied && --indegree[waitNodes[slot][i]] == 0) ready[readyCount++] = waitNodes[slot][i];
+            }
+        }
+        if (visited != nodeCount) throw new IllegalArgumentException("Upgrade requirements contain a cycle");
+    }
+
+    // Index of the tree with the given id, or -1. There are only a handful of trees
+    private int treeSlot(String id) {
+        for (int t = 0; t < trees.size(); t++) if (trees.get(t).id.equals(id)) return t;
+        return -1;
+    }
+}
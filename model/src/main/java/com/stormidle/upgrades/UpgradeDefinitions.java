@@ -0,0 +1,249 @@
+package com.stormidle.upgrades;
+
+import com.stormidle.objects.GameData;
+import com.stormidle.persist.JsonNode;
+import com.stormidle.stats.Achievement;
+import com.stormidle.stats.Statistics;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+// Upgrade trees, abilities and prestige thresholds as described by assets/upgrades.json.
+// The file is parsed once at startup and compiled: tier names, costs and descriptions go into plain arrays,
+// and every "stat op value" effect string becomes an entry in one flat op array (see Effect).
+// RainUpgrades/AutoUpgrades/EconUpgrades then stamp out fresh UpgradeTrees from this on every prestige
+// without touching the file again.
+//
+// Effect strings look like "fallSpeed += 50", with = += *= as operators and a GameData field on the left.
+// Descriptions can contain {tier} (formula trees) or {rain:N}, which shows N scaled by the current rainMultiplier.
+// A tier (or a formula tree, for its first tier) can list "requires": ["value:2", "prestige:1"], see Requirement.
+// Achievements name the lifetime counter they watch, e.g. "stat": "drops", "threshold": 1000 (see Statistics).
+
+public class UpgradeDefinitions {
+
+    private static final String RAIN_TOKEN = "{rain:";
+    private static final String TIER_TOKEN = "{tier}";
+
+    // One tree from the file. Hand-written trees fill the tier arrays, formula trees the formula fields
+    private static class TreeDef {
+        String id;
+        String[] names;
+        String[] descriptions;
+        int[] costs;
+        int[] opStart; // Effect of tier i is ops [opStart[i], opEnd[i]). Formula trees have one entry
+        int[] opEnd;
+        Requirement[][] requires; // Per tier, formula trees have one entry for tier 1
+        Effect[] effects;
+
+        boolean formula;
+        String namePrefix;
+        String description;
+        int baseCost;
+        double costGrowth;
+    }
+
+    private final Map<String, TreeDef> trees = new HashMap<>();
+
+    // Abilities are immutable, so every AbilityManager shares these
+    public final List<AbilityDefinition> abilities = new ArrayList<>();
+
+    // Shared the same way, see Statistics
+    public final List<Achievement> achievements = new ArrayList<>();
+
+    // Currency needed for each prestige level, see PrestigeManager
+    public final int[] prestigeThresholds;
+
+    // CRC32 of the file text, so a command log can tell whether it is replayed against the same definitions
+    public final long checksum;
+
+    // Flat effect program, grown while parsing and then frozen into the arrays every Effect slices
+    private byte[] ops = new byte[64];
+    private byte[] stats = new byte[64];
+    private float[] values = new float[64];
+    private int opCount;
+    private byte[] opArray;
+    private byte[] statArray;
+    private float[] valueArray;
+
+    // Parses and compiles the text of a definition file. Throws IllegalArgumentException if it is malformed.
+    // The game loads the file through DefinitionWatcher.load(), which logs how long this took
+    public static UpgradeDefinitions parse(String text) {
+        CRC32 crc = new CRC32();
+        crc.update(text.getBytes(StandardCharsets.UTF_8));
+        return new UpgradeDefinitions(JsonNode.parse(text), crc.getValue());
+    }
+
+    // What was compiled, for the load log
+    public String summary() {
+        return trees.size() + " trees, " + abilities.size() + " abilities, " + achievements.size()
+            + " achievements, " + opArray.length + " effect ops";
+    }
+
+    private UpgradeDefinitions(JsonNode root, long checksum) {
+        this.checksum = checksum;
+        prestigeThresholds = root.get("prestigeThresholds").asIntArray();
+
+        for (JsonNode t = root.getChild("trees"); t != null; t = t.next) {
+            TreeDef def = new TreeDef();
+            def.id = t.getString("id");
+
+            if (t.has("tiers")) {
+                int count = t.get("tiers").size;
+                def.names        = new String[count];
+                def.descriptions = new String[count];
+                def.costs        = new int[count];
+                def.opStart      = new int[count];
+                def.opEnd        = new int[count];
+                def.requires     = new Requirement[count][];
+                int i = 0;
+                for (JsonNode tier = t.getChild("tiers"); tier != null; tier = tier.next, i++) {
+                    def.names[i]        = tier.getString("name");
+                    def.descriptions[i] = tier.getString("description");
+                    def.costs[i]        = tier.getInt("cost");
+                    def.opStart[i]      = opCount;
+                    compileEffect(tier.get("effect"), def.id);
+                    def.opEnd[i]        = opCount;
+                    def.requires[i]     = parseRequires(tier.get("requires"), def.id);
+                }
+            } else {
+                def.formula     = true;
+                def.namePrefix  = t.getString("name");
+                def.description = t.getString("description");
+                def.baseCost    = t.getInt("baseCost");
+                def.costGrowth  = t.getDouble("costGrowth");
+                def.opStart     = new int[]{opCount};
+                compileEffect(t.get("effect"), def.id);
+                def.opEnd       = new int[]{opCount};
+                def.requires    = new Requirement[][]{parseRequires(t.get("requires"), def.id)};
+            }
+            trees.put(def.id, def);
+        }
+
+        for (JsonNode a = root.getChild("achievements"); a != null; a = a.next) {
+            String id = a.getString("id");
+            int stat = Statistics.statOf(a.getString("stat"));
+            if (stat < 0) throw new IllegalArgumentException(id + ": unknown stat \"" + a.getString("stat") + "\"");
+            achievements.add(new Achievement(id, a.getString("name"), a.getString("description"),
+                stat, a.getLong("threshold")));
+        }
+
+        // Abilities need the frozen arrays in their constructor, so remember where each one's ops went
+        List<JsonNode> abilityJson = new ArrayList<>();
+        JsonNode abilityList = root.get("abilities");
+        int[] abilityOps = new int[abilityList == null ? 0 : abilityList.size * 2];
+        for (JsonNode a = root.getChild("abilities"); a != null; a = a.next) {
+            abilityOps[abilityJson.size() * 2] = opCount;
+            compileEffect(a.get("effect"), a.getString("id"));
+            abilityOps[abilityJson.size() * 2 + 1] = opCount;
+            abilityJson.add(a);
+        }
+
+        opArray    = Arrays.copyOf(ops, opCount);
+        statArray  = Arrays.copyOf(stats, opCount);
+        valueArray = Arrays.copyOf(values, opCount);
+
+        for (TreeDef def : trees.values()) {
+            def.effects = new Effect[def.opStart.length];
+            for (int i = 0; i < def.effects.length; i++) def.effects[i] = slice(def.opStart[i], def.opEnd[i]);
+        }
+        for (int i = 0; i < abilityJson.size(); i++) {
+            JsonNode a = abilityJson.get(i);
+            abilities.add(new AbilityDefinition(
+                a.getString("id"), a.getString("name"), a.getString("description"),
+                a.getInt("cost"), a.getFloat("duration"), AbilityManager.COOLDOWN_SECONDS,
+                slice(abilityOps[i * 2], abilityOps[i * 2 + 1])));
+        }
+    }
+
+    private static Requirement[] parseRequires(JsonNode requires, String owner) {
+        if (requires == null) return Requirement.NONE;
+        Requirement[] result = new Requirement[requires.size];
+        int i = 0;
+        for (JsonNode r = requires.child; r != null; r = r.next) result[i++] = Requirement.parse(r.asString(), owner);
+        return result;
+    }
+
+    // Appends the ops of one effect list to the program
+    private void compileEffect(JsonNode effect, String owner) {
+        if (effect == null) return;
+        for (JsonNode e = effect.child; e != null; e = e.next) compileOp(e.asString(), owner);
+    }
+
+    private void compileOp(String source, String owner) {
+        String[] parts = source.trim().split("\\s+");
+        if (parts.length != 3) throw new IllegalArgumentException(owner + ": bad effect \"" + source + "\"");
+
+        int stat = Effect.statOf(parts[0]);
+        if (stat < 0) throw new IllegalArgumentException(owner + ": unknown stat \"" + parts[0] + "\"");
+
+        byte op;
+        switch (parts[1]) {
+            case "=":  op = Effect.OP_SET; break;
+            case "+=": op = Effect.OP_ADD; break;
+            case "*=": op = Effect.OP_MUL; break;
+            default: throw new IllegalArgumentException(owner + ": unknown operator \"" + parts[1] + "\"");
+        }
+
+        if (opCount == ops.length) {
+            ops    = Arrays.copyOf(ops, opCount * 2);
+            stats  = Arrays.copyOf(stats, opCount * 2);
+            values = Arrays.copyOf(values, opCount * 2);
+        }
+        ops[opCount]    = op;
+        stats[opCount]  = (byte) stat;
+        values[opCount] = Float.parseFloat(parts[2]);
+        opCount++;
+    }
+
+    private Effect slice(int start, int end) {
+        return new Effect(opArray, statArray, valueArray, start, end);
+    }
+
+    // Builds a fresh, unpurchased tree from its definition
+    public UpgradeTree createTree(String id, GameData gameData) {
+        TreeDef def = trees.get(id);
+        if (def == null) throw new IllegalArgumentException("No upgrade tree \"" + id + "\" in definitions");
+
+        if (def.formula) {
+            String description = def.description;
+            Effect effect = def.effects[0];
+            FormulaUpgradeTree tree = new FormulaUpgradeTree(id, def.namePrefix,
+                tier -> description.replace(TIER_TOKEN, String.valueOf(tier)),
+                def.baseCost, def.costGrowth, effect::apply);
+            tree.requireForFirstTier(def.requires[0]);
+            return tree;
+        }
+
+        UpgradeTree tree = new UpgradeTree(id);
+        for (int i = 0; i < def.names.length; i++) {
+            tree.add(new UpgradeTier(id, i + 1, def.names[i],
+                description(def.descriptions[i], gameData), def.costs[i], def.effects[i]::apply), def.requires[i]);
+        }
+        return tree;
+    }
+
+    // Static descriptions are returned as-is, {rain:N} is re-rendered each time the row refreshes
+    private static Supplier<String> description(String text, GameData gameData) {
+        int open = text.indexOf(RAIN_TOKEN);
+        if (open < 0) return () -> text;
+
+        int close = text.indexOf('}', open);
+        String prefix = text.substring(0, open);
+        String suffix = text.substring(close + 1);
+        float baseRps = Float.parseFloat(text.substring(open + RAIN_TOKEN.length(), close));
+        return () -> prefix + formatRain(baseRps, gameData) + suffix;
+    }
+
+    // Formats the effective drop rate accounting for rainMultiplier
+    private static String formatRain(float baseRps, GameData gameData) {
+        float effective = baseRps * gameData.rainMultiplier;
+        if (effective == (int) effective) return String.valueOf((int) effective);
+        return String.format("%.1f", effective);
+    }
+}
@@ -0,0 +1,108 @@
+package com.stormidle.upgrades;
+
+import com.stormidle.objects.GameData;
+
+import java.util.List;
+
+// Central container for all upgrade trees.
+// Pass this around instead of individual tree classes so save/load and other systems
+// only need one reference to access everything.
+
+public class UpgradeManager {
+
+    public RainUpgrades rain;
+    public AutoUpgrades auto;
+    public EconUpgrades econ;
+    public AbilityManager abilities;
+    public PrestigeManager prestige; // Thresholds of the current definitions, replaced with them
+
+    // Unlock state of every tier across all trees, rebuilt along with the trees
+    private UnlockGraph unlocks;
+
+    // Every tree in a fixed order, rebuilt along with the trees so getAllTrees() doesn't allocate
+    private List<UpgradeTree> allTrees;
+
+    // Compiled once at startup, every reset builds new trees from it. Replaced by applyDefinitions()
+    private UpgradeDefinitions definitions;
+
+    public UpgradeManager(GameData gameData, UpgradeDefinitions definitions) {
+        this.definitions = definitions;
+        prestige = new PrestigeManager(definitions);
+        gameData.stats.setAchievements(definitions.achievements);
+        reset(gameData);
+    }
+
+    // Swaps in reloaded definitions without losing progress. Every tree is rebuilt with the same number of
+    // tiers bought, and the upgrade-affected stats are recomputed from scratch so new effect values apply
+    public void applyDefinitions(UpgradeDefinitions fresh, GameData gameData) {
+        List<UpgradeTree> old = getAllTrees(); // Keeps its purchased state while the new trees are built
+
+        definitions = fresh;
+        prestige = new PrestigeManager(fresh);
+        gameData.stats.setAchievements(fresh.achievements);
+        rain = new RainUpgrades(fresh, gameData);
+        auto = new AutoUpgrades(fresh, gameData);
+        econ = new EconUpgrades(fresh, gameData);
+        allTrees = collectTrees();
+
+        gameData.resetStats();
+        for (UpgradeTree tree : getAllTrees()) {
+            int count = Math.min(purchasedCount(old, tree.id), tree.size());
+            tree.restorePurchased(count);
+            tree.applyEffects(0, count, gameData);
+        }
+        buildUnlocks(gameData);
+        // Last, so a running ability multiplies the recomputed stats
+        abilities.applyDefinitions(fresh, gameData);
+    }
+
+    // Tiers bought in the tree with the given id, 0 if there is none
+    private static int purchasedCount(List<UpgradeTree> trees, String id) {
+        for (UpgradeTree tree : trees) if (tree.id.equals(id)) return tree.purchasedCount();
+        return 0;
+    }
+
+    // Called on prestige to reset all upgrade trees
+    public void reset(GameData gameData) {
+        rain = new RainUpgrades(definitions, gameData);
+        auto = new AutoUpgrades(definitions, gameData);
+        econ = new EconUpgrades(definitions, gameData);
+        abilities = new AbilityManager(definitions);
+        allTrees = collectTrees();
+        buildUnlocks(gameData);
+    }
+
+    // Recomputes which tiers are unlocked after purchased states were set directly (save/load)
+    public void rebuildUnlocks(GameData gameData) {
+        unlocks.rebuild(gameData);
+    }
+
+    private void buildUnlocks(GameData gameData) {
+        unlocks = new UnlockGraph(getAllTrees());
+        unlocks.rebuild(gameData);
+    }
+
+    // Returns all trees across all categories as a flat list of arrays.
+    // Used by SaveManager to iterate every tree without knowing about each one individually.
+    // The same list until the next reset or reload, it can't be modified
+    public List<UpgradeTree> getAllTrees() {
+        return allTrees;
+    }
+
+    private List<UpgradeTree> collectTrees() {
+        return List.of(
+            // Rain trees
+            rain.speedTree,
+            rain.bowlTree,
+            // Auto trees
+            auto.autoTree,
+            auto.idleTimeTree,
+            // Econ trees
+            econ.conversionTree,
+            econ.condensationTree,
+            econ.humidityTree
+            // Add future trees here
+        );
+    }
+
+}
@@ -4,10 +4,10 @@ package com.stormidle.upgrades;
 // This is just a general class for all tiers, the different upgrade trees have different classes that
 // utilize this class.
 // Each upgrade belongs to a named tree and has a tier number.
-// An upgrade is only purchasable if the previous tier in the same tree has been bought.
+// An upgrade is only purchasable once it is unlocked: the previous tier in the same tree has been bought,
+// plus any cross-tree or prestige requirements (see UnlockGraph).
 
 import com.stormidle.objects.GameData;
-import com.badlogic.gdx.utils.Array;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -22,6 +22,7 @@ public class UpgradeTier {
     public static final String TREE_IDLE = "idle";
     public static final String TREE_CONVERSION  = "conversion";
     public static final String TREE_CONDENSATION = "condensation";
+    public static final String TREE_HUMIDITY = "humidity";
 
     // Data fields
     public String tree; // Which tree this upgrade belongs to
@@ -60,38 +61,44 @@ public class UpgradeTier {
         effect.accept(gameData);
     }
 
-    // Helper function to determine if the upgrade is purchasable
-    public boolean isUnlocked(UpgradeTier previousInTree) {
-        // Tier 1 is always unlocked, so return true is tier is 1
-        if (tier == 1)
-            return true;
-        // Checks if previous upgrade in tree has been purchased
-        return previousInTree != null && previousInTree.purchased;
-    }
-
     // Attempts to purchase the upgrade at the given index in the tree
     // Returns true if successful, false otherwise
-    public static boolean tryPurchase(Array<UpgradeTier> tree, int index, GameData gameData) {
-        if (index < 0 || index >= tree.size) return false;
+    public static boolean tryPurchase(UpgradeTree tree, int index, GameData gameData) {
+        return tryPurchase(tree, index, 1, gameData) == 1;
+    }
+
+    // Attempts to purchase count tiers in a row, starting at the given index. All or nothing:
+    // either every tier is affordable and they are bought with one currency deduction and one
+    // combined effect, or nothing happens. count is clamped to the end of the tree, and to the
+    // first tier whose requirements aren't met (see UpgradeTree.buyableCount)
+    // Returns how many tiers were bought
+    public static int tryPurchase(UpgradeTree tree, int index, int count, GameData gameData) {
+        if (index < 0 || index >= tree.size() || count <= 0) return 0;
 
         UpgradeTier upgrade = tree.get(index);
 
-        if (upgrade.purchased) return false;
+        if (upgrade.purchased) return 0;
 
-        UpgradeTier prev = previous(tree, index);
-        if (!upgrade.isUnlocked(prev)) return false;
+        count = tree.buyableCount(index, count);
+        if (count == 0) return 0;
 
-        if (gameData.currency < upgrade.cost) return false;
+        long total = tree.costOf(index, count);
+        if (gameData.currency < total) return 0;
 
-        gameData.currency -= upgrade.cost;
-        upgrade.purchased  = true;
-        upgrade.applyEffect(gameData);
+        gameData.currency -= (int) total;
+        tree.onPurchased(index, count);
+        if (tree.unlocks != null) tree.unlocks.onPurchased(tree, index, index + count);
+        tree.applyEffects(index, count, gameData);
 
-        return true;
+        return count;
     }
 
-    // Returns the previous tier in the tree, or null if this is tier 1
-    public static UpgradeTier previous(Array<UpgradeTier> tree, int index) {
-        return (index > 0) ? tree.get(index - 1) : null;
+    // Buys as many tiers as the current currency allows, starting at the given index
+    // Returns how many tiers were bought
+    public static int tryPurchaseMax(UpgradeTree tree, int index, GameData gameData) {
+        if (index < 0 || index >= tree.size()) return 0;
+        int count = tree.affordableCount(index, gameData.currency, tree.size() - index);
+        return tryPurchase(tree, index, count, gameData);
     }
+
 }
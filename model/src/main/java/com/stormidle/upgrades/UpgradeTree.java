@@ -0,0 +1,111 @@
+package com.stormidle.upgrades;
+
+import com.stormidle.objects.GameData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// An ordered list of upgrade tiers (index 0 = tier 1, etc).
+// Hand-written trees add() their tiers up front. FormulaUpgradeTree overrides size()/get() to generate
+// tiers on demand instead. Tiers are always bought in order, so the purchased tiers of any tree are a prefix.
+
+public class UpgradeTree {
+
+    public final String id; // Same as UpgradeTier.tree for every tier in this tree
+
+    private final List<UpgradeTier> tiers = new ArrayList<>();
+    private final List<Requirement[]> requirements = new ArrayList<>(); // Extra requirements per tier
+
+    // Set by UnlockGraph when it is built over this tree
+    UnlockGraph unlocks;
+    int unlockSlot = -1;
+
+    public UpgradeTree(String id) {
+        this.id = id;
+    }
+
+    // Appends a hand-written tier, with any requirements on top of the previous tier
+    public void add(UpgradeTier tier, Requirement... requires) {
+        tiers.add(tier);
+        requirements.add(requires);
+    }
+
+    // Number of tiers in the tree
+    public int size() {
+        return tiers.size();
+    }
+
+    // Returns the tier at the given index
+    public UpgradeTier get(int index) {
+        return tiers.get(index);
+    }
+
+    // True if the tier at index can be bought, a bit test once the tree is part of an UnlockGraph.
+    // On its own, a tree only requires the previous tier
+    public boolean isUnlocked(int index) {
+        if (unlocks != null) return unlocks.isUnlocked(this, index);
+        return index == 0 || get(index - 1).purchased;
+    }
+
+    // How many tiers starting at index can be bought in one purchase, at most limit: 0 if index is locked, and
+    // never past a later tier whose cross-tree or prestige requirements aren't met yet (see UnlockGraph)
+    public int buyableCount(int index, int limit) {
+        if (unlocks != null) return unlocks.buyableRun(this, index, limit);
+        return isUnlocked(index) ? Math.max(0, Math.min(limit, size() - index)) : 0;
+    }
+
+    // Number of UnlockGraph nodes, one per tier
+    int unlockNodes() {
+        return tiers.size();
+    }
+
+    // Requirements of a node besides the previous tier in this tree
+    Requirement[] requirements(int node) {
+        return requirements.get(node);
+    }
+
+    // How many tiers (from tier 1 upwards) have been purchased
+    public int purchasedCount() {
+        int count = 0;
+        while (count < tiers.size() && tiers.get(count).purchased) count++;
+        return count;
+    }
+
+    // Marks the first count tiers as purchased without applying their effects. Used by save/load
+    public void restorePurchased(int count) {
+        for (int i = 0; i < tiers.size(); i++) {
+            tiers.get(i).purchased = i < count;
+        }
+    }
+
+    // Total cost of buying count tiers starting at index
+    public long costOf(int index, int count) {
+        long total = 0;
+        for (int i = index; i < index + count; i++) total += get(i).cost;
+        return total;
+    }
+
+    // How many tiers starting at index can be bought in a row with the given currency, at most limit.
+    // Never more than buyableCount()
+    public int affordableCount(int index, long currency, int limit) {
+        limit = buyableCount(index, limit);
+        int count = 0;
+        long total = 0;
+        while (count < limit && index + count < size()) {
+            total += get(index + count).cost;
+            if (total > currency) break;
+            count++;
+        }
+        return count;
+    }
+
+    // Called by UpgradeTier.tryPurchase after count tiers starting at index have been bought
+    protected void onPurchased(int index, int count) {
+        for (int i = index; i < index + count; i++) tiers.get(i).purchased = true;
+    }
+
+    // Applies the effects of count freshly bought tiers starting at index
+    protected void applyEffects(int index, int count, GameData gameData) {
+        for (int i = index; i < index + count; i++) get(i).applyEffect(gameData);
+    }
+}
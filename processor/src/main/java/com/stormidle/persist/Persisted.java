@@ -0,0 +1,15 @@
+package com.stormidle.persist;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a class whose fields are saved as JSON. PersistedProcessor generates a <Name>Serializer next to it at
+// compile time with toJson(), prettyPrint() and fromJson(), which read and write the fields directly.
+// See PersistedProcessor for the field types it supports.
+
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface Persisted {
+}
@@ -0,0 +1,313 @@
+package com.stormidle.persist;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Generates <Name>Serializer for every @Persisted class. The serializer writes each field straight into a
+// StringBuilder and reads it back from a JsonNode tree with a switch on the field name, so nothing reflects
+// over the class at runtime and no number is boxed on the way in or out. The generated code only needs JsonNode,
+// so it compiles in the model module without libGDX.
+//
+// Fields: every non-static, non-transient field, in declaration order. Supported types are the primitives
+// int, long, float, double and boolean, String, int[], long[], float[], double[] and String[], and other
+// @Persisted classes. Anything else is a compile error, so a new save field can't silently go missing.
+//
+// Reading is lenient the same way libGDX's Json is with our saves: a key that isn't in the JSON, or is null,
+// keeps the field's default, and keys the class doesn't have are skipped. Old saves written by Json still load.
+
+@SupportedAnnotationTypes("com.stormidle.persist.Persisted")
+public class PersistedProcessor extends AbstractProcessor {
+
+    private enum Kind {
+        INT("asInt"), LONG("asLong"), FLOAT("asFloat"), DOUBLE("asDouble"), BOOLEAN("asBoolean"), STRING("asString"),
+        INT_ARRAY("asIntArray"), LONG_ARRAY("asLongArray"), FLOAT_ARRAY("asFloatArray"), DOUBLE_ARRAY("asDoubleArray"),
+        STRING_ARRAY("asStringArray"), PERSISTED(null);
+
+        final String reader; // JsonNode method that reads the value
+
+        Kind(String reader) {
+            this.reader = reader;
+        }
+    }
+
+    private static class Field {
+        final String name;
+        final Kind kind;
+        final String type; // Source name of the field's type, used for PERSISTED
+
+        Field(String name, Kind kind, String type) {
+            this.name = name;
+            this.kind = kind;
+            this.type = type;
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (Element element : round.getElementsAnnotatedWith(Persisted.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@Persisted only applies to classes");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            List<Field> fields = fields(type);
+            if (fields == null) continue;
+
+            try {
+                generate(type, fields);
+            } catch (IOException e) {
+                error(type, "Could not write serializer: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    // The persisted fields of type, or null after reporting why it can't be serialized
+    private List<Field> fields(TypeElement type) {
+        boolean ok = true;
+        if (type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC)) {
+            error(type, "@Persisted inner classes must be static");
+            ok = false;
+        }
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            error(type, "@Persisted classes can't be abstract");
+            ok = false;
+        }
+
+        boolean noArgConstructor = false;
+        List<Field> fields = new ArrayList<>();
+        for (Element member : type.getEnclosedElements()) {
+            if (member.getKind() == ElementKind.CONSTRUCTOR) {
+                ExecutableElement constructor = (ExecutableElement) member;
+                if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                    noArgConstructor = true;
+                }
+                continue;
+            }
+            if (member.getKind() != ElementKind.FIELD) continue;
+            Set<Modifier> modifiers = member.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) continue;
+
+            if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL)) {
+                error(member, "Persisted fields can't be private or final");
+                ok = false;
+                continue;
+            }
+            VariableElement field = (VariableElement) member;
+            Kind kind = kind(field.asType());
+            if (kind == null) {
+                error(member, "Unsupported persisted field type " + field.asType());
+                ok = false;
+                continue;
+            }
+            fields.add(new Field(field.getSimpleName().toString(), kind, field.asType().toString()));
+        }
+        if (!noArgConstructor) {
+            error(type, "@Persisted classes need a no-arg constructor");
+            ok = false;
+        }
+        return ok ? fields : null;
+    }
+
+    private Kind kind(TypeMirror type) {
+        switch (type.getKind()) {
+            case INT:     return Kind.INT;
+            case LONG:    return Kind.LONG;
+            case FLOAT:   return Kind.FLOAT;
+            case DOUBLE:  return Kind.DOUBLE;
+            case BOOLEAN: return Kind.BOOLEAN;
+            case ARRAY:
+                switch (((ArrayType) type).getComponentType().getKind()) {
+                    case INT:    return Kind.INT_ARRAY;
+                    case LONG:   return Kind.LONG_ARRAY;
+                    case FLOAT:  return Kind.FLOAT_ARRAY;
+                    case DOUBLE: return Kind.DOUBLE_ARRAY;
+                    case DECLARED:
+                        String component = ((ArrayType) type).getComponentType().toString();
+                        return component.equals("java.lang.String") ? Kind.STRING_ARRAY : null;
+                    default:     return null;
+                }
+            case DECLARED:
+                TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+                if (element.getQualifiedName().contentEquals("java.lang.String")) return Kind.STRING;
+                if (element.getAnnotation(Persisted.class) != null) return Kind.PERSISTED;
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    // The generated class sits in the same package as the persisted one, e.g. com.stormidle.save.SaveData
+    // gets com.stormidle.save.SaveDataSerializer
+    private String serializerName(TypeElement type) {
+        return type.getSimpleName() + "Serializer";
+    }
+
+    private String packageName(TypeElement type) {
+        Element e = type;
+        while (!(e instanceof PackageElement)) e = e.getEnclosingElement();
+        return ((PackageElement) e).getQualifiedName().toString();
+    }
+
+    private void generate(TypeElement type, List<Field> fields) throws IOException {
+        String pkg        = packageName(type);
+        String serializer = serializerName(type);
+        String target     = type.getQualifiedName().toString();
+
+        StringBuilder s = new StringBuilder();
+        if (!pkg.isEmpty()) s.append("package ").append(pkg).append(";\n\n");
+        s.append("import com.stormidle.persist.JsonNode;\n\n");
+        s.append("// Generated by PersistedProcessor from ").append(type.getSimpleName()).append(". Do not edit.\n\n");
+        s.append("public final class ").append(serializer).append(" {\n\n");
+        s.append("    private static final char[] HEX = \"0123456789abcdef\".toCharArray();\n\n");
+        s.append("    private ").append(serializer).append("() {\n    }\n\n");
+
+        // Entry points, named like libGDX's Json so call sites read the same
+        s.append("    public static String toJson(").append(target).append(" o) {\n");
+        s.append("        StringBuilder out = new StringBuilder(256);\n");
+        s.append("        write(o, out, -1);\n");
+        s.append("        return out.toString();\n    }\n\n");
+        s.append("    public static String prettyPrint(").append(target).append(" o) {\n");
+        s.append("        StringBuilder out = new StringBuilder(512);\n");
+        s.append("        write(o, out, 0);\n");
+        s.append("        return out.toString();\n    }\n\n");
+        s.append("    public static ").append(target).append(" fromJson(String json) {\n");
+        s.append("        return read(JsonNode.parse(json));\n    }\n\n");
+
+        // Writer. indent is the nesting depth when pretty printing, or -1 for compact output
+        s.append("    public static void write(").append(target).append(" o, StringBuilder out, int indent) {\n");
+        s.append("        out.append('{');\n");
+        for (int i = 0; i < fields.size(); i++) {
+            Field f = fields.get(i);
+            s.append("        key(out, indent, \"").append(f.name).append("\", ").append(i == 0).append(");\n");
+            writeField(s, f);
+        }
+        s.append("        newline(out, indent);\n");
+        s.append("        out.append('}');\n    }\n\n");
+
+        // Reader
+        s.append("    public static ").append(target).append(" read(JsonNode json) {\n");
+        s.append("        if (!json.isObject()) {\n");
+        s.append("            throw new IllegalArgumentException(\"Expected an object for ").append(type.getSimpleName())
+            .append(" but found \" + json.type());\n        }\n");
+        s.append("        ").append(target).append(" o = new ").append(target).append("();\n");
+        s.append("        for (JsonNode v = json.child; v != null; v = v.next) {\n");
+        s.append("            if (v.name == null || v.isNull()) continue;\n");
+        s.append("            switch (v.name) {\n");
+        for (Field f : fields) {
+            s.append("                case \"").append(f.name).append("\":\n");
+            readField(s, f);
+            s.append("                    break;\n");
+        }
+        s.append("            }\n        }\n");
+        s.append("        return o;\n    }\n\n");
+
+        // Helpers
+        s.append("    private static void key(StringBuilder out, int indent, String name, boolean first) {\n");
+        s.append("        if (!first) out.append(',');\n");
+        s.append("        newline(out, indent < 0 ? indent : indent + 1);\n");
+        s.append("        out.append('\"').append(name).append(indent < 0 ? \"\\\":\" : \"\\\": \");\n    }\n\n");
+        s.append("    private static void newline(StringBuilder out, int indent) {\n");
+        s.append("        if (indent < 0) return;\n");
+        s.append("        out.append('\\n');\n");
+        s.append("        for (int i = 0; i < indent; i++) out.append(\"  \");\n    }\n\n");
+        s.append("    private static void string(StringBuilder out, String value) {\n");
+        s.append("        if (value == null) {\n            out.append(\"null\");\n            return;\n        }\n");
+        s.append("        out.append('\"');\n");
+        s.append("        for (int i = 0; i < value.length(); i++) {\n");
+        s.append("            char c = value.charAt(i);\n");
+        s.append("            switch (c) {\n");
+        s.append("                case '\"':  out.append(\"\\\\\\\"\"); break;\n");
+        s.append("                case '\\\\': out.append(\"\\\\\\\\\"); break;\n");
+        s.append("                case '\\n': out.append(\"\\\\n\"); break;\n");
+        s.append("                case '\\r': out.append(\"\\\\r\"); break;\n");
+        s.append("                case '\\t': out.append(\"\\\\t\"); break;\n");
+        s.append("                default:\n");
+        s.append("                    if (c < 0x20) out.append(\"\\\\u00\").append(HEX[c >> 4]).append(HEX[c & 15]);\n");
+        s.append("                    else out.append(c);\n");
+        s.append("            }\n        }\n");
+        s.append("        out.append('\"');\n    }\n");
+        s.append("}\n");
+
+        try (Writer writer = processingEnv.getFiler()
+            .createSourceFile(pkg.isEmpty() ? serializer : pkg + "." + serializer, type).openWriter()) {
+            writer.write(s.toString());
+        }
+    }
+
+    private void writeField(StringBuilder s, Field f) {
+        String value = "o." + f.name;
+        switch (f.kind) {
+            case INT: case LONG: case FLOAT: case DOUBLE: case BOOLEAN:
+                s.append("        out.append(").append(value).append(");\n");
+                return;
+            case STRING:
+                s.append("        string(out, ").append(value).append(");\n");
+                return;
+            case PERSISTED:
+                s.append("        if (").append(value).append(" == null) out.append(\"null\");\n");
+                s.append("        else ").append(fullSerializerName(f.type)).append(".write(").append(value)
+                    .append(", out, indent < 0 ? indent : indent + 1);\n");
+                return;
+            default:
+                s.append("        if (").append(value).append(" == null) out.append(\"null\");\n");
+                s.append("        else {\n");
+                s.append("            out.append('[');\n");
+                s.append("            for (int i = 0; i < ").append(value).append(".length; i++) {\n");
+                s.append("                if (i > 0) out.append(',');\n");
+                if (f.kind == Kind.STRING_ARRAY) {
+                    s.append("                string(out, ").append(value).append("[i]);\n");
+                } else {
+                    s.append("                out.append(").append(value).append("[i]);\n");
+                }
+                s.append("            }\n");
+                s.append("            out.append(']');\n");
+                s.append("        }\n");
+        }
+    }
+
+    private void readField(StringBuilder s, Field f) {
+        String value = "o." + f.name;
+        switch (f.kind) {
+            case PERSISTED:
+                s.append("                    ").append(value).append(" = ").append(fullSerializerName(f.type))
+                    .append(".read(v);\n");
+                return;
+            default:
+                s.append("                    ").append(value).append(" = v.").append(f.kind.reader).append("();\n");
+        }
+    }
+
+    private String fullSerializerName(String type) {
+        TypeElement element = processingEnv.getElementUtils().getTypeElement(type);
+        String pkg = packageName(element);
+        return (pkg.isEmpty() ? "" : pkg + ".") + serializerName(element);
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
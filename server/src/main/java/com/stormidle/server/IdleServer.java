@@ -0,0 +1,216 @@
+package com.stormidle.server;
+
+import com.stormidle.save.OfflineResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+// Headless server for centrally hosted saves. Loads every profile in a folder (see ProfileStore) and works out
+// offline progress with the game's own rules (SaveFormat, OfflineResult), over a local HTTP endpoint:
+//
+//   GET  /claim/<id>    what the player would collect right now, changes nothing
+//   POST /collect/<id>  adds it to their currency and restarts their idle clock
+//   GET  /stats         profiles loaded, requests served, saves written
+//
+// Every request runs on its own virtual thread, so requests are handled in parallel and one that blocks (reading
+// a profile that wasn't loaded yet, or writing a save with --flush-ms 0) holds up only its own connection.
+// A collect only changes the profile in memory, and the changed saves are written back together every --flush-ms.
+// Replies are small JSON objects.
+//
+//   gradle server:serve --args="--profiles build/profiles"
+//   gradle server:serve --args="--profiles build/profiles --settle"
+//
+// Options: --profiles dir (default build/profiles), --port N (default 8085), --bind address (default 127.0.0.1,
+// so only this machine can reach it), --flush-ms N (default 1000, 0 writes every collect before replying),
+// --settle (collect for every profile at once, write them all back and exit instead of serving).
+
+public class IdleServer {
+
+    private final ProfileStore store;
+    private final long flushMillis;
+    private final LongAdder claims   = new LongAdder();
+    private final LongAdder collects = new LongAdder();
+    private volatile boolean running = true;
+
+    IdleServer(ProfileStore store, long flushMillis) {
+        this.store       = store;
+        this.flushMillis = flushMillis;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path profiles = Path.of("build/profiles");
+        int port = 8085;
+        String bind = "127.0.0.1";
+        long flushMillis = 1000;
+        boolean settle = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--profiles": profiles = Path.of(args[++i]); break;
+                case "--port":     port = Integer.parseInt(args[++i]); break;
+                case "--bind":     bind = args[++i]; break;
+                case "--flush-ms": flushMillis = Long.parseLong(args[++i]); break;
+                case "--settle":   settle = true; break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (!Files.isDirectory(profiles)) throw new IllegalArgumentException(profiles + " is not a folder");
+
+        ProfileStore store = new ProfileStore(profiles);
+        long start = System.nanoTime();
+        store.loadAll();
+        double loadSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Loaded %d profiles from %s in %.2fs (%.0f/s)%n",
+            store.size(), profiles, loadSeconds, store.size() / loadSeconds);
+
+        if (settle) {
+            settle(store);
+            return;
+        }
+        new IdleServer(store, flushMillis).serve(bind, port);
+    }
+
+    // Collects for every profile and writes the changed ones back, reporting each step's rate. Profiles with nothing
+    // to collect aren't updates, so the overall rate counts only the changed ones
+    private static void settle(ProfileStore store) {
+        long start = System.nanoTime();
+        int changed = store.settleAll(System.currentTimeMillis() / 1000L);
+        long settled = System.nanoTime();
+        int written = store.flush();
+        long end = System.nanoTime();
+
+        double total = (end - start) / 1e9;
+        System.out.printf("Settled %d profiles (%d changed) in %.2fs, wrote %d in %.2fs: %.0f profile updates/s%n",
+            store.size(), changed, (settled - start) / 1e9, written, (end - settled) / 1e9, changed / total);
+        if (store.failures.get() > 0) System.out.println(store.failures.get() + " profiles failed, see above");
+    }
+
+    private void serve(String bind, int port) throws IOException, InterruptedException {
+        // The JDK server writes the headers and the body separately. With Nagle on, every reply waits out the
+        // client's delayed ACK (about 40 ms), which capped a keep-alive connection at ~25 requests/s
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress(bind, port), 1024);
+        // A virtual thread per request. On the dispatcher thread itself one cold profile read would stall every
+        // connection, and requests couldn't use more than one core
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+
+        Thread flusher = Thread.ofVirtual().name("profile-flush").unstarted(this::flushLoop);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            running = false;
+            flusher.interrupt();
+            try {
+                flusher.join();
+            } catch (InterruptedException ignored) {
+            }
+            System.out.println("Wrote " + store.flush() + " profiles on shutdown");
+        }, "shutdown"));
+
+        if (flushMillis > 0) flusher.start();
+        server.start();
+        System.out.println("Serving " + store.size() + " profiles on http://" + bind + ":" + port
+            + (flushMillis > 0 ? ", writing changes every " + flushMillis + " ms" : ", writing every collect"));
+        Thread.currentThread().join(); // The HTTP server's threads keep the JVM alive until it is stopped
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                Thread.sleep(flushMillis);
+            } catch (InterruptedException e) {
+                return; // Shutting down, the hook does the last flush
+            }
+            store.flush();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path   = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+
+            if (path.equals("/stats")) {
+                reply(exchange, 200, "{\"profiles\":" + store.size() + ",\"claims\":" + claims.sum()
+                    + ",\"collects\":" + collects.sum() + ",\"writes\":" + store.writes.get()
+                    + ",\"failures\":" + store.failures.get() + "}");
+                return;
+            }
+
+            boolean claim = path.startsWith("/claim/");
+            if (!claim && !path.startsWith("/collect/")) {
+                reply(exchange, 404, error("No such endpoint"));
+                return;
+            }
+            if (!method.equals(claim ? "GET" : "POST")) {
+                exchange.getResponseHeaders().set("Allow", claim ? "GET" : "POST");
+                reply(exchange, 405, error("Use " + (claim ? "GET" : "POST")));
+                return;
+            }
+
+            String id = path.substring(path.indexOf('/', 1) + 1);
+            if (!ProfileStore.isValidId(id)) {
+                reply(exchange, 400, error("Bad profile id"));
+                return;
+            }
+            Profile profile = store.get(id);
+            if (profile == null) {
+                reply(exchange, 404, error("No profile " + id));
+                return;
+            }
+
+            long now = System.currentTimeMillis() / 1000L;
+            OfflineResult result;
+            if (claim) {
+                result = profile.claim(now);
+                claims.increment();
+            } else {
+                result = profile.collect(now);
+                collects.increment();
+                if (result.hasProgress) {
+                    if (flushMillis > 0) store.changed(profile);
+                    else store.write(profile);
+                }
+            }
+            reply(exchange, 200, toJson(id, result, profile.currency(), !claim));
+        } catch (RuntimeException e) {
+            // A save that can't be read or written. The exchange may already be half answered, so just log it
+            System.err.println("IdleServer: " + exchange.getRequestURI() + ": " + e);
+            try {
+                reply(exchange, 500, error(e.getClass().getSimpleName()));
+            } catch (IOException | RuntimeException ignored) {
+            }
+        }
+    }
+
+    private static String toJson(String id, OfflineResult result, int currency, boolean collected) {
+        return "{\"id\":\"" + id + "\",\"collected\":" + (collected && result.hasProgress)
+            + ",\"secondsAway\":" + result.secondsAway + ",\"rainfallCurrency\":" + result.rainfallCurrency
+            + ",\"condensationCurrency\":" + result.condensationCurrency + ",\"exceededCap\":" + result.exceededCap
+            + ",\"maxIdleHours\":" + result.maxIdleHours + ",\"currency\":" + currency + "}";
+    }
+
+    // Messages are fixed text or validated ids, so they never need escaping
+    private static String error(String message) {
+        return "{\"error\":\"" + message + "\"}";
+    }
+
+    private static void reply(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
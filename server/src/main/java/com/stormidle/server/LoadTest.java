@@ -0,0 +1,282 @@
+package com.stormidle.server;
+
+import com.stormidle.save.SaveData;
+import com.stormidle.save.SaveFormat;
+import com.stormidle.save.SaveStore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Load test for IdleServer. --generate writes a folder of made-up profiles, late-game sized and away for up to
+// two days. Otherwise it keeps --connections virtual threads sending claims and collects for random profiles
+// in that folder to a running server for --seconds, then reports requests per second and latency percentiles.
+// Each connection is one keep-alive socket speaking plain HTTP/1.1, so the client costs little next to the
+// server it measures. --pipeline sends that many requests before reading their replies.
+//
+//   gradle server:loadTest --args="--generate 10000"
+//   gradle server:serve &
+//   gradle server:loadTest --args="--seconds 20 --connections 64"
+//
+// Options: --profiles dir (default build/profiles), --generate N (write N profiles, replacing any there, and
+// exit), --url base (default http://127.0.0.1:8085), --seconds N (default 10), --connections N (default 64),
+// --pipeline N (default 1), --collect P (share of requests that collect rather than claim, default 0.5), --seed N.
+
+public class LoadTest {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path profiles = Path.of("build/profiles");
+        int generate = 0;
+        String url = "http://127.0.0.1:8085";
+        int seconds = 10;
+        int connections = 64;
+        int pipeline = 1;
+        double collectShare = 0.5;
+        long seed = 1;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--profiles":    profiles = Path.of(args[i + 1]); break;
+                case "--generate":    generate = Integer.parseInt(args[i + 1]); break;
+                case "--url":         url = args[i + 1]; break;
+                case "--seconds":     seconds = Integer.parseInt(args[i + 1]); break;
+                case "--connections": connections = Integer.parseInt(args[i + 1]); break;
+                case "--pipeline":    pipeline = Integer.parseInt(args[i + 1]); break;
+                case "--collect":     collectShare = Double.parseDouble(args[i + 1]); break;
+                case "--seed":        seed = Long.parseLong(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        if (generate > 0) {
+            generate(profiles, generate, seed);
+            return;
+        }
+        run(profiles, url, seconds, connections, pipeline, collectShare, seed);
+    }
+
+    private static void generate(Path dir, int count, long seed) throws IOException {
+        Files.createDirectories(dir);
+        long now = System.currentTimeMillis() / 1000L;
+        long start = System.nanoTime();
+        ProfileStore store = new ProfileStore(dir);
+        store.inBatches(IntStream.range(0, count).boxed().toList(), i -> {
+            SaveData data = profile(new SplittableRandom(seed ^ (i * 0x9E3779B97F4A7C15L)), now);
+            SaveFormat.write(SaveStore.forPath(dir.resolve(idOf(i) + ".json")), data);
+        });
+        System.out.printf("Wrote %d profiles to %s in %.2fs%n", count, dir, (System.nanoTime() - start) / 1e9);
+    }
+
+    private static String idOf(int index) {
+        return String.format("player%06d", index);
+    }
+
+    // A save the size of a late game. Condensation is always on, so every collect earns something
+    private static SaveData profile(SplittableRandom random, long now) {
+        SaveData data = new SaveData();
+        data.currency       = random.nextInt(1_000_000);
+        data.fallSpeed      = 300f + random.nextInt(400);
+        data.dropsToFill    = 20 + random.nextInt(40);
+        data.rps            = 0.5f + random.nextInt(100) / 2f;
+        data.cps            = 1f + random.nextInt(500);
+        data.currencyEarned = 1 + random.nextInt(100);
+        data.prestigeLevel  = random.nextInt(7);
+        data.rainMultiplier = 1 + data.prestigeLevel;
+        data.maxIdleTime    = 1 + random.nextInt(24);
+        data.tutorialComplete = true;
+        data.lastClosedTime = now - 60 - random.nextInt(2 * 24 * 3600);
+
+        String[] trees = {"speed", "value", "auto", "idle", "conversion"};
+        data.purchasedUpgrades = new String[trees.length * 4];
+        for (int t = 0; t < trees.length; t++) {
+            for (int tier = 1; tier <= 4; tier++) data.purchasedUpgrades[t * 4 + tier - 1] = trees[t] + "_" + tier;
+        }
+        data.formulaTreeIds    = new String[]{"idleTime", "condensation", "humidity"};
+        data.formulaTreeLevels = new int[]{random.nextInt(24), random.nextInt(60), random.nextInt(60)};
+        data.stats = new long[6];
+        for (int i = 0; i < data.stats.length; i++) data.stats[i] = random.nextLong(10_000_000L);
+        data.incomeRate = data.cps + data.rps / data.dropsToFill * data.currencyEarned;
+        data.incomeMinutes = new float[60];
+        for (int i = 0; i < data.incomeMinutes.length; i++) data.incomeMinutes[i] = (float) data.incomeRate;
+        data.incomeHours = new float[24];
+        for (int i = 0; i < data.incomeHours.length; i++) data.incomeHours[i] = (float) data.incomeRate;
+        return data;
+    }
+
+    private static void run(Path dir, String url, int seconds, int connections, int pipeline, double collectShare,
+                            long seed) throws IOException, InterruptedException {
+        String[] ids;
+        try (Stream<Path> listing = Files.list(dir)) {
+            ids = listing.map(file -> file.getFileName().toString())
+                .filter(name -> name.endsWith(".json"))
+                .map(name -> name.substring(0, name.length() - ".json".length()))
+                .toArray(String[]::new);
+        }
+        if (ids.length == 0) throw new IllegalArgumentException("No profiles in " + dir + ", run with --generate first");
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        client.send(HttpRequest.newBuilder(URI.create(url + "/stats")).build(), HttpResponse.BodyHandlers.discarding());
+
+        System.out.printf("%d connections (pipeline %d) for %ds against %s, %d profiles, %.0f%% collects%n",
+            connections, pipeline, seconds, url, ids.length, collectShare * 100);
+        URI base = URI.create(url);
+        Worker[] workers = new Worker[connections];
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < connections; w++) {
+                workers[w] = new Worker(base, ids, pipeline, collectShare, new SplittableRandom(seed + w), deadline);
+                executor.execute(workers[w]);
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        int total = 0, collects = 0, errors = 0;
+        for (Worker worker : workers) {
+            total    += worker.count;
+            collects += worker.collects;
+            errors   += worker.errors;
+        }
+        long[] latencies = new long[total];
+        int at = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, at, worker.count);
+            at += worker.count;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("%d requests in %.2fs: %.0f requests/s, %.0f collects/s, %d errors%n",
+            total, elapsed, total / elapsed, collects / elapsed, errors);
+        System.out.printf("latency ms: p50 %.2f  p90 %.2f  p99 %.2f  max %.2f%n",
+            percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+            percentile(latencies, 1.0));
+        HttpResponse<String> stats = client.send(HttpRequest.newBuilder(URI.create(url + "/stats")).build(),
+            HttpResponse.BodyHandlers.ofString());
+        System.out.println("Server: " + stats.body());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return Double.NaN;
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))] / 1e6;
+    }
+
+    // One keep-alive connection's worth of requests, sent until the deadline. With a pipeline of n, n requests go
+    // out in one write and their replies are read back in order. Latency is from that write to each reply
+    private static class Worker implements Runnable {
+        private final URI base;
+        private final String[] ids;
+        private final int pipeline;
+        private final double collectShare;
+        private final SplittableRandom random;
+        private final long deadline;
+        private final byte[] line = new byte[256]; // Longest status or header line kept, the rest is skipped
+
+        long[] latencies = new long[1024]; // Nanoseconds per request
+        int count;
+        int collects;
+        int errors;
+
+        Worker(URI base, String[] ids, int pipeline, double collectShare, SplittableRandom random, long deadline) {
+            this.base         = base;
+            this.ids          = ids;
+            this.pipeline     = pipeline;
+            this.collectShare = collectShare;
+            this.random       = random;
+            this.deadline     = deadline;
+        }
+
+        @Override
+        public void run() {
+            boolean[] collect = new boolean[pipeline];
+            while (System.nanoTime() - deadline < 0) {
+                try (Socket socket = new Socket(base.getHost(), base.getPort())) {
+                    socket.setTcpNoDelay(true);
+                    OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 8192);
+                    InputStream in   = new BufferedInputStream(socket.getInputStream(), 8192);
+                    while (System.nanoTime() - deadline < 0) {
+                        for (int r = 0; r < pipeline; r++) {
+                            collect[r] = random.nextDouble() < collectShare;
+                            String id = ids[random.nextInt(ids.length)];
+                            out.write((collect[r]
+                                ? "POST /collect/" + id + " HTTP/1.1\r\nHost: " + base.getAuthority()
+                                    + "\r\nContent-Length: 0\r\n\r\n"
+                                : "GET /claim/" + id + " HTTP/1.1\r\nHost: " + base.getAuthority() + "\r\n\r\n")
+                                .getBytes(StandardCharsets.ISO_8859_1));
+                        }
+                        long start = System.nanoTime();
+                        out.flush();
+                        for (int r = 0; r < pipeline; r++) {
+                            if (readResponse(in) != 200) errors++;
+                            if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+                            latencies[count++] = System.nanoTime() - start;
+                            if (collect[r]) collects++;
+                        }
+                    }
+                } catch (IOException e) {
+                    errors++; // Reconnect and carry on
+                }
+            }
+        }
+
+        // Reads one response and returns its status. The body is skipped, only its length matters
+        private int readResponse(InputStream in) throws IOException {
+            int length = readLine(in);
+            if (length < 12) throw new IOException("Bad status line");
+            int status = (line[9] - '0') * 100 + (line[10] - '0') * 10 + (line[11] - '0');
+            long contentLength = 0;
+            while ((length = readLine(in)) > 0) {
+                if (length > 15 && headerIs("content-length:")) {
+                    contentLength = Long.parseLong(new String(line, 15, length - 15, StandardCharsets.ISO_8859_1).trim());
+                }
+            }
+            while (contentLength > 0) {
+                long skipped = in.skip(contentLength);
+                if (skipped <= 0) {
+                    if (in.read() < 0) throw new IOException("Connection closed mid-body");
+                    skipped = 1;
+                }
+                contentLength -= skipped;
+            }
+            return status;
+        }
+
+        // Reads up to CRLF into line and returns its length without the CRLF
+        private int readLine(InputStream in) throws IOException {
+            int length = 0;
+            while (true) {
+                int b = in.read();
+                if (b < 0) throw new IOException("Connection closed");
+                if (b == '\n') break;
+                if (b != '\r' && length < line.length) line[length++] = (byte) b;
+            }
+            return length;
+        }
+
+        private boolean headerIs(String lowerName) {
+            for (int i = 0; i < lowerName.length(); i++) {
+                if (Character.toLowerCase(line[i]) != lowerName.charAt(i)) return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.stormidle.server;
+
+import com.stormidle.save.OfflineResult;
+import com.stormidle.save.SaveData;
+import com.stormidle.save.SaveDataSerializer;
+import com.stormidle.save.SaveFormat;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+// One player's save, held in memory by ProfileStore. Every method locks the profile, so two requests for the
+// same player can't both collect the same time away. Requests for different players never wait for each other.
+
+class Profile {
+
+    final String id;
+    private final SaveData data;
+
+    // Set when the save has changed since it was last written, so ProfileStore queues it only once
+    final AtomicBoolean dirty = new AtomicBoolean();
+
+    // Held while the save is written, so two writes never share the temporary file. A lock rather than
+    // synchronized, which would pin the virtual thread to its carrier for the length of the I/O
+    final ReentrantLock writing = new ReentrantLock();
+
+    Profile(String id, SaveData data) {
+        this.id   = id;
+        this.data = data;
+    }
+
+    // What the player would get by collecting now. Changes nothing
+    synchronized OfflineResult claim(long now) {
+        return SaveFormat.pendingOffline(data, now);
+    }
+
+    // Adds the offline earnings to the save with the same rules as the game loading it, and starts the clock
+    // again from now. The save only changes if the result hasProgress: the clock doesn't restart otherwise, so
+    // polling more often than a whole coin accrues doesn't throw away partial progress
+    synchronized OfflineResult collect(long now) {
+        OfflineResult result = SaveFormat.offlineProgress(data, now);
+        if (result.hasProgress) data.lastClosedTime = now;
+        return result;
+    }
+
+    synchronized int currency() {
+        return data.currency;
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+
+    // The save as it would be written to disk, copied under the lock so a write never sees half an update
+    synchronized String toJson() {
+        return SaveDataSerializer.prettyPrint(data);
+    }
+}
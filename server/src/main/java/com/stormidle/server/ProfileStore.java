@@ -0,0 +1,159 @@
+package com.stormidle.server;
+
+import com.stormidle.save.OfflineResult;
+import com.stormidle.save.SaveData;
+import com.stormidle.save.SaveFormat;
+import com.stormidle.save.SaveStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Every profile in one folder: <id>.json each, in exactly the format the game writes, held in memory once loaded.
+//
+// File work is done in batches. loadAll() and flush() split the files into runs of BATCH_SIZE, and each run gets
+// its own virtual thread, so thousands of small reads or writes are in flight at once without a thread each.
+// Changing a profile only changes the copy in memory and queues it. flush() then writes each queued profile
+// once, however many times it changed since the last flush. IdleServer flushes on a timer and on shutdown.
+// Writes go through SaveStore.forPath(), which replaces a file atomically, so a crash never leaves half a save.
+
+class ProfileStore {
+
+    static final int BATCH_SIZE = 64;
+
+    private static final String SUFFIX = ".json";
+
+    // Ids become file names, so nothing that could leave the folder
+    private static final Pattern ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final Path dir;
+    private final ConcurrentHashMap<String, Profile> profiles = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Profile> queued = new ConcurrentLinkedQueue<>();
+
+    final AtomicLong writes   = new AtomicLong();
+    final AtomicLong failures = new AtomicLong();
+
+    ProfileStore(Path dir) {
+        this.dir = dir;
+    }
+
+    static boolean isValidId(String id) {
+        return ID.matcher(id).matches();
+    }
+
+    int size() {
+        return profiles.size();
+    }
+
+    // Reads every save in the folder into memory. Saves that fail to parse are reported and skipped
+    void loadAll() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(dir)) {
+            files = listing.filter(file -> isValidId(idOf(file))).toList();
+        }
+        inBatches(files, file -> {
+            String id = idOf(file);
+            SaveData data = SaveFormat.read(SaveStore.forPath(file));
+            if (data != null) profiles.put(id, new Profile(id, data));
+        });
+    }
+
+    // The profile with the given id, read from disk the first time. Null if there is no such save
+    Profile get(String id) {
+        Profile profile = profiles.get(id);
+        if (profile != null || !isValidId(id)) return profile;
+
+        // Not inside computeIfAbsent, which would hold a map lock for the length of the read
+        SaveData data = SaveFormat.read(SaveStore.forPath(dir.resolve(id + SUFFIX)));
+        if (data == null) return null;
+        Profile loaded = new Profile(id, data);
+        profile = profiles.putIfAbsent(id, loaded);
+        return profile != null ? profile : loaded;
+    }
+
+    // Collects the offline progress of every loaded profile, as if each player had opened the game at now.
+    // Returns how many saves changed
+    int settleAll(long now) {
+        AtomicLong settled = new AtomicLong();
+        inBatches(new ArrayList<>(profiles.values()), profile -> {
+            OfflineResult result = profile.collect(now);
+            if (result.hasProgress) {
+                changed(profile);
+                settled.incrementAndGet();
+            }
+        });
+        return (int) settled.get();
+    }
+
+    // Queues a changed profile for the next flush()
+    void changed(Profile profile) {
+        if (profile.dirty.compareAndSet(false, true)) queued.add(profile);
+    }
+
+    // Writes every queued profile and returns how many were written. A failed write is queued again
+    int flush() {
+        List<Profile> batch = new ArrayList<>();
+        for (Profile profile; (profile = queued.poll()) != null; ) batch.add(profile);
+        if (batch.isEmpty()) return 0;
+
+        AtomicLong written = new AtomicLong();
+        inBatches(batch, profile -> {
+            // Cleared before the copy, so a change made while this write is in progress queues it again
+            profile.dirty.set(false);
+            try {
+                write(profile);
+                written.incrementAndGet();
+            } catch (RuntimeException e) {
+                changed(profile);
+                throw e;
+            }
+        });
+        return (int) written.get();
+    }
+
+    // Writes one profile now. Used by flush(), and by IdleServer on every collect with --flush-ms 0
+    void write(Profile profile) {
+        profile.writing.lock();
+        try {
+            SaveStore.forPath(dir.resolve(profile.id + SUFFIX)).write(profile.toJson());
+        } finally {
+            profile.writing.unlock();
+        }
+        writes.incrementAndGet();
+    }
+
+    private String idOf(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(SUFFIX) ? name.substring(0, name.length() - SUFFIX.length()) : "";
+    }
+
+    // Runs work over items, BATCH_SIZE items per virtual thread, and returns once all of them are done.
+    // A failing item is reported and counted, and the rest of its batch carries on
+    <T> void inBatches(List<T> items, Consumer<T> work) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int start = 0; start < items.size(); start += BATCH_SIZE) {
+                List<T> run = items.subList(start, Math.min(items.size(), start + BATCH_SIZE));
+                executor.execute(() -> {
+                    for (T item : run) {
+                        try {
+                            work.accept(item);
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                            System.err.println("ProfileStore: " + item + ": " + e);
+                        }
+                    }
+                });
+            }
+        }
+    }
+}